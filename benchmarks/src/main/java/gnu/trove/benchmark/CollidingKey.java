@@ -0,0 +1,29 @@
+package gnu.trove.benchmark;
+
+/**
+ * A key whose <tt>hashCode()</tt> is shared by {@link #GROUP} consecutive ids,
+ * as with a hash over a field that barely varies. Every key of a group probes
+ * the same chain, so this measures how a map copes with collisions it can do
+ * nothing about.
+ */
+final class CollidingKey {
+	static final int GROUP = 16;
+
+	private final long id;
+
+
+	CollidingKey( long id ) {
+		this.id = id;
+	}
+
+
+	@Override
+	public int hashCode() {
+		return ( int ) ( id / GROUP );
+	}
+
+	@Override
+	public boolean equals( Object o ) {
+		return o instanceof CollidingKey && ( ( CollidingKey ) o ).id == id;
+	}
+}
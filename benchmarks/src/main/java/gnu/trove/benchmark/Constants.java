@@ -0,0 +1,31 @@
+package gnu.trove.benchmark;
+
+import java.util.Random;
+
+
+/**
+ * Settings shared by the benchmarks.
+ */
+class Constants {
+	/** Seeds every key set, so runs and releases are compared on the same keys. */
+	public static final long SEED = 0x5DEECE66DL;
+
+	/**
+	 * The capacity collections are created with, so that filling them includes
+	 * the cost of growing.
+	 */
+	public static final int DEFAULT_CAPACITY = gnu.trove.impl.Constants.DEFAULT_CAPACITY;
+
+
+	/**
+	 * Returns <tt>size</tt> random strings of the kind used for identifiers.
+	 */
+	public static String[] strings( int size ) {
+		Random random = new Random( SEED );
+		String[] keys = new String[ size ];
+		for( int i = 0; i < size; i++ ) {
+			keys[ i ] = "key-" + Integer.toHexString( random.nextInt() );
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,316 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.TCollections;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntIntMap;
+import gnu.trove.map.TObjectLongMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TObjectLongHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Readers and writers hammering one shared collection: the synchronized
+ * wrappers of {@link TCollections} against their JDK counterparts, with
+ * {@link ConcurrentHashMap} as the baseline for what a concurrent structure
+ * gets. Readers and writers are the two halves of the <tt>readWrite</tt>
+ * group, so JMH reports their throughput apart.
+ * <p>
+ * The group runs three readers to a writer; <tt>-tg readers,writers</tt>
+ * changes the split and <tt>-t</tt> runs several groups on the same
+ * collection. {@link ContentionSweep} runs it over a range of thread counts
+ * and read ratios.
+ * <p>
+ * Writes to maps and sets alternate between adding (or incrementing) and
+ * removing over twice as many keys as the collection starts with, so it
+ * stays around its size. Writes to lists set an element.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@State( Scope.Benchmark )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class ContentionBenchmark {
+	@Param( { "TIntIntMap", "TObjectLongMap", "ConcurrentHashMap", "TIntSet",
+		"ConcurrentHashSet", "TIntList", "SynchronizedList" } )
+	public String collection;
+
+	@Param( { "100000" } )
+	public int size;
+
+	private Shared shared;
+
+
+	@Setup
+	public void setUp() {
+		if ( collection.equals( "TIntIntMap" ) ) {
+			shared = new IntIntMap( size );
+		}
+		else if ( collection.equals( "TObjectLongMap" ) ) {
+			shared = new ObjectLongMap( size );
+		}
+		else if ( collection.equals( "ConcurrentHashMap" ) ) {
+			shared = new JavaConcurrentMap( size );
+		}
+		else if ( collection.equals( "TIntSet" ) ) {
+			shared = new IntSet( size );
+		}
+		else if ( collection.equals( "ConcurrentHashSet" ) ) {
+			shared = new JavaConcurrentSet( size );
+		}
+		else if ( collection.equals( "TIntList" ) ) {
+			shared = new IntList( size );
+		}
+		else if ( collection.equals( "SynchronizedList" ) ) {
+			shared = new JavaSynchronizedList( size );
+		}
+		else {
+			throw new IllegalArgumentException( "Unknown collection: " + collection );
+		}
+	}
+
+
+	@Benchmark
+	@Group( "readWrite" )
+	@GroupThreads( 3 )
+	public long read( ThreadRandom random ) {
+		return shared.read( random.next() );
+	}
+
+	@Benchmark
+	@Group( "readWrite" )
+	@GroupThreads( 1 )
+	public long write( ThreadRandom random ) {
+		return shared.write( random.next() );
+	}
+
+
+	/**
+	 * A xorshift generator for each thread, as <tt>java.util.Random</tt>
+	 * would itself be contended.
+	 */
+	@State( Scope.Thread )
+	public static class ThreadRandom {
+		private int state;
+
+		@Setup
+		public void setUp( ThreadParams params ) {
+			state = 0x9E3779B9 * ( params.getThreadIndex() + 1 ) | 1;
+		}
+
+		/** Returns a random non-negative int. */
+		int next() {
+			int x = state;
+			x ^= x << 13;
+			x ^= x >>> 17;
+			x ^= x << 5;
+			state = x;
+			return x >>> 1;
+		}
+	}
+
+
+	/**
+	 * The collection under test. Operations take a random non-negative int
+	 * and pick their key or index from it.
+	 */
+	static abstract class Shared {
+		final int size;
+
+		Shared( int size ) {
+			this.size = size;
+		}
+
+		abstract long read( int random );
+
+		abstract long write( int random );
+
+		int key( int random ) {
+			return ( random >>> 1 ) % ( 2 * size );
+		}
+
+		boolean adds( int random ) {
+			return ( random & 1 ) == 0;
+		}
+	}
+
+
+	static final class IntIntMap extends Shared {
+		private final TIntIntMap map = TCollections.synchronizedMap( new TIntIntHashMap() );
+
+		IntIntMap( int size ) {
+			super( size );
+			for( int i = 0; i < size; i++ ) {
+				map.put( i, i );
+			}
+		}
+
+		long read( int random ) {
+			return map.get( key( random ) );
+		}
+
+		long write( int random ) {
+			int key = key( random );
+			return adds( random ) ? map.adjustOrPutValue( key, 1, 1 ) : map.remove( key );
+		}
+	}
+
+
+	/** The map and operations of the old single-threaded <tt>MapHammer</tt>. */
+	static final class ObjectLongMap extends Shared {
+		private final TObjectLongMap<Integer> map =
+			TCollections.synchronizedMap( new TObjectLongHashMap<Integer>() );
+		private final Integer[] keys;
+
+		ObjectLongMap( int size ) {
+			super( size );
+			keys = new Integer[ 2 * size ];
+			for( int i = 0; i < keys.length; i++ ) {
+				keys[ i ] = Integer.valueOf( i );
+			}
+			for( int i = 0; i < size; i++ ) {
+				map.put( keys[ i ], i );
+			}
+		}
+
+		long read( int random ) {
+			return map.get( keys[ key( random ) ] );
+		}
+
+		long write( int random ) {
+			Integer key = keys[ key( random ) ];
+			return adds( random ) ? map.adjustOrPutValue( key, 1, 1 ) : map.remove( key );
+		}
+	}
+
+
+	static final class JavaConcurrentMap extends Shared {
+		private final ConcurrentHashMap<Integer,Long> map = new ConcurrentHashMap<Integer,Long>();
+		private final Integer[] keys;
+
+		JavaConcurrentMap( int size ) {
+			super( size );
+			keys = new Integer[ 2 * size ];
+			for( int i = 0; i < keys.length; i++ ) {
+				keys[ i ] = Integer.valueOf( i );
+			}
+			for( int i = 0; i < size; i++ ) {
+				map.put( keys[ i ], Long.valueOf( i ) );
+			}
+		}
+
+		long read( int random ) {
+			Long value = map.get( keys[ key( random ) ] );
+			return value == null ? 0 : value.longValue();
+		}
+
+		long write( int random ) {
+			Integer key = keys[ key( random ) ];
+			Long value = adds( random ) ? map.merge( key, 1L, Long::sum ) : map.remove( key );
+			return value == null ? 0 : value.longValue();
+		}
+	}
+
+
+	static final class IntSet extends Shared {
+		private final TIntSet set = TCollections.synchronizedSet( new TIntHashSet() );
+
+		IntSet( int size ) {
+			super( size );
+			for( int i = 0; i < size; i++ ) {
+				set.add( i );
+			}
+		}
+
+		long read( int random ) {
+			return set.contains( key( random ) ) ? 1 : 0;
+		}
+
+		long write( int random ) {
+			int key = key( random );
+			return ( adds( random ) ? set.add( key ) : set.remove( key ) ) ? 1 : 0;
+		}
+	}
+
+
+	static final class JavaConcurrentSet extends Shared {
+		private final Set<Integer> set = ConcurrentHashMap.newKeySet();
+		private final Integer[] keys;
+
+		JavaConcurrentSet( int size ) {
+			super( size );
+			keys = new Integer[ 2 * size ];
+			for( int i = 0; i < keys.length; i++ ) {
+				keys[ i ] = Integer.valueOf( i );
+			}
+			for( int i = 0; i < size; i++ ) {
+				set.add( keys[ i ] );
+			}
+		}
+
+		long read( int random ) {
+			return set.contains( keys[ key( random ) ] ) ? 1 : 0;
+		}
+
+		long write( int random ) {
+			Integer key = keys[ key( random ) ];
+			return ( adds( random ) ? set.add( key ) : set.remove( key ) ) ? 1 : 0;
+		}
+	}
+
+
+	static final class IntList extends Shared {
+		private final TIntList list;
+
+		IntList( int size ) {
+			super( size );
+			TIntArrayList values = new TIntArrayList( size );
+			for( int i = 0; i < size; i++ ) {
+				values.add( i );
+			}
+			list = TCollections.synchronizedList( values );
+		}
+
+		long read( int random ) {
+			return list.get( random % size );
+		}
+
+		long write( int random ) {
+			return list.set( random % size, random );
+		}
+	}
+
+
+	static final class JavaSynchronizedList extends Shared {
+		private final List<Integer> list;
+
+		JavaSynchronizedList( int size ) {
+			super( size );
+			List<Integer> values = new ArrayList<Integer>( size );
+			for( int i = 0; i < size; i++ ) {
+				values.add( Integer.valueOf( i ) );
+			}
+			list = Collections.synchronizedList( values );
+		}
+
+		long read( int random ) {
+			return list.get( random % size ).longValue();
+		}
+
+		long write( int random ) {
+			return list.set( random % size, Integer.valueOf( random ) ).longValue();
+		}
+	}
+}
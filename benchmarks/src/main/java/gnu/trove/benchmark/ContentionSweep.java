@@ -0,0 +1,75 @@
+package gnu.trove.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Runs {@link ContentionBenchmark} with 2, 4, 8 and so on threads up to twice
+ * the processors of the machine, for each of {@link #READ_PERCENTS} of them
+ * reading, as JMH cannot take thread counts from a parameter. Each run
+ * writes its own JSON file, named for its thread count and read share.
+ * <p>
+ * Usage: <tt>ContentionSweep &lt;results directory&gt; [JMH options]</tt>,
+ * eg: <tt>-p collection=TIntIntMap,ConcurrentHashMap</tt>.
+ */
+public class ContentionSweep {
+	static final int[] READ_PERCENTS = { 50, 75, 90 };
+
+
+	public static void main( String[] args ) throws Exception {
+		if ( args.length < 1 ) {
+			System.err.println( "Usage: ContentionSweep <results directory> [JMH options]" );
+			System.exit( 2 );
+		}
+		File directory = new File( args[ 0 ] );
+		if ( !directory.exists() && !directory.mkdirs() ) {
+			throw new IllegalStateException( "Could not create " + directory );
+		}
+		Options parent = new CommandLineOptions(
+			Arrays.copyOfRange( args, 1, args.length ) );
+
+		for( int threads : threadCounts( Runtime.getRuntime().availableProcessors() ) ) {
+			for( int percent : READ_PERCENTS ) {
+				int[] groups = split( threads, percent );
+				File results = new File( directory,
+					"contention-" + threads + "threads-" + percent + "read.json" );
+				new Runner( new OptionsBuilder()
+					.parent( parent )
+					.include( ContentionBenchmark.class.getName() )
+					.threadGroups( groups )
+					.result( results.getPath() )
+					.resultFormat( ResultFormatType.JSON )
+					.build() ).run();
+			}
+		}
+	}
+
+
+	/** Returns the powers of two from 2 up to twice <tt>processors</tt>. */
+	static List<Integer> threadCounts( int processors ) {
+		List<Integer> counts = new ArrayList<Integer>();
+		for( int threads = 2; threads <= 2 * processors; threads *= 2 ) {
+			counts.add( Integer.valueOf( threads ) );
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the readers and writers for <tt>threads</tt> threads of which
+	 * about <tt>percent</tt> percent read, keeping at least one of each.
+	 */
+	static int[] split( int threads, int percent ) {
+		int readers = Math.round( threads * percent / 100f );
+		readers = Math.max( 1, Math.min( threads - 1, readers ) );
+		return new int[] { readers, threads - readers };
+	}
+}
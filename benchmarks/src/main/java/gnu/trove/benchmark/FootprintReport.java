@@ -0,0 +1,324 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.impl.hash.TObjectHash;
+import gnu.trove.strategy.GrowthPolicy;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Measures the memory taken by the hashed maps and sets and by the array
+ * lists, for every primitive width, with the JDK collections alongside for
+ * reference. Sizes are measured by walking the object graph with JOL, so
+ * they are those of the running JVM; the baseline was taken on a 64-bit
+ * HotSpot JVM with compressed oops, the default for heaps under 32 GB.
+ * <p>
+ * Collections start at the default capacity and are filled one entry at a
+ * time, so they carry whatever room growing left them. Object keys are
+ * distinct <tt>Integer</tt>s and are counted; object values are a single
+ * shared instance, so only the slot holding them is. Objects every collection
+ * shares, such as the default growth policy and the FREE and REMOVED markers
+ * of the object hashes, are not counted either.
+ * <p>
+ * Usage: <tt>FootprintReport &lt;baseline&gt; &lt;report&gt; [--update]</tt>.
+ * Writes the report and compares it with the baseline, exiting with 1 if any
+ * Trove collection takes more than {@link #TOLERANCE} more memory than it
+ * did. With <tt>--update</tt> the report replaces the baseline.
+ */
+public class FootprintReport {
+	/** The growth allowed over the baseline before it counts as a regression. */
+	public static final double TOLERANCE = 0.01;
+
+	static final int[] SIZES = { 10, 100, 1000, 10000, 100000 };
+
+	static final float[] LOAD_FACTORS = { 0.5f, 0.75f };
+
+	static final Class<?>[] PRIMITIVES = { byte.class, short.class, char.class,
+		int.class, long.class, float.class, double.class };
+
+	private static final Object VALUE = new Object();
+
+	/**
+	 * The objects collections point at without owning them, which are left
+	 * out of every measurement.
+	 */
+	static final Object[] SHARED = { VALUE, GrowthPolicy.getDefault(),
+		TObjectHash.FREE, TObjectHash.REMOVED };
+
+	private static final long SHARED_BYTES = GraphLayout.parseInstance( SHARED ).totalSize();
+
+	private static final String HEADER = "type,size,loadFactor,totalBytes,bytesPerEntry";
+
+
+	public static void main( String[] args ) throws Exception {
+		if ( args.length < 2 ) {
+			System.err.println( "Usage: FootprintReport <baseline> <report> [--update]" );
+			System.exit( 2 );
+		}
+		File baseline = new File( args[ 0 ] );
+		File report = new File( args[ 1 ] );
+		boolean update = args.length > 2 && args[ 2 ].equals( "--update" );
+
+		Map<String,Long> measured = new LinkedHashMap<String,Long>();
+		List<String> lines = new ArrayList<String>();
+		lines.add( HEADER );
+		for( Subject subject : subjects() ) {
+			for( float loadFactor : subject.hashed ? LOAD_FACTORS : new float[] { 0 } ) {
+				for( int size : SIZES ) {
+					if ( size > subject.maxSize ) {
+						continue;
+					}
+					long bytes = subject.measure( size, loadFactor );
+					String key = key( subject.name, size, loadFactor );
+					if ( !subject.reference ) {
+						measured.put( key, Long.valueOf( bytes ) );
+					}
+					lines.add( key + "," + bytes + "," +
+						String.format( Locale.ROOT, "%.1f", bytes / ( double ) size ) );
+				}
+			}
+		}
+
+		write( report, lines );
+		System.out.println( "Wrote " + ( lines.size() - 1 ) + " measurements to " + report );
+
+		if ( update ) {
+			write( baseline, lines );
+			System.out.println( "Updated " + baseline );
+		}
+		else if ( baseline.exists() && compare( read( baseline ), measured ) > 0 ) {
+			System.exit( 1 );
+		}
+	}
+
+
+	/**
+	 * Prints the collections that grew or shrank against the baseline and
+	 * returns how many grew by more than the tolerance.
+	 */
+	static int compare( Map<String,Long> baseline, Map<String,Long> measured ) {
+		int regressions = 0;
+		for( Map.Entry<String,Long> entry : measured.entrySet() ) {
+			Long expected = baseline.get( entry.getKey() );
+			if ( expected == null ) {
+				continue;
+			}
+			long was = expected.longValue();
+			long now = entry.getValue().longValue();
+			if ( now > was * ( 1 + TOLERANCE ) ) {
+				System.out.println( "REGRESSION " + entry.getKey() + ": " + was + " -> " + now );
+				regressions++;
+			}
+			else if ( now < was ) {
+				System.out.println( "improved   " + entry.getKey() + ": " + was + " -> " + now );
+			}
+		}
+		System.out.println( regressions + " regressions against the baseline" );
+		return regressions;
+	}
+
+
+	static List<Subject> subjects() throws ClassNotFoundException {
+		List<Subject> subjects = new ArrayList<Subject>();
+		for( Class<?> key : PRIMITIVES ) {
+			for( Class<?> value : PRIMITIVES ) {
+				subjects.add( new Subject( "gnu.trove.map.hash.T" + name( key ) +
+					name( value ) + "HashMap", true, "put", key, value ) );
+			}
+			subjects.add( new Subject( "gnu.trove.map.hash.TObject" + name( key ) +
+				"HashMap", true, "put", Object.class, key ) );
+			subjects.add( new Subject( "gnu.trove.map.hash.T" + name( key ) +
+				"ObjectHashMap", true, "put", key, Object.class ) );
+			subjects.add( new Subject( "gnu.trove.set.hash.T" + name( key ) +
+				"HashSet", true, "add", key ) );
+			subjects.add( new Subject( "gnu.trove.list.array.T" + name( key ) +
+				"ArrayList", false, "add", key ) );
+		}
+		subjects.add( new Subject( "gnu.trove.map.hash.THashMap", true, "put",
+			Object.class, Object.class ) );
+		subjects.add( new Subject( "gnu.trove.set.hash.THashSet", true, "add",
+			Object.class ) );
+
+		subjects.add( new Subject( "java.util.HashMap", true, "put",
+			Object.class, Object.class ) );
+		subjects.add( new Subject( "java.util.HashSet", true, "add", Object.class ) );
+		subjects.add( new Subject( "java.util.ArrayList", false, "add", Object.class ) );
+		return subjects;
+	}
+
+
+	/**
+	 * Returns the bytes reachable from <tt>collection</tt> but not from
+	 * {@link #SHARED}.
+	 */
+	static long footprint( Object collection ) {
+		Object[] roots = Arrays.copyOf( SHARED, SHARED.length + 1 );
+		roots[ SHARED.length ] = collection;
+		return GraphLayout.parseInstance( roots ).totalSize() - SHARED_BYTES;
+	}
+
+
+	static String name( Class<?> primitive ) {
+		String name = primitive.getName();
+		return Character.toUpperCase( name.charAt( 0 ) ) + name.substring( 1 );
+	}
+
+	static String key( String type, int size, float loadFactor ) {
+		return type + "," + size + "," + loadFactor;
+	}
+
+
+	/**
+	 * Returns the <tt>i</tt>th distinct value of the given type, in the
+	 * position of an argument: object keys are <tt>Integer</tt>s, object
+	 * values the one shared instance.
+	 */
+	static Object value( Class<?> type, int position, int i ) {
+		if ( type == Object.class ) {
+			return position == 0 ? Integer.valueOf( i ) : VALUE;
+		}
+		else if ( type == byte.class ) {
+			return Byte.valueOf( ( byte ) i );
+		}
+		else if ( type == short.class ) {
+			return Short.valueOf( ( short ) i );
+		}
+		else if ( type == char.class ) {
+			return Character.valueOf( ( char ) i );
+		}
+		else if ( type == int.class ) {
+			return Integer.valueOf( i );
+		}
+		else if ( type == long.class ) {
+			return Long.valueOf( i );
+		}
+		else if ( type == float.class ) {
+			return Float.valueOf( i );
+		}
+		else {
+			return Double.valueOf( i );
+		}
+	}
+
+	/** Returns how many distinct values the type can take, as far as it matters here. */
+	static int range( Class<?> type ) {
+		if ( type == byte.class ) {
+			return 1 << Byte.SIZE;
+		}
+		else if ( type == short.class || type == char.class ) {
+			return 1 << Short.SIZE;
+		}
+		else {
+			return Integer.MAX_VALUE;
+		}
+	}
+
+
+	private static void write( File file, List<String> lines ) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if ( !parent.exists() && !parent.mkdirs() ) {
+			throw new IOException( "Could not create " + parent );
+		}
+		PrintWriter out = new PrintWriter( new FileWriter( file ) );
+		try {
+			for( String line : lines ) {
+				out.println( line );
+			}
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	private static Map<String,Long> read( File file ) throws IOException {
+		Map<String,Long> bytes = new LinkedHashMap<String,Long>();
+		BufferedReader in = new BufferedReader( new FileReader( file ) );
+		try {
+			String line;
+			while( ( line = in.readLine() ) != null ) {
+				if ( line.equals( HEADER ) || line.length() == 0 ) {
+					continue;
+				}
+				String[] fields = line.split( "," );
+				bytes.put( fields[ 0 ] + "," + fields[ 1 ] + "," + fields[ 2 ],
+					Long.valueOf( fields[ 3 ] ) );
+			}
+		}
+		finally {
+			in.close();
+		}
+		return bytes;
+	}
+
+
+	/**
+	 * A collection class, created reflectively and filled through the named
+	 * method with distinct values of its argument types.
+	 */
+	static final class Subject {
+		final String name;
+		final boolean hashed;
+		final boolean reference;
+		final int maxSize;
+
+		private final Constructor<?> constructor;
+		private final Method add;
+		private final Class<?>[] types;
+
+
+		Subject( String className, boolean hashed, String add, Class<?>... types )
+			throws ClassNotFoundException {
+
+			Class<?> type = Class.forName( className );
+			this.name = type.getSimpleName();
+			this.hashed = hashed;
+			this.reference = className.startsWith( "java." );
+			this.types = types;
+			try {
+				this.constructor = hashed ?
+					type.getConstructor( int.class, float.class ) :
+					type.getConstructor( int.class );
+				this.add = type.getMethod( add, types );
+			}
+			catch ( NoSuchMethodException ex ) {
+				throw new IllegalArgumentException( className + " can not be measured", ex );
+			}
+
+			int range = Integer.MAX_VALUE;
+			for( Class<?> t : types ) {
+				range = Math.min( range, range( t ) );
+			}
+			this.maxSize = range;
+		}
+
+
+		long measure( int size, float loadFactor ) throws Exception {
+			return footprint( create( size, loadFactor ) );
+		}
+
+
+		/** Returns a collection filled with <tt>size</tt> distinct values. */
+		Object create( int size, float loadFactor ) throws Exception {
+			Object collection = hashed ?
+				constructor.newInstance( Constants.DEFAULT_CAPACITY, loadFactor ) :
+				constructor.newInstance( Constants.DEFAULT_CAPACITY );
+			Object[] args = new Object[ types.length ];
+			for( int i = 0; i < size; i++ ) {
+				for( int p = 0; p < types.length; p++ ) {
+					args[ p ] = value( types[ p ], p, i );
+				}
+				add.invoke( collection, args );
+			}
+			return collection;
+		}
+	}
+}
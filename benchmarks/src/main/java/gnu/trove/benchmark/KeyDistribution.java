@@ -0,0 +1,117 @@
+package gnu.trove.benchmark;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+
+/**
+ * The shapes of key set seen in production, as opposed to uniformly random
+ * bits. Keys are produced as longs of a given width in bits and cast by the
+ * benchmark to its key type; keys narrower than a distribution needs repeat.
+ */
+public enum KeyDistribution {
+	/** Uniformly random bits, the best case for any hash function. */
+	RANDOM {
+		@Override
+		long key( int index, Random random, int bits ) {
+			return random.nextLong();
+		}
+	},
+
+	/** Consecutive ids, as handed out by a database sequence. */
+	SEQUENTIAL {
+		@Override
+		long key( int index, Random random, int bits ) {
+			return index;
+		}
+	},
+
+	/**
+	 * Ids a fixed power of two apart, as with aligned addresses or ids
+	 * interleaved across shards. Clusters under hashes that keep low bits.
+	 */
+	STRIDED {
+		@Override
+		long key( int index, Random random, int bits ) {
+			return ( long ) index * STRIDE;
+		}
+	},
+
+	/**
+	 * Increasing timestamps a few milliseconds apart with some jitter. Keys
+	 * narrower than a long get seconds, as an int timestamp would hold.
+	 */
+	TIMESTAMPS {
+		@Override
+		long key( int index, Random random, int bits ) {
+			long base = bits < Long.SIZE ? EPOCH_SECONDS : EPOCH_SECONDS * 1000;
+			return base + index * 5L + random.nextInt( 5 );
+		}
+	},
+
+	/**
+	 * Random values in the top bits of the key only, the low bits all zero,
+	 * like ids that pack a shard or type into their high bits. Catches hashes
+	 * that fold the high bits in badly.
+	 */
+	HIGH_BITS {
+		@Override
+		long key( int index, Random random, int bits ) {
+			return highBits( random, bits, Math.min( bits, VARYING_BITS ) );
+		}
+
+		/**
+		 * Widens the varying bits to four times as many values as keys, as
+		 * far as the key width allows, and draws again on a repeat, so that
+		 * the keys are distinct whenever the width has room for them.
+		 */
+		@Override
+		public long[] keys( int size, int bits ) {
+			int varying = Math.min( bits,
+				Math.max( VARYING_BITS, Integer.SIZE + 2 - Integer.numberOfLeadingZeros( size ) ) );
+			boolean distinct = varying >= Long.SIZE - 1 || size <= 1L << varying;
+			Random random = new Random( Constants.SEED );
+			Set<Long> seen = new HashSet<Long>();
+			long[] keys = new long[ size ];
+			for( int i = 0; i < size; i++ ) {
+				long key;
+				do {
+					key = highBits( random, bits, varying );
+				}
+				while( distinct && !seen.add( Long.valueOf( key ) ) );
+				keys[ i ] = key;
+			}
+			return keys;
+		}
+	};
+
+
+	static final int STRIDE = 64;
+
+	static final long EPOCH_SECONDS = 1600000000L;
+
+	static final int VARYING_BITS = 20;
+
+
+	abstract long key( int index, Random random, int bits );
+
+
+	/** Returns <tt>varying</tt> random bits at the top of a <tt>bits</tt> bit key. */
+	static long highBits( Random random, int bits, int varying ) {
+		return ( random.nextLong() >>> ( Long.SIZE - varying ) ) << ( bits - varying );
+	}
+
+
+	/**
+	 * Returns <tt>size</tt> keys of <tt>bits</tt> bits, the same for every run.
+	 */
+	public long[] keys( int size, int bits ) {
+		Random random = new Random( Constants.SEED );
+		long[] keys = new long[ size ];
+		for( int i = 0; i < size; i++ ) {
+			keys[ i ] = key( i, random, bits );
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,90 @@
+package gnu.trove.benchmark;
+
+/**
+ * Counts latencies in log-linear buckets, as HdrHistogram does: values under
+ * {@link #SUB_BUCKETS} nanoseconds are counted exactly, and each power of two
+ * above that is split into {@link #SUB_BUCKETS}/2 equal buckets, so a
+ * recorded value is off by at most 1/{@value #HALF} of itself. Recording is
+ * one array increment however long the run, which keeps the timing loop
+ * tight.
+ */
+final class LatencyHistogram {
+	static final int SUB_BUCKET_BITS = 7;
+
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	static final int HALF = SUB_BUCKETS / 2;
+
+	private final long[] counts = new long[ SUB_BUCKETS +
+		( Long.SIZE - SUB_BUCKET_BITS ) * HALF ];
+
+	private long count;
+	private long max;
+
+
+	void record( long nanos ) {
+		if ( nanos < 0 ) {
+			nanos = 0;
+		}
+		counts[ index( nanos ) ]++;
+		count++;
+		if ( nanos > max ) {
+			max = nanos;
+		}
+	}
+
+
+	long count() {
+		return count;
+	}
+
+	long max() {
+		return max;
+	}
+
+
+	/**
+	 * Returns the latency that <tt>percentile</tt> percent of the recorded
+	 * ones are at or below, as the top of the bucket holding it.
+	 */
+	long percentile( double percentile ) {
+		if ( count == 0 ) {
+			return 0;
+		}
+		long target = Math.max( 1, ( long ) Math.ceil( percentile / 100 * count ) );
+		long seen = 0;
+		for( int i = 0; i < counts.length; i++ ) {
+			seen += counts[ i ];
+			if ( seen >= target ) {
+				return Math.min( max, highest( i ) );
+			}
+		}
+		return max;
+	}
+
+
+	static int index( long value ) {
+		if ( value < SUB_BUCKETS ) {
+			return ( int ) value;
+		}
+		int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros( value ) - ( SUB_BUCKET_BITS - 1 );
+		return SUB_BUCKETS + ( shift - 1 ) * HALF + ( int ) ( ( value >>> shift ) - HALF );
+	}
+
+	static long lowest( int index ) {
+		if ( index < SUB_BUCKETS ) {
+			return index;
+		}
+		int bucket = index - SUB_BUCKETS;
+		int shift = bucket / HALF + 1;
+		return ( long ) ( bucket % HALF + HALF ) << shift;
+	}
+
+	static long highest( int index ) {
+		if ( index < SUB_BUCKETS ) {
+			return index;
+		}
+		int shift = ( index - SUB_BUCKETS ) / HALF + 1;
+		return lowest( index ) + ( 1L << shift ) - 1;
+	}
+}
@@ -0,0 +1,261 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.impl.ResizeEvents;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+
+/**
+ * Times every operation of sustained insert, churn and mixed workloads and
+ * reports the latency percentiles, which averages from JMH hide. Operations
+ * during which a table rehashed or compacted are also counted per cause,
+ * from {@link ResizeRecorder}, so the pauses in the tail can be put down to
+ * growth, REMOVED slots or compaction.
+ * <p>
+ * Usage: <tt>LatencyReport &lt;report&gt; [collection ...]</tt>, where a
+ * collection is <tt>THashMap</tt>, <tt>THashSet</tt>, <tt>HashMap</tt> or
+ * any primitive map such as <tt>TIntLongHashMap</tt>. The percentiles are
+ * printed and written to the report as CSV.
+ */
+public class LatencyReport {
+	/** The operations timed by each workload. */
+	static final int OPERATIONS = 1000000;
+
+	/** The size the churn and mixed workloads hold the collection at. */
+	static final int SIZE = 100000;
+
+	static final String[] DEFAULT_COLLECTIONS =
+		{ "TIntIntHashMap", "TLongLongHashMap", "THashMap", "THashSet", "HashMap" };
+
+	static final double[] PERCENTILES = { 50, 99, 99.9 };
+
+	private static final byte PUT = 0;
+	private static final byte GET = 1;
+	private static final byte REMOVE = 2;
+
+
+	public static void main( String[] args ) throws IOException {
+		if ( args.length < 1 ) {
+			System.err.println( "Usage: LatencyReport <report> [collection ...]" );
+			System.exit( 2 );
+		}
+		String[] collections = args.length > 1 ?
+			Arrays.copyOfRange( args, 1, args.length ) : DEFAULT_COLLECTIONS;
+
+		if ( !ResizeRecorder.isInstalled() ) {
+			System.err.println( "ResizeRecorder is not the ResizeEvents provider; " +
+				"resizes will not be attributed. Put src/latency/resources on the classpath." );
+		}
+		ResizeRecorder.enable();
+
+		List<String> lines = new ArrayList<String>();
+		lines.add( "workload,collection,cause,count,p50Nanos,p99Nanos,p999Nanos,maxNanos" );
+		for( Workload workload : Workload.values() ) {
+			for( String name : collections ) {
+				LatencyTarget target = LatencyTarget.forName( name );
+				// the first run is to compile the paths being timed
+				workload.run( target );
+				Recorded recorded = workload.run( target );
+				recorded.print( workload, target.name(), lines );
+			}
+		}
+
+		File report = new File( args[ 0 ] );
+		File parent = report.getAbsoluteFile().getParentFile();
+		if ( !parent.exists() && !parent.mkdirs() ) {
+			throw new IOException( "Could not create " + parent );
+		}
+		PrintWriter out = new PrintWriter( new FileWriter( report ) );
+		try {
+			for( String line : lines ) {
+				out.println( line );
+			}
+		}
+		finally {
+			out.close();
+		}
+		System.out.println( "Wrote " + report );
+	}
+
+
+	enum Workload {
+		/** Puts new keys into a map from the default capacity, so it grows all along. */
+		INSERT {
+			@Override
+			Recorded run( LatencyTarget target ) {
+				byte[] ops = new byte[ OPERATIONS ];
+				int[] indexes = new int[ OPERATIONS ];
+				for( int i = 0; i < OPERATIONS; i++ ) {
+					ops[ i ] = PUT;
+					indexes[ i ] = i;
+				}
+				return time( target, KeyDistribution.RANDOM.keys( OPERATIONS, Long.SIZE ),
+					0, ops, indexes );
+			}
+		},
+
+		/**
+		 * Removes the oldest key and puts a new one at a fixed size, which
+		 * fills the table with REMOVED slots and sets off compactions.
+		 */
+		CHURN {
+			@Override
+			Recorded run( LatencyTarget target ) {
+				byte[] ops = new byte[ OPERATIONS ];
+				int[] indexes = new int[ OPERATIONS ];
+				for( int i = 0; i < OPERATIONS; i += 2 ) {
+					ops[ i ] = REMOVE;
+					indexes[ i ] = i / 2;
+					ops[ i + 1 ] = PUT;
+					indexes[ i + 1 ] = i / 2 + SIZE;
+				}
+				return time( target,
+					KeyDistribution.RANDOM.keys( SIZE + OPERATIONS / 2, Long.SIZE ),
+					SIZE, ops, indexes );
+			}
+		},
+
+		/**
+		 * Gets, puts and removes in a ratio of 8:1:1 over twice as many keys
+		 * as the collection holds, so half the gets miss.
+		 */
+		MIXED {
+			@Override
+			Recorded run( LatencyTarget target ) {
+				Random random = new Random( Constants.SEED );
+				byte[] ops = new byte[ OPERATIONS ];
+				int[] indexes = new int[ OPERATIONS ];
+				for( int i = 0; i < OPERATIONS; i++ ) {
+					int dice = random.nextInt( 10 );
+					ops[ i ] = dice < 8 ? GET : dice < 9 ? PUT : REMOVE;
+					indexes[ i ] = random.nextInt( 2 * SIZE );
+				}
+				return time( target, KeyDistribution.RANDOM.keys( 2 * SIZE, Long.SIZE ),
+					SIZE, ops, indexes );
+			}
+		};
+
+
+		abstract Recorded run( LatencyTarget target );
+
+
+		/**
+		 * Puts the first <tt>prefill</tt> keys, untimed, then times each of
+		 * the operations.
+		 */
+		static Recorded time( LatencyTarget target, long[] keys, int prefill,
+			byte[] ops, int[] indexes ) {
+
+			target.reset( keys );
+			for( int i = 0; i < prefill; i++ ) {
+				target.put( i );
+			}
+			ResizeRecorder.take();
+
+			Recorded recorded = new Recorded();
+			for( int i = 0; i < ops.length; i++ ) {
+				long start = System.nanoTime();
+				switch( ops[ i ] ) {
+					case PUT:
+						target.put( indexes[ i ] );
+						break;
+					case GET:
+						target.get( indexes[ i ] );
+						break;
+					default:
+						target.remove( indexes[ i ] );
+						break;
+				}
+				long elapsed = System.nanoTime() - start;
+				recorded.record( elapsed, ResizeRecorder.take() );
+			}
+			return recorded;
+		}
+	}
+
+
+	/**
+	 * The latencies of all operations and of those that resized, by cause.
+	 */
+	static final class Recorded {
+		final LatencyHistogram all = new LatencyHistogram();
+		final LatencyHistogram[] byCause = new LatencyHistogram[ ResizeEvents.SHRINK + 1 ];
+
+
+		void record( long nanos, int causes ) {
+			all.record( nanos );
+			for( int cause = 0; causes != 0; cause++, causes >>>= 1 ) {
+				if ( ( causes & 1 ) != 0 && cause < byCause.length ) {
+					if ( byCause[ cause ] == null ) {
+						byCause[ cause ] = new LatencyHistogram();
+					}
+					byCause[ cause ].record( nanos );
+				}
+			}
+		}
+
+
+		void print( Workload workload, String collection, List<String> lines ) {
+			String name = workload.name().toLowerCase( Locale.ROOT );
+			System.out.println( String.format( Locale.ROOT, "%-7s %-20s %s",
+				name, collection, summary( all ) ) );
+			lines.add( row( name, collection, "all", all ) );
+			for( int cause = 0; cause < byCause.length; cause++ ) {
+				if ( byCause[ cause ] == null ) {
+					continue;
+				}
+				String cause_name = ResizeEvents.triggerName( cause );
+				System.out.println( String.format( Locale.ROOT, "        %-20s %s",
+					"  " + cause_name, summary( byCause[ cause ] ) ) );
+				lines.add( row( name, collection, cause_name, byCause[ cause ] ) );
+			}
+		}
+
+
+		static String summary( LatencyHistogram histogram ) {
+			StringBuilder buf = new StringBuilder();
+			buf.append( String.format( Locale.ROOT, "%8d ops", histogram.count() ) );
+			for( double percentile : PERCENTILES ) {
+				buf.append( String.format( Locale.ROOT, "  p%-4s %9s",
+					percentile == ( long ) percentile ?
+						String.valueOf( ( long ) percentile ) : String.valueOf( percentile ),
+					duration( histogram.percentile( percentile ) ) ) );
+			}
+			buf.append( String.format( Locale.ROOT, "  max %9s", duration( histogram.max() ) ) );
+			return buf.toString();
+		}
+
+		static String row( String workload, String collection, String cause,
+			LatencyHistogram histogram ) {
+
+			StringBuilder buf = new StringBuilder();
+			buf.append( workload ).append( ',' ).append( collection ).append( ',' );
+			buf.append( cause ).append( ',' ).append( histogram.count() );
+			for( double percentile : PERCENTILES ) {
+				buf.append( ',' ).append( histogram.percentile( percentile ) );
+			}
+			buf.append( ',' ).append( histogram.max() );
+			return buf.toString();
+		}
+
+		static String duration( long nanos ) {
+			if ( nanos < 10000 ) {
+				return nanos + " ns";
+			}
+			else if ( nanos < 10000000 ) {
+				return String.format( Locale.ROOT, "%.1f us", nanos / 1e3 );
+			}
+			else {
+				return String.format( Locale.ROOT, "%.1f ms", nanos / 1e6 );
+			}
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.set.hash.THashSet;
+
+import java.util.HashMap;
+
+
+/**
+ * A collection under the latency report, driven by the index of a key in the
+ * key array it was reset with, so that no boxing or casting is timed.
+ */
+abstract class LatencyTarget {
+	/** Defeats dead code elimination of lookups. */
+	long sink;
+
+
+	abstract String name();
+
+	/** Starts over with an empty collection at the default capacity. */
+	abstract void reset( long[] keys );
+
+	abstract void put( int index );
+
+	abstract void get( int index );
+
+	abstract void remove( int index );
+
+
+	/**
+	 * Returns the target for a class name such as <tt>TIntLongHashMap</tt>,
+	 * <tt>THashMap</tt>, <tt>THashSet</tt> or <tt>HashMap</tt>.
+	 */
+	static LatencyTarget forName( String name ) {
+		if ( name.equals( "THashMap" ) ) {
+			return new THashMapTarget();
+		}
+		else if ( name.equals( "THashSet" ) ) {
+			return new THashSetTarget();
+		}
+		else if ( name.equals( "HashMap" ) ) {
+			return new JavaHashMapTarget();
+		}
+		try {
+			return ( LatencyTarget ) Class.forName(
+				LatencyTarget.class.getPackage().getName() + "." + name + "Target" ).newInstance();
+		}
+		catch ( Exception ex ) {
+			throw new IllegalArgumentException( "Unknown collection: " + name );
+		}
+	}
+
+
+	static Long[] box( long[] keys ) {
+		Long[] boxed = new Long[ keys.length ];
+		for( int i = 0; i < keys.length; i++ ) {
+			boxed[ i ] = Long.valueOf( keys[ i ] );
+		}
+		return boxed;
+	}
+
+
+	static final class THashMapTarget extends LatencyTarget {
+		private THashMap<Long,Long> map;
+		private Long[] keys;
+
+		String name() {
+			return "THashMap";
+		}
+
+		void reset( long[] keys ) {
+			this.keys = box( keys );
+			map = new THashMap<Long,Long>();
+		}
+
+		void put( int index ) {
+			map.put( keys[ index ], keys[ index ] );
+		}
+
+		void get( int index ) {
+			if ( map.get( keys[ index ] ) != null ) {
+				sink++;
+			}
+		}
+
+		void remove( int index ) {
+			map.remove( keys[ index ] );
+		}
+	}
+
+
+	static final class THashSetTarget extends LatencyTarget {
+		private THashSet<Long> set;
+		private Long[] keys;
+
+		String name() {
+			return "THashSet";
+		}
+
+		void reset( long[] keys ) {
+			this.keys = box( keys );
+			set = new THashSet<Long>();
+		}
+
+		void put( int index ) {
+			set.add( keys[ index ] );
+		}
+
+		void get( int index ) {
+			if ( set.contains( keys[ index ] ) ) {
+				sink++;
+			}
+		}
+
+		void remove( int index ) {
+			set.remove( keys[ index ] );
+		}
+	}
+
+
+	static final class JavaHashMapTarget extends LatencyTarget {
+		private HashMap<Long,Long> map;
+		private Long[] keys;
+
+		String name() {
+			return "HashMap";
+		}
+
+		void reset( long[] keys ) {
+			this.keys = box( keys );
+			map = new HashMap<Long,Long>();
+		}
+
+		void put( int index ) {
+			map.put( keys[ index ], keys[ index ] );
+		}
+
+		void get( int index ) {
+			if ( map.get( keys[ index ] ) != null ) {
+				sink++;
+			}
+		}
+
+		void remove( int index ) {
+			map.remove( keys[ index ] );
+		}
+	}
+}
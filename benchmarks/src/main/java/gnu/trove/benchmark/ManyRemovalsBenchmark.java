@@ -0,0 +1,75 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * This benchmark adds five strings and then delete the first four added. It then repeats
+ * for a new set. So, the map grows, but has a high removal rate. This exercises
+ * compaction in Trove maps.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@State( Scope.Thread )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class ManyRemovalsBenchmark {
+	@Param( { "300000" } )
+	public int size;
+
+	private String[] keys;
+
+
+	@Setup
+	public void setUp() {
+		keys = Constants.strings( size );
+	}
+
+
+	@Benchmark
+	public Map<String,String> testTHashMap() {
+		return addFiveRemoveFour( new THashMap<String,String>() );
+	}
+
+	@Benchmark
+	public Map<String,String> testJavaHashMap() {
+		return addFiveRemoveFour( new HashMap<String,String>() );
+	}
+
+	@Benchmark
+	public TObjectIntHashMap<String> testTPrimitiveHashMap() {
+		TObjectIntHashMap<String> map = new TObjectIntHashMap<String>();
+
+		// Add 5, remove the first four, repeat
+		for( int i = 0; i < keys.length; i++ ) {
+			map.put( keys[ i ], i );
+			if ( i % 5 == 4 ) {
+				for( int j = i - 4; j < i; j++ ) {
+					map.remove( keys[ j ] );
+				}
+			}
+		}
+		return map;
+	}
+
+
+	private Map<String,String> addFiveRemoveFour( Map<String,String> map ) {
+		// Add 5, remove the first four, repeat
+		for( int i = 0; i < keys.length; i++ ) {
+			map.put( keys[ i ], keys[ i ] );
+			if ( i % 5 == 4 ) {
+				for( int j = i - 4; j < i; j++ ) {
+					map.remove( keys[ j ] );
+				}
+			}
+		}
+		return map;
+	}
+}
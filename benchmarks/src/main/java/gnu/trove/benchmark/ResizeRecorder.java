@@ -0,0 +1,73 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.impl.ResizeEvents;
+
+
+/**
+ * Notes the rehashes and compactions of the hash tables so that the latency
+ * report can tell which operations paid for them. It is registered as the
+ * {@link ResizeEvents} provider only on the classpath of the <tt>latency</tt>
+ * task, so the JMH benchmarks run without it.
+ * <p>
+ * Only the resizes of the thread that called {@link #enable} are noted, so
+ * the causes can be kept in a plain static field.
+ */
+public final class ResizeRecorder extends ResizeEvents {
+	private static volatile Thread recording;
+
+	private static int causes;
+
+
+	/** Starts noting the resizes made by the calling thread. */
+	static void enable() {
+		recording = Thread.currentThread();
+	}
+
+	static boolean isInstalled() {
+		return ResizeEvents.INSTANCE instanceof ResizeRecorder;
+	}
+
+	/**
+	 * Returns the causes seen since the last call, as a bit for each rehash
+	 * trigger, and clears them. A compaction rehashes with the
+	 * {@link #COMPACTION} trigger.
+	 */
+	static int take() {
+		int taken = causes;
+		causes = 0;
+		return taken;
+	}
+
+
+	@Override
+	public Object beginRehash() {
+		return Thread.currentThread() == recording ? this : null;
+	}
+
+	@Override
+	public void endRehash( Object event, Object table, int oldCapacity,
+		int newCapacity, int size, int trigger ) {
+
+		causes |= 1 << trigger;
+	}
+
+	@Override
+	public Object beginCompact() {
+		return null;
+	}
+
+	@Override
+	public void endCompact( Object event, Object table, int oldCapacity,
+		int newCapacity, int size, boolean automatic ) {
+	}
+
+	@Override
+	public Object beginArrayGrow() {
+		return null;
+	}
+
+	@Override
+	public void endArrayGrow( Object event, Object list, int oldCapacity,
+		int newCapacity, int elementBytes ) {
+	}
+}
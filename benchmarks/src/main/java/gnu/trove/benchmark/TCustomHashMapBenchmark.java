@@ -0,0 +1,142 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.map.hash.TCustomHashMap;
+import gnu.trove.procedure.TObjectObjectProcedure;
+import gnu.trove.strategy.HashingStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Get, put, remove and iteration times of {@link TCustomHashMap}, keyed by the
+ * contents of <tt>int</tt> arrays, the classic use of a hashing strategy. Each
+ * invocation makes one pass over <tt>size</tt> random keys.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@State( Scope.Thread )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class TCustomHashMapBenchmark {
+	private static final int KEY_LENGTH = 4;
+
+	@Param( { "1000", "100000" } )
+	public int size;
+
+	@Param( { "0.5", "0.75" } )
+	public float loadFactor;
+
+	private int[][] keys;
+	private int[][] lookups;
+	private TCustomHashMap<int[],Integer> map;
+
+
+	@Setup
+	public void setUp() {
+		Random random = new Random( Constants.SEED );
+		keys = new int[ size ][];
+		lookups = new int[ size ][];
+		for( int i = 0; i < size; i++ ) {
+			keys[ i ] = new int[ KEY_LENGTH ];
+			for( int j = 0; j < KEY_LENGTH; j++ ) {
+				keys[ i ][ j ] = random.nextInt();
+			}
+			// equal but not identical, so lookups compare contents
+			lookups[ i ] = keys[ i ].clone();
+		}
+		map = fill();
+	}
+
+
+	TCustomHashMap<int[],Integer> fill() {
+		TCustomHashMap<int[],Integer> map = new TCustomHashMap<int[],Integer>(
+			ArrayStrategy.INSTANCE, Constants.DEFAULT_CAPACITY, loadFactor );
+		for( int i = 0; i < keys.length; i++ ) {
+			map.put( keys[ i ], Integer.valueOf( i ) );
+		}
+		return map;
+	}
+
+
+	@Benchmark
+	public int get() {
+		int found = 0;
+		for( int[] key : lookups ) {
+			if ( map.get( key ) != null ) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	public TCustomHashMap<int[],Integer> put() {
+		return fill();
+	}
+
+	@Benchmark
+	public TCustomHashMap<int[],Integer> remove( Filled filled ) {
+		for( int[] key : lookups ) {
+			filled.map.remove( key );
+		}
+		return filled.map;
+	}
+
+	@Benchmark
+	public int iterate() {
+		int total = 0;
+		for( Map.Entry<int[],Integer> entry : map.entrySet() ) {
+			total += entry.getKey()[ 0 ] + entry.getValue().intValue();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int forEach() {
+		Totaler totaler = new Totaler();
+		map.forEachEntry( totaler );
+		return totaler.total;
+	}
+
+
+	/**
+	 * A freshly filled map for each invocation of a benchmark that empties it.
+	 */
+	@State( Scope.Thread )
+	public static class Filled {
+		TCustomHashMap<int[],Integer> map;
+
+		@Setup( Level.Invocation )
+		public void setUp( TCustomHashMapBenchmark benchmark ) {
+			map = benchmark.fill();
+		}
+	}
+
+
+	static final class ArrayStrategy implements HashingStrategy<int[]> {
+		static final ArrayStrategy INSTANCE = new ArrayStrategy();
+
+		public int computeHashCode( int[] array ) {
+			return Arrays.hashCode( array );
+		}
+
+		public boolean equals( int[] a, int[] b ) {
+			return Arrays.equals( a, b );
+		}
+	}
+
+
+	static final class Totaler implements TObjectObjectProcedure<int[],Integer> {
+		int total = 0;
+
+		public boolean execute( int[] key, Integer value ) {
+			total += key[ 0 ] + value.intValue();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,208 @@
+package gnu.trove.benchmark;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.procedure.TObjectObjectProcedure;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Get, put, remove, churn and iteration times of {@link THashMap}, with
+ * {@link HashMap} alongside as a baseline. Each invocation makes one pass over
+ * <tt>size</tt> keys of the given distribution. {@link CollidingKey} keys
+ * are numbered in order instead, so they collide whatever the distribution.
+ */
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@State( Scope.Thread )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class THashMapBenchmark {
+	@Param( { "THashMap", "HashMap" } )
+	public String impl;
+
+	@Param( { "Integer", "String", "Colliding" } )
+	public String keyType;
+
+	@Param( { "1000", "100000" } )
+	public int size;
+
+	@Param( { "0.5", "0.75" } )
+	public float loadFactor;
+
+	@Param
+	public KeyDistribution distribution;
+
+	private Object[] keys;
+	private Object[] pool;
+	private Object[] skewed;
+	private Map<Object,Object> map;
+
+
+	@Setup
+	public void setUp() {
+		// the first half of the pool is the map, the second half churns through it
+		long[] generated = distribution.keys( 2 * size, Integer.SIZE );
+		pool = new Object[ generated.length ];
+		for( int i = 0; i < pool.length; i++ ) {
+			pool[ i ] = key( i, generated[ i ] );
+		}
+		keys = Arrays.copyOf( pool, size );
+
+		int[] indexes = Zipf.indexes( size, size );
+		skewed = new Object[ size ];
+		for( int i = 0; i < size; i++ ) {
+			skewed[ i ] = keys[ indexes[ i ] ];
+		}
+		map = fill();
+	}
+
+
+	private Object key( int index, long value ) {
+		if ( keyType.equals( "String" ) ) {
+			return "key-" + Long.toHexString( value );
+		}
+		else if ( keyType.equals( "Colliding" ) ) {
+			return new CollidingKey( index );
+		}
+		else {
+			return Integer.valueOf( ( int ) value );
+		}
+	}
+
+
+	Map<Object,Object> fill() {
+		Map<Object,Object> map = impl.equals( "HashMap" ) ?
+			new HashMap<Object,Object>( Constants.DEFAULT_CAPACITY, loadFactor ) :
+			new THashMap<Object,Object>( Constants.DEFAULT_CAPACITY, loadFactor );
+		for( Object key : keys ) {
+			map.put( key, key );
+		}
+		return map;
+	}
+
+
+	@Benchmark
+	public int get() {
+		int found = 0;
+		for( Object key : keys ) {
+			if ( map.get( key ) != null ) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	/** Gets with Zipfian skew, a few hot keys taking most lookups. */
+	@Benchmark
+	public int getSkewed() {
+		int found = 0;
+		for( Object key : skewed ) {
+			if ( map.get( key ) != null ) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+	@Benchmark
+	public Map<Object,Object> put() {
+		return fill();
+	}
+
+	@Benchmark
+	public Map<Object,Object> remove( Filled filled ) {
+		for( Object key : keys ) {
+			filled.map.remove( key );
+		}
+		return filled.map;
+	}
+
+	/**
+	 * Removes the oldest key and puts a new one, <tt>size</tt> times, so the
+	 * map stays the same size while its keys turn over.
+	 */
+	@Benchmark
+	public Map<Object,Object> churn( Churning churning ) {
+		Map<Object,Object> map = churning.map;
+		int head = churning.head;
+		for( int i = 0; i < size; i++ ) {
+			int tail = head + size;
+			if ( tail >= pool.length ) {
+				tail -= pool.length;
+			}
+			map.remove( pool[ head ] );
+			map.put( pool[ tail ], pool[ tail ] );
+			if ( ++head == pool.length ) {
+				head = 0;
+			}
+		}
+		churning.head = head;
+		return map;
+	}
+
+	@Benchmark
+	public int iterate() {
+		int total = 0;
+		for( Map.Entry<Object,Object> entry : map.entrySet() ) {
+			total += entry.getKey().hashCode() ^ entry.getValue().hashCode();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int forEach() {
+		if ( !( map instanceof THashMap ) ) {
+			return iterate();
+		}
+		Totaler totaler = new Totaler();
+		( ( THashMap<Object,Object> ) map ).forEachEntry( totaler );
+		return totaler.total;
+	}
+
+
+	/**
+	 * A freshly filled map for each invocation of a benchmark that empties it.
+	 */
+	@State( Scope.Thread )
+	public static class Filled {
+		Map<Object,Object> map;
+
+		@Setup( Level.Invocation )
+		public void setUp( THashMapBenchmark benchmark ) {
+			map = benchmark.fill();
+		}
+	}
+
+
+	/**
+	 * A map kept at <tt>size</tt> entries whose keys turn over through the
+	 * whole run, so churn is measured in steady state.
+	 */
+	@State( Scope.Thread )
+	public static class Churning {
+		Map<Object,Object> map;
+		int head;
+
+		@Setup
+		public void setUp( THashMapBenchmark benchmark ) {
+			map = benchmark.fill();
+			head = 0;
+		}
+	}
+
+
+	static final class Totaler implements TObjectObjectProcedure<Object,Object> {
+		int total = 0;
+
+		public boolean execute( Object key, Object value ) {
+			total += key.hashCode() ^ value.hashCode();
+			return true;
+		}
+	}
+}
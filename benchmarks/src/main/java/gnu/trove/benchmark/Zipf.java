@@ -0,0 +1,78 @@
+package gnu.trove.benchmark;
+
+import java.util.Random;
+
+
+/**
+ * Draws ranks from a Zipfian distribution, in which the <i>k</i>th most
+ * popular of <i>n</i> items is picked with probability proportional to
+ * 1/<i>k</i><sup><i>s</i></sup>. This is the skew of most caches and indexes:
+ * a few hot keys take most lookups.
+ */
+final class Zipf {
+	/** The exponent YCSB uses for its skewed workloads. */
+	static final double DEFAULT_EXPONENT = 0.99;
+
+	private final double[] cdf;
+
+
+	Zipf( int n, double exponent ) {
+		cdf = new double[ n ];
+		double sum = 0;
+		for( int k = 0; k < n; k++ ) {
+			sum += 1 / Math.pow( k + 1, exponent );
+			cdf[ k ] = sum;
+		}
+		for( int k = 0; k < n; k++ ) {
+			cdf[ k ] /= sum;
+		}
+	}
+
+
+	/**
+	 * Returns a rank between 0, the most popular, and <i>n</i> - 1.
+	 */
+	int next( Random random ) {
+		double u = random.nextDouble();
+		int low = 0;
+		int high = cdf.length - 1;
+		while( low < high ) {
+			int mid = ( low + high ) >>> 1;
+			if ( cdf[ mid ] < u ) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+
+	/**
+	 * Returns <tt>count</tt> indexes into an array of <tt>n</tt> keys, skewed
+	 * so that a few keys take most of them. The hot keys are spread over the
+	 * array rather than being its first elements.
+	 */
+	static int[] indexes( int count, int n ) {
+		Random random = new Random( Constants.SEED );
+
+		int[] byRank = new int[ n ];
+		for( int i = 0; i < n; i++ ) {
+			byRank[ i ] = i;
+		}
+		for( int i = n - 1; i > 0; i-- ) {
+			int j = random.nextInt( i + 1 );
+			int swap = byRank[ i ];
+			byRank[ i ] = byRank[ j ];
+			byRank[ j ] = swap;
+		}
+
+		Zipf zipf = new Zipf( n, DEFAULT_EXPONENT );
+		int[] indexes = new int[ count ];
+		for( int i = 0; i < count; i++ ) {
+			indexes[ i ] = byRank[ zipf.next( random ) ];
+		}
+		return indexes;
+	}
+}
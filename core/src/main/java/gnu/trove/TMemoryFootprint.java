@@ -0,0 +1,50 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove;
+
+
+/**
+ * A collection that can estimate the heap it takes.
+ * <p>
+ * Estimates are computed from the lengths of the backing arrays and the widths
+ * of their elements, with object and array headers estimated as
+ * {@link gnu.trove.impl.MemoryEstimates} describes. They cover the collection
+ * itself and not the objects it refers to, such as the keys of an object map.
+ *
+ * @see TMemoryReport
+ */
+public interface TMemoryFootprint {
+
+    /**
+     * Returns an estimate of the bytes the collection takes.
+     *
+     * @return a <code>long</code> value
+     */
+    long estimatedMemoryBytes();
+
+
+    /**
+     * Returns an estimate of the bytes the collection takes beyond what its
+     * current contents need, such as the free capacity of a list or the slots
+     * of a hash table beyond those its load factor calls for. A large value
+     * marks an over-provisioned collection, for example one that grew during a
+     * spike and was cleared since.
+     *
+     * @return a <code>long</code> value
+     */
+    long wastedBytes();
+}
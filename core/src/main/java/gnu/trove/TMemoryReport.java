@@ -0,0 +1,204 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A registry of named collections whose memory footprint can be reported,
+ * for exporting a memory gauge per structure and finding over-provisioned
+ * collections.
+ * <p>
+ * The registry holds collections weakly, so registering one does not keep it
+ * alive; collections that have been garbage collected drop out of reports.
+ * Reports read the collections without synchronizing on them, so a collection
+ * being modified meanwhile may be reported with stale sizes. The registry
+ * itself is thread safe.
+ */
+public class TMemoryReport {
+
+    /** A callback for each collection of a report. */
+    public interface Procedure {
+
+        /**
+         * Executes this procedure for a collection.
+         *
+         * @param name the name the collection was registered under
+         * @param estimatedBytes the estimate of the bytes it takes
+         * @param wastedBytes the estimate of the bytes it takes beyond its needs
+         * @return true to continue with the next collection
+         */
+        boolean execute( String name, long estimatedBytes, long wastedBytes );
+    }
+
+
+    private final Map<String, WeakReference<TMemoryFootprint>> _collections =
+        new LinkedHashMap<String, WeakReference<TMemoryFootprint>>();
+
+
+    /**
+     * Registers <tt>collection</tt> under <tt>name</tt>, replacing any
+     * collection registered under that name.
+     *
+     * @param name a <code>String</code> value
+     * @param collection a <code>TMemoryFootprint</code> value
+     */
+    public synchronized void register( String name, TMemoryFootprint collection ) {
+        if ( name == null || collection == null ) {
+            throw new IllegalArgumentException( "name and collection can not be null" );
+        }
+        _collections.put( name, new WeakReference<TMemoryFootprint>( collection ) );
+    }
+
+
+    /**
+     * Removes the collection registered under <tt>name</tt>.
+     *
+     * @param name a <code>String</code> value
+     * @return true if a collection was registered under <tt>name</tt>
+     */
+    public synchronized boolean unregister( String name ) {
+        return _collections.remove( name ) != null;
+    }
+
+
+    /**
+     * Returns the number of collections registered that are still alive.
+     *
+     * @return an <code>int</code> value
+     */
+    public synchronized int size() {
+        purge();
+        return _collections.size();
+    }
+
+
+    /**
+     * Executes <tt>procedure</tt> for each collection, in the order they were
+     * registered.
+     *
+     * @param procedure a <code>Procedure</code> value
+     * @return false if the loop over the collections terminated because the
+     * procedure returned false for some collection.
+     */
+    public synchronized boolean forEach( Procedure procedure ) {
+        for ( Iterator<Map.Entry<String, WeakReference<TMemoryFootprint>>> it =
+            _collections.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, WeakReference<TMemoryFootprint>> entry = it.next();
+            TMemoryFootprint collection = entry.getValue().get();
+            if ( collection == null ) {
+                it.remove();
+            }
+            else if ( !procedure.execute( entry.getKey(),
+                collection.estimatedMemoryBytes(), collection.wastedBytes() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the estimate of the bytes all the collections take.
+     *
+     * @return a <code>long</code> value
+     */
+    public long estimatedMemoryBytes() {
+        final long[] total = new long[ 1 ];
+        forEach( new Procedure() {
+            public boolean execute( String name, long estimatedBytes, long wastedBytes ) {
+                total[ 0 ] += estimatedBytes;
+                return true;
+            }
+        } );
+        return total[ 0 ];
+    }
+
+
+    /**
+     * Returns the estimate of the bytes all the collections take beyond their
+     * needs.
+     *
+     * @return a <code>long</code> value
+     */
+    public long wastedBytes() {
+        final long[] total = new long[ 1 ];
+        forEach( new Procedure() {
+            public boolean execute( String name, long estimatedBytes, long wastedBytes ) {
+                total[ 0 ] += wastedBytes;
+                return true;
+            }
+        } );
+        return total[ 0 ];
+    }
+
+
+    /**
+     * Returns the names of the collections that waste more than
+     * <tt>fraction</tt> of their bytes and at least <tt>minBytes</tt> bytes.
+     *
+     * @param fraction a <code>double</code> between 0 and 1
+     * @param minBytes the least waste worth reporting
+     * @return a <code>List</code> of names
+     */
+    public List<String> overProvisioned( final double fraction, final long minBytes ) {
+        final List<String> names = new ArrayList<String>();
+        forEach( new Procedure() {
+            public boolean execute( String name, long estimatedBytes, long wastedBytes ) {
+                if ( wastedBytes >= minBytes && wastedBytes > estimatedBytes * fraction ) {
+                    names.add( name );
+                }
+                return true;
+            }
+        } );
+        return names;
+    }
+
+
+    private void purge() {
+        for ( Iterator<WeakReference<TMemoryFootprint>> it =
+            _collections.values().iterator(); it.hasNext(); ) {
+            if ( it.next().get() == null ) {
+                it.remove();
+            }
+        }
+    }
+
+
+    /**
+     * Returns a line per collection with its name, estimated bytes and wasted
+     * bytes.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder();
+        forEach( new Procedure() {
+            public boolean execute( String name, long estimatedBytes, long wastedBytes ) {
+                buf.append( name ).append( ": " ).append( estimatedBytes )
+                    .append( " bytes, " ).append( wastedBytes ).append( " wasted\n" );
+                return true;
+            }
+        } );
+        return buf.toString();
+    }
+} // TMemoryReport
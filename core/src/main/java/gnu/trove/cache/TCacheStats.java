@@ -0,0 +1,112 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.cache;
+
+import java.io.Serializable;
+
+
+/**
+ * An immutable snapshot of a cache's hit, miss and eviction counts.
+ */
+public final class TCacheStats implements Serializable {
+
+    static final long serialVersionUID = 1L;
+
+    private final long _hitCount;
+    private final long _missCount;
+    private final long _evictionCount;
+
+
+    /**
+     * Creates a new <code>TCacheStats</code> instance.
+     *
+     * @param hitCount lookups that found a value
+     * @param missCount lookups that found nothing
+     * @param evictionCount entries removed to respect the size limit
+     */
+    public TCacheStats( long hitCount, long missCount, long evictionCount ) {
+        _hitCount = hitCount;
+        _missCount = missCount;
+        _evictionCount = evictionCount;
+    }
+
+
+    /** Returns the number of lookups that found a value. */
+    public long hitCount() {
+        return _hitCount;
+    }
+
+
+    /** Returns the number of lookups that found nothing. */
+    public long missCount() {
+        return _missCount;
+    }
+
+
+    /** Returns the number of lookups, hits plus misses. */
+    public long requestCount() {
+        return _hitCount + _missCount;
+    }
+
+
+    /**
+     * Returns the number of entries removed to respect the size limit, including
+     * new entries that were refused admission.
+     */
+    public long evictionCount() {
+        return _evictionCount;
+    }
+
+
+    /** Returns the fraction of lookups that were hits, or 1.0 if there were none. */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : ( double ) _hitCount / requests;
+    }
+
+
+    /** Returns the fraction of lookups that were misses, or 0.0 if there were none. */
+    public double missRate() {
+        long requests = requestCount();
+        return requests == 0 ? 0.0 : ( double ) _missCount / requests;
+    }
+
+
+    @Override
+    public boolean equals( Object other ) {
+        if ( !( other instanceof TCacheStats ) ) {
+            return false;
+        }
+        TCacheStats that = ( TCacheStats ) other;
+        return _hitCount == that._hitCount && _missCount == that._missCount &&
+            _evictionCount == that._evictionCount;
+    }
+
+
+    @Override
+    public int hashCode() {
+        long hash = _hitCount * 31 * 31 + _missCount * 31 + _evictionCount;
+        return ( int ) ( hash ^ ( hash >>> 32 ) );
+    }
+
+
+    @Override
+    public String toString() {
+        return "TCacheStats{hitCount=" + _hitCount + ", missCount=" + _missCount +
+            ", evictionCount=" + _evictionCount + "}";
+    }
+} // TCacheStats
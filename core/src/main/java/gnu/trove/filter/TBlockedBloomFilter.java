@@ -0,0 +1,190 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.filter;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+
+/**
+ * A blocked Bloom filter: a Bloom filter whose bits for each value all fall in
+ * one 512-bit block, the size of a cache line.
+ * <p>
+ * The upper half of a value's hash picks the block and the lower half sets one
+ * bit in each of the block's eight words, so adding or testing a value touches
+ * a single cache line however large the filter is. The price is a somewhat
+ * higher false positive rate than a classic Bloom filter of the same size,
+ * which the sizing accounts for. Values cannot be removed.
+ */
+public class TBlockedBloomFilter extends TMembershipFilter implements Externalizable {
+    static final long serialVersionUID = 1L;
+
+    /** odd multipliers that pick the bit set in each word of a block */
+    private static final int[] SALTS = {
+        0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+        0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31 };
+
+    /** the largest number of blocks, which keeps the word count below 2^31 */
+    private static final int MAX_BLOCKS = 1 << 27;
+
+    /** the bits, eight words per block */
+    protected long[] _words;
+
+    /** the number of blocks */
+    protected int _blocks;
+
+
+    /**
+     * Creates a filter sized for 1000 values at a false positive probability of
+     * one percent, for externalization.
+     */
+    public TBlockedBloomFilter() {
+        this( 1000, 0.01 );
+    }
+
+
+    /**
+     * Creates a filter that reports about <tt>falsePositiveProbability</tt> of
+     * absent values as present once <tt>expectedValues</tt> values are added.
+     *
+     * @param expectedValues the number of distinct values expected
+     * @param falsePositiveProbability a <code>double</code> between 0 and 1
+     */
+    public TBlockedBloomFilter( int expectedValues, double falsePositiveProbability ) {
+        if ( falsePositiveProbability <= 0 || falsePositiveProbability >= 1 ) {
+            throw new IllegalArgumentException( "False positive probability must be "
+                + "between 0 and 1 exclusive: " + falsePositiveProbability );
+        }
+        _blocks = blocks( expectedValues, falsePositiveProbability );
+        _words = new long[ _blocks << 3 ];
+    }
+
+
+    /**
+     * Returns the number of blocks for <tt>expectedValues</tt> values at
+     * <tt>falsePositiveProbability</tt>, between 1 and {@link #MAX_BLOCKS}.
+     */
+    static int blocks( int expectedValues, double falsePositiveProbability ) {
+        // the size a split block filter needs, from the Parquet specification
+        double bits = -8.0 * Math.max( 1, expectedValues )
+            / Math.log( 1 - Math.pow( falsePositiveProbability, 1.0 / 8 ) );
+        double blocks = Math.ceil( bits / 512 );
+        return ( int ) Math.max( 1, Math.min( MAX_BLOCKS, blocks ) );
+    }
+
+
+    /** Returns the index of the first word of the block of <tt>hash</tt>. */
+    private int block( long hash ) {
+        return ( int ) ( ( ( hash >>> 32 ) * _blocks ) >>> 32 ) << 3;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean addHash( long hash ) {
+        long[] words = _words;
+        int base = block( hash );
+        int key = ( int ) hash;
+        boolean added = false;
+        for ( int i = 0; i < 8; i++ ) {
+            long bit = 1L << ( ( key * SALTS[ i ] ) >>> 26 );
+            long word = words[ base + i ];
+            if ( ( word & bit ) == 0 ) {
+                words[ base + i ] = word | bit;
+                added = true;
+            }
+        }
+        return added;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean mightContainHash( long hash ) {
+        long[] words = _words;
+        int base = block( hash );
+        int key = ( int ) hash;
+        for ( int i = 0; i < 8; i++ ) {
+            if ( ( words[ base + i ] & ( 1L << ( ( key * SALTS[ i ] ) >>> 26 ) ) ) == 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        Arrays.fill( _words, 0L );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public double falsePositiveProbability() {
+        long set = 0;
+        for ( long word : _words ) {
+            set += Long.bitCount( word );
+        }
+        return Math.pow( ( double ) set / ( ( long ) _words.length << 6 ), 8 );
+    }
+
+
+    /**
+     * Returns the number of bytes used by the bits of the filter.
+     *
+     * @return a <code>long</code> value
+     */
+    public long sizeInBytes() {
+        return ( long ) _words.length << 3;
+    }
+
+
+    /** {@inheritDoc} */
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        // VERSION
+        out.writeByte( 0 );
+
+        // NUMBER OF BLOCKS
+        out.writeInt( _blocks );
+
+        // WORDS
+        for ( long word : _words ) {
+            out.writeLong( word );
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        // VERSION
+        in.readByte();
+
+        // NUMBER OF BLOCKS
+        _blocks = in.readInt();
+
+        // WORDS
+        _words = new long[ _blocks << 3 ];
+        for ( int i = 0; i < _words.length; i++ ) {
+            _words[ i ] = in.readLong();
+        }
+    }
+} // TBlockedBloomFilter
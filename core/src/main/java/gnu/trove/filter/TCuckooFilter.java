@@ -0,0 +1,360 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.filter;
+
+import gnu.trove.impl.HashFunctions;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+
+/**
+ * A cuckoo filter: a cuckoo hash table of 16-bit fingerprints, four to a bucket,
+ * that supports removing values as well as adding them.
+ * <p>
+ * Each value has two candidate buckets, the second derived from the first and
+ * the fingerprint alone, so a fingerprint can be moved to its other bucket
+ * without knowing the value. A bucket is packed into one <tt>long</tt>, so a
+ * lookup reads at most two words. The false positive probability is about
+ * <tt>8 / 2<sup>16</sup></tt> at full load.
+ * <p>
+ * A value is counted each time it is added, and must only be removed as often
+ * as it was added. Once the table is too full for an insertion to find room
+ * after {@link #MAX_KICKS} relocations, the homeless fingerprint is kept aside,
+ * {@link #isFull} returns true and further additions are refused until a value
+ * is removed.
+ */
+public class TCuckooFilter extends TMembershipFilter implements Externalizable {
+    static final long serialVersionUID = 1L;
+
+    /** the number of relocations tried before an insertion gives up */
+    public static final int MAX_KICKS = 500;
+
+    /** the fraction of slots the table is sized to fill */
+    private static final double LOAD_FACTOR = 0.95;
+
+    /** a one in the lowest bit of each 16-bit slot */
+    private static final long LOW_BITS = 0x0001000100010001L;
+
+    /** a one in the highest bit of each 16-bit slot */
+    private static final long HIGH_BITS = 0x8000800080008000L;
+
+    /** four 16-bit fingerprints per bucket; zero marks an empty slot */
+    protected long[] _buckets;
+
+    /** the number of buckets less one */
+    protected int _mask;
+
+    /** the number of fingerprints held, including the homeless one */
+    protected int _size;
+
+    /** the fingerprint that found no room, or zero */
+    protected int _victim;
+
+    /** a bucket of the homeless fingerprint */
+    protected int _victimIndex;
+
+    /** the state of the generator that picks fingerprints to relocate */
+    private int _random = 0x2545f491;
+
+
+    /**
+     * Creates a filter with room for 1000 values, for externalization.
+     */
+    public TCuckooFilter() {
+        this( 1000 );
+    }
+
+
+    /**
+     * Creates a filter with room for about <tt>expectedValues</tt> values.
+     *
+     * @param expectedValues an <code>int</code> value
+     */
+    public TCuckooFilter( int expectedValues ) {
+        long buckets = ( long ) Math.ceil( Math.max( 1, expectedValues ) / ( 4 * LOAD_FACTOR ) );
+        int length = ( int ) Math.min( 1 << 30, buckets );
+        length = Integer.highestOneBit( Math.max( 1, length - 1 ) ) << 1;
+        _buckets = new long[ length ];
+        _mask = length - 1;
+    }
+
+
+    /** Returns the non-zero 16-bit fingerprint of <tt>hash</tt>. */
+    private static int fingerprint( long hash ) {
+        int fingerprint = ( int ) ( hash >>> 48 );
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+
+    /** Returns the other bucket of <tt>fingerprint</tt>, which is in bucket <tt>index</tt>. */
+    private int alternate( int index, int fingerprint ) {
+        return ( index ^ ( int ) HashFunctions.mix( fingerprint ) ) & _mask;
+    }
+
+
+    /** Returns true if <tt>bucket</tt> holds <tt>fingerprint</tt> in any slot. */
+    private static boolean holds( long bucket, int fingerprint ) {
+        long x = bucket ^ ( fingerprint * LOW_BITS );
+        return ( ( x - LOW_BITS ) & ~x & HIGH_BITS ) != 0;
+    }
+
+
+    /** Puts <tt>fingerprint</tt> in an empty slot of bucket <tt>index</tt>, if any. */
+    private boolean insertInto( int index, int fingerprint ) {
+        long bucket = _buckets[ index ];
+        for ( int shift = 0; shift < 64; shift += 16 ) {
+            if ( ( ( bucket >>> shift ) & 0xffff ) == 0 ) {
+                _buckets[ index ] = bucket | ( ( long ) fingerprint << shift );
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /** Empties a slot of bucket <tt>index</tt> holding <tt>fingerprint</tt>, if any. */
+    private boolean deleteFrom( int index, int fingerprint ) {
+        long bucket = _buckets[ index ];
+        for ( int shift = 0; shift < 64; shift += 16 ) {
+            if ( ( ( bucket >>> shift ) & 0xffff ) == fingerprint ) {
+                _buckets[ index ] = bucket & ~( 0xffffL << shift );
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Stores <tt>fingerprint</tt> in bucket <tt>index</tt> or its alternate,
+     * relocating other fingerprints if both are full, and keeps the fingerprint
+     * left over aside if no room is found.
+     */
+    private void place( int index, int fingerprint ) {
+        int other = alternate( index, fingerprint );
+        if ( insertInto( index, fingerprint ) || insertInto( other, fingerprint ) ) {
+            return;
+        }
+        if ( ( nextRandom() & 1 ) != 0 ) {
+            index = other;
+        }
+        for ( int kick = 0; kick < MAX_KICKS; kick++ ) {
+            int shift = ( nextRandom() & 3 ) << 4;
+            long bucket = _buckets[ index ];
+            int evicted = ( int ) ( bucket >>> shift ) & 0xffff;
+            _buckets[ index ] = ( bucket & ~( 0xffffL << shift ) )
+                | ( ( long ) fingerprint << shift );
+            fingerprint = evicted;
+            index = alternate( index, fingerprint );
+            if ( insertInto( index, fingerprint ) ) {
+                return;
+            }
+        }
+        _victim = fingerprint;
+        _victimIndex = index;
+    }
+
+
+    private int nextRandom() {
+        int x = _random;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        return _random = x;
+    }
+
+
+    /**
+     * Returns true once an insertion has failed to find room, after which
+     * additions are refused until a value is removed.
+     *
+     * @return a <code>boolean</code> value
+     */
+    public boolean isFull() {
+        return _victim != 0;
+    }
+
+
+    /**
+     * Returns the number of values held.
+     *
+     * @return an <code>int</code> value
+     */
+    public int size() {
+        return _size;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean addHash( long hash ) {
+        if ( _victim != 0 ) {
+            return false;
+        }
+        _size++;
+        place( ( int ) hash & _mask, fingerprint( hash ) );
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean mightContainHash( long hash ) {
+        int fingerprint = fingerprint( hash );
+        int index = ( int ) hash & _mask;
+        int other = alternate( index, fingerprint );
+        return holds( _buckets[ index ], fingerprint )
+            || holds( _buckets[ other ], fingerprint )
+            || ( _victim == fingerprint && ( _victimIndex == index || _victimIndex == other ) );
+    }
+
+
+    /**
+     * Removes one occurrence of the value with the given 64-bit hash.
+     *
+     * @param hash a hash from {@link #hash}
+     * @return false if the filter holds no value with that hash
+     */
+    public boolean removeHash( long hash ) {
+        int fingerprint = fingerprint( hash );
+        int index = ( int ) hash & _mask;
+        int other = alternate( index, fingerprint );
+        if ( _victim == fingerprint && ( _victimIndex == index || _victimIndex == other ) ) {
+            _victim = 0;
+            _size--;
+            return true;
+        }
+        if ( deleteFrom( index, fingerprint ) || deleteFrom( other, fingerprint ) ) {
+            _size--;
+            if ( _victim != 0 ) {
+                int victim = _victim;
+                _victim = 0;
+                place( _victimIndex, victim );
+            }
+            return true;
+        }
+        return false;
+    }
+
+
+    /** Removes one occurrence of <tt>value</tt>, as {@link #removeHash} does its hash. */
+    public boolean remove( int value ) {
+        return removeHash( hash( value ) );
+    }
+
+
+    /** Removes one occurrence of <tt>value</tt>, as {@link #removeHash} does its hash. */
+    public boolean remove( long value ) {
+        return removeHash( hash( value ) );
+    }
+
+
+    /** Removes one occurrence of <tt>value</tt>, as {@link #removeHash} does its hash. */
+    public boolean remove( float value ) {
+        return removeHash( hash( value ) );
+    }
+
+
+    /** Removes one occurrence of <tt>value</tt>, as {@link #removeHash} does its hash. */
+    public boolean remove( double value ) {
+        return removeHash( hash( value ) );
+    }
+
+
+    /** Removes one occurrence of <tt>value</tt>, as {@link #removeHash} does its hash. */
+    public boolean remove( Object value ) {
+        return removeHash( hash( value ) );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void clear() {
+        Arrays.fill( _buckets, 0L );
+        _size = 0;
+        _victim = 0;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public double falsePositiveProbability() {
+        // a lookup compares against the fingerprints of two buckets
+        double compared = 2.0 * _size / _buckets.length;
+        return 1 - Math.pow( 1 - 1.0 / 0xffff, compared );
+    }
+
+
+    /**
+     * Returns the number of bytes used by the buckets of the filter.
+     *
+     * @return a <code>long</code> value
+     */
+    public long sizeInBytes() {
+        return ( long ) _buckets.length << 3;
+    }
+
+
+    /** {@inheritDoc} */
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        // VERSION
+        out.writeByte( 0 );
+
+        // NUMBER OF BUCKETS
+        out.writeInt( _buckets.length );
+
+        // SIZE
+        out.writeInt( _size );
+
+        // VICTIM
+        out.writeShort( _victim );
+        out.writeInt( _victimIndex );
+
+        // BUCKETS
+        for ( long bucket : _buckets ) {
+            out.writeLong( bucket );
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        // VERSION
+        in.readByte();
+
+        // NUMBER OF BUCKETS
+        int length = in.readInt();
+        _buckets = new long[ length ];
+        _mask = length - 1;
+
+        // SIZE
+        _size = in.readInt();
+
+        // VICTIM
+        _victim = in.readUnsignedShort();
+        _victimIndex = in.readInt();
+
+        // BUCKETS
+        for ( int i = 0; i < length; i++ ) {
+            _buckets[ i ] = in.readLong();
+        }
+    }
+} // TCuckooFilter
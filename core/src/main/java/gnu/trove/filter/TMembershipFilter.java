@@ -0,0 +1,157 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.filter;
+
+import gnu.trove.impl.HashFunctions;
+
+
+/**
+ * Base class for approximate membership filters: compact structures that answer
+ * "definitely absent" or "possibly present" for a value.
+ * <p>
+ * A filter never reports an added value as absent, but may report a value that
+ * was never added as present, with a small false positive probability fixed when
+ * the filter is sized. Values are reduced to a 64-bit hash with
+ * {@link HashFunctions#mix}; callers that already hold such a hash can use
+ * {@link #addHash} and {@link #mightContainHash} directly. Objects are hashed
+ * through their <tt>hashCode()</tt>, so at most 32 bits of them are used.
+ */
+public abstract class TMembershipFilter {
+
+    /**
+     * Adds the value with the given 64-bit hash.
+     *
+     * @param hash a hash from {@link #hash}
+     * @return false if the filter could not take the value or, for filters that
+     *         do not count duplicates, already reported it as possibly present.
+     */
+    public abstract boolean addHash( long hash );
+
+
+    /**
+     * Returns false if no value with the given 64-bit hash was added.
+     *
+     * @param hash a hash from {@link #hash}
+     * @return a <code>boolean</code> value
+     */
+    public abstract boolean mightContainHash( long hash );
+
+
+    /**
+     * Removes every value from the filter.
+     */
+    public abstract void clear();
+
+
+    /**
+     * Returns an estimate of the probability that a value which was never added
+     * is reported as possibly present, given the values added so far.
+     *
+     * @return a <code>double</code> between 0 and 1
+     */
+    public abstract double falsePositiveProbability();
+
+
+    /** Returns the 64-bit hash the filters use for <tt>value</tt>. */
+    public static long hash( int value ) {
+        return HashFunctions.mix( value );
+    }
+
+
+    /** Returns the 64-bit hash the filters use for <tt>value</tt>. */
+    public static long hash( long value ) {
+        return HashFunctions.mix( value );
+    }
+
+
+    /** Returns the 64-bit hash the filters use for <tt>value</tt>. */
+    public static long hash( float value ) {
+        return HashFunctions.mix( Float.floatToIntBits( value ) );
+    }
+
+
+    /** Returns the 64-bit hash the filters use for <tt>value</tt>. */
+    public static long hash( double value ) {
+        return HashFunctions.mix( Double.doubleToLongBits( value ) );
+    }
+
+
+    /** Returns the 64-bit hash the filters use for <tt>value</tt>. */
+    public static long hash( Object value ) {
+        return HashFunctions.mix( HashFunctions.hash( value ) );
+    }
+
+
+    /** Adds <tt>value</tt>, as {@link #addHash} does its hash. */
+    public boolean add( int value ) {
+        return addHash( hash( value ) );
+    }
+
+
+    /** Adds <tt>value</tt>, as {@link #addHash} does its hash. */
+    public boolean add( long value ) {
+        return addHash( hash( value ) );
+    }
+
+
+    /** Adds <tt>value</tt>, as {@link #addHash} does its hash. */
+    public boolean add( float value ) {
+        return addHash( hash( value ) );
+    }
+
+
+    /** Adds <tt>value</tt>, as {@link #addHash} does its hash. */
+    public boolean add( double value ) {
+        return addHash( hash( value ) );
+    }
+
+
+    /** Adds <tt>value</tt>, as {@link #addHash} does its hash. */
+    public boolean add( Object value ) {
+        return addHash( hash( value ) );
+    }
+
+
+    /** Returns false if <tt>value</tt> was definitely never added. */
+    public boolean mightContain( int value ) {
+        return mightContainHash( hash( value ) );
+    }
+
+
+    /** Returns false if <tt>value</tt> was definitely never added. */
+    public boolean mightContain( long value ) {
+        return mightContainHash( hash( value ) );
+    }
+
+
+    /** Returns false if <tt>value</tt> was definitely never added. */
+    public boolean mightContain( float value ) {
+        return mightContainHash( hash( value ) );
+    }
+
+
+    /** Returns false if <tt>value</tt> was definitely never added. */
+    public boolean mightContain( double value ) {
+        return mightContainHash( hash( value ) );
+    }
+
+
+    /** Returns false if <tt>value</tt> was definitely never added. */
+    public boolean mightContain( Object value ) {
+        return mightContainHash( hash( value ) );
+    }
+} // TMembershipFilter
@@ -72,4 +72,20 @@ public final class HashFunctions {
         return object==null ? 0 : object.hashCode();
     }
 
+    /**
+     * Returns a 64-bit hash of <tt>value</tt> whose bits all depend on every bit
+     * of the input (the finalizer of MurmurHash3). Use it where a hash is split
+     * into several independent indexes, as in a Bloom filter.
+     *
+     * @return  a well mixed 64-bit hash of the specified value.
+     */
+    public static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
 }
@@ -0,0 +1,70 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl;
+
+
+/**
+ * Estimates of the heap the collections take, for
+ * {@link gnu.trove.TMemoryFootprint}.
+ * <p>
+ * The estimates assume a 64-bit JVM with compressed references, the default
+ * for heaps under 32GB: 12 byte object headers, 16 byte array headers, 4 byte
+ * references and sizes rounded up to a multiple of 8.
+ */
+public final class MemoryEstimates {
+
+    /** the bytes of the header of an object */
+    public static final int OBJECT_HEADER = 12;
+
+    /** the bytes of the header of an array, including its length */
+    public static final int ARRAY_HEADER = 16;
+
+    /** the bytes of a reference */
+    public static final int REFERENCE = 4;
+
+
+    private MemoryEstimates() {}
+
+
+    /**
+     * Returns the bytes an object with <tt>fieldBytes</tt> of fields takes.
+     *
+     * @param fieldBytes the total width of the fields of the object
+     * @return a <code>long</code> value
+     */
+    public static long object( int fieldBytes ) {
+        return align( OBJECT_HEADER + ( long ) fieldBytes );
+    }
+
+
+    /**
+     * Returns the bytes an array of <tt>length</tt> elements of
+     * <tt>elementBytes</tt> each takes, or 0 for a missing array.
+     *
+     * @param length the length of the array, or -1 if there is none
+     * @param elementBytes the width of an element
+     * @return a <code>long</code> value
+     */
+    public static long array( int length, int elementBytes ) {
+        return length < 0 ? 0 : align( ARRAY_HEADER + ( long ) length * elementBytes );
+    }
+
+
+    private static long align( long bytes ) {
+        return ( bytes + 7 ) & ~7L;
+    }
+} // MemoryEstimates
@@ -0,0 +1,127 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Runs the independent parts of a bulk operation on a shared pool of daemon
+ * threads, one per processor, created the first time it is needed.
+ * <p>
+ * Tasks are flat: a task must not itself call {@link #invokeAll}, since it
+ * would wait for pool threads that may all be busy waiting in the same way.
+ */
+public final class ParallelTasks {
+
+    /** the number of pool threads, and the number of parts worth splitting work into */
+    public static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+
+    private ParallelTasks() {}
+
+
+    private static class PoolHolder {
+        static final ExecutorService POOL = Executors.newFixedThreadPool( PARALLELISM,
+            new ThreadFactory() {
+                private final AtomicInteger _count = new AtomicInteger();
+
+                public Thread newThread( Runnable runnable ) {
+                    Thread thread = new Thread( runnable,
+                        "trove-parallel-" + _count.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            } );
+    }
+
+
+    /**
+     * Returns the range of part <tt>part</tt> of <tt>parts</tt> equal parts of
+     * <tt>[0, length)</tt>: its start, or its end as the start of the next part.
+     *
+     * @param part an <code>int</code> from 0 to <tt>parts</tt> inclusive
+     * @param parts the number of parts
+     * @param length the length being split
+     * @return an <code>int</code> value
+     */
+    public static int boundary( int part, int parts, int length ) {
+        return ( int ) ( ( long ) length * part / parts );
+    }
+
+
+    /**
+     * Runs <tt>tasks</tt>, the first in the calling thread and the others on the
+     * pool, and returns once all have finished. An exception thrown by a task is
+     * rethrown, after the other tasks have finished.
+     *
+     * @param tasks the tasks to run
+     */
+    public static void invokeAll( Runnable... tasks ) {
+        if ( tasks.length == 0 ) {
+            return;
+        }
+        Future<?>[] futures = new Future<?>[ tasks.length ];
+        for ( int i = 1; i < tasks.length; i++ ) {
+            futures[ i ] = PoolHolder.POOL.submit( tasks[ i ] );
+        }
+
+        Throwable failure = null;
+        try {
+            tasks[ 0 ].run();
+        }
+        catch ( Throwable t ) {
+            failure = t;
+        }
+        boolean interrupted = false;
+        for ( int i = 1; i < tasks.length; i++ ) {
+            while ( true ) {
+                try {
+                    futures[ i ].get();
+                    break;
+                }
+                catch ( InterruptedException ex ) {
+                    interrupted = true;
+                }
+                catch ( ExecutionException ex ) {
+                    if ( failure == null ) {
+                        failure = ex.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if ( interrupted ) {
+            Thread.currentThread().interrupt();
+        }
+
+        if ( failure instanceof RuntimeException ) {
+            throw ( RuntimeException ) failure;
+        }
+        if ( failure instanceof Error ) {
+            throw ( Error ) failure;
+        }
+        if ( failure != null ) {
+            throw new RuntimeException( failure );
+        }
+    }
+}
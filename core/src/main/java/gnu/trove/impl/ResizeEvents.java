@@ -0,0 +1,166 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl;
+
+import java.util.ServiceLoader;
+
+
+/**
+ * Receives the rehashes and compactions of the hash tables and the growth of
+ * the array lists, for diagnostics such as Java Flight Recorder events.
+ * <p>
+ * {@link #INSTANCE} is the first <tt>java.util.ServiceLoader</tt> provider of
+ * this class that can be loaded, such as the JFR events of the
+ * <tt>trove4j-jfr</tt> jar, or null if there is none. Collections test it
+ * before each resize, so without a provider they do no extra work. A provider
+ * that cannot be loaded because the JVM is too old is passed over. Setting the
+ * system property <tt>gnu.trove.events</tt> to <tt>none</tt> ignores all
+ * providers.
+ * <p>
+ * Each resize is bracketed by a <tt>begin</tt> call, which returns an event
+ * or null if the provider is not interested, and, for a non-null event, an
+ * <tt>end</tt> call once it is done.
+ */
+public abstract class ResizeEvents {
+
+    /** a rehash to a larger capacity because the table filled up */
+    public static final int GROWTH = 0;
+
+    /** a rehash to the same capacity because <tt>REMOVED</tt> slots used up the free ones */
+    public static final int TOMBSTONES = 1;
+
+    /** a rehash for <tt>ensureCapacity</tt> */
+    public static final int RESERVE = 2;
+
+    /** a rehash for a compaction */
+    public static final int COMPACTION = 3;
+
+    /** a rehash to a smaller capacity because the growth policy shrank the table */
+    public static final int SHRINK = 4;
+
+    /** the provider in use, or null if there is none */
+    public static final ResizeEvents INSTANCE = load();
+
+
+    protected ResizeEvents() {}
+
+
+    private static ResizeEvents load() {
+        String property = null;
+        try {
+            property = System.getProperty( "gnu.trove.events" );
+        }
+        catch( SecurityException ex ) {
+            // ignore
+        }
+        if ( !"none".equalsIgnoreCase( property ) ) {
+            try {
+                for ( ResizeEvents events : ServiceLoader.load( ResizeEvents.class,
+                    ResizeEvents.class.getClassLoader() ) ) {
+                    return events;
+                }
+            }
+            catch( Throwable t ) {
+                // the provider cannot run here
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Returns a name for a rehash trigger, such as <tt>growth</tt>.
+     *
+     * @param trigger one of the trigger constants of this class
+     * @return a <code>String</code> value
+     */
+    public static String triggerName( int trigger ) {
+        switch ( trigger ) {
+            case GROWTH: return "growth";
+            case TOMBSTONES: return "tombstones";
+            case RESERVE: return "reserve";
+            case COMPACTION: return "compaction";
+            case SHRINK: return "shrink";
+            default: return "unknown";
+        }
+    }
+
+
+    /**
+     * Called before a hash table rehashes.
+     *
+     * @return an event to pass to {@link #endRehash}, or null
+     */
+    public abstract Object beginRehash();
+
+
+    /**
+     * Called after a hash table rehashed.
+     *
+     * @param event what {@link #beginRehash} returned
+     * @param table the hash table
+     * @param oldCapacity the capacity before the rehash
+     * @param newCapacity the capacity after the rehash
+     * @param size the number of entries
+     * @param trigger why the table rehashed, one of the trigger constants
+     */
+    public abstract void endRehash( Object event, Object table, int oldCapacity,
+        int newCapacity, int size, int trigger );
+
+
+    /**
+     * Called before a hash table compacts.
+     *
+     * @return an event to pass to {@link #endCompact}, or null
+     */
+    public abstract Object beginCompact();
+
+
+    /**
+     * Called after a hash table compacted.
+     *
+     * @param event what {@link #beginCompact} returned
+     * @param table the hash table
+     * @param oldCapacity the capacity before the compaction
+     * @param newCapacity the capacity after the compaction
+     * @param size the number of entries
+     * @param automatic true for an auto-compaction after removals
+     */
+    public abstract void endCompact( Object event, Object table, int oldCapacity,
+        int newCapacity, int size, boolean automatic );
+
+
+    /**
+     * Called before an array list grows its array.
+     *
+     * @return an event to pass to {@link #endArrayGrow}, or null
+     */
+    public abstract Object beginArrayGrow();
+
+
+    /**
+     * Called after an array list grew its array.
+     *
+     * @param event what {@link #beginArrayGrow} returned
+     * @param list the list
+     * @param oldCapacity the length of the old array
+     * @param newCapacity the length of the new array
+     * @param elementBytes the width of an element
+     */
+    public abstract void endArrayGrow( Object event, Object list, int oldCapacity,
+        int newCapacity, int elementBytes );
+} // ResizeEvents
@@ -0,0 +1,134 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl;
+
+
+/**
+ * Orderings of primitive values shared by the sorts of the primitive lists.
+ * <p>
+ * Both orderings agree with <tt>java.util.Arrays.sort</tt>: floating point
+ * <tt>-0.0</tt> sorts before <tt>0.0</tt> and NaN sorts after everything else.
+ */
+public final class SortKeys {
+
+    private SortKeys() {}
+
+
+    /**
+     * Returns the number of 8-bit digits of the keys of the elements of
+     * <tt>array</tt>.
+     */
+    public static int digits( byte[] array ) {
+        return 1;
+    }
+
+    /** @see #digits(byte[]) */
+    public static int digits( short[] array ) {
+        return 2;
+    }
+
+    /** @see #digits(byte[]) */
+    public static int digits( char[] array ) {
+        return 2;
+    }
+
+    /** @see #digits(byte[]) */
+    public static int digits( int[] array ) {
+        return 4;
+    }
+
+    /** @see #digits(byte[]) */
+    public static int digits( float[] array ) {
+        return 4;
+    }
+
+    /** @see #digits(byte[]) */
+    public static int digits( long[] array ) {
+        return 8;
+    }
+
+    /** @see #digits(byte[]) */
+    public static int digits( double[] array ) {
+        return 8;
+    }
+
+
+    /**
+     * Returns a key for <tt>value</tt> whose digits, compared as unsigned
+     * numbers from the most significant down, order values as they sort.
+     */
+    public static long key( byte value ) {
+        return value + 0x80;
+    }
+
+    /** @see #key(byte) */
+    public static long key( short value ) {
+        return value + 0x8000;
+    }
+
+    /** @see #key(byte) */
+    public static long key( char value ) {
+        return value;
+    }
+
+    /** @see #key(byte) */
+    public static long key( int value ) {
+        return ( value ^ Integer.MIN_VALUE ) & 0xffffffffL;
+    }
+
+    /** @see #key(byte) */
+    public static long key( long value ) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    /** @see #key(byte) */
+    public static long key( float value ) {
+        // negative values have all bits flipped, others just the sign bit
+        int bits = Float.floatToIntBits( value );
+        return ( bits ^ ( ( bits >> 31 ) | Integer.MIN_VALUE ) ) & 0xffffffffL;
+    }
+
+    /** @see #key(byte) */
+    public static long key( double value ) {
+        long bits = Double.doubleToLongBits( value );
+        return bits ^ ( ( bits >> 63 ) | Long.MIN_VALUE );
+    }
+
+
+    /**
+     * Returns true if <tt>a</tt> sorts strictly before <tt>b</tt>. Narrower
+     * integral types widen to <tt>int</tt>.
+     */
+    public static boolean less( int a, int b ) {
+        return a < b;
+    }
+
+    /** @see #less(int, int) */
+    public static boolean less( long a, long b ) {
+        return a < b;
+    }
+
+    /** @see #less(int, int) */
+    public static boolean less( float a, float b ) {
+        return Float.compare( a, b ) < 0;
+    }
+
+    /** @see #less(int, int) */
+    public static boolean less( double a, double b ) {
+        return Double.compare( a, b ) < 0;
+    }
+} // SortKeys
@@ -0,0 +1,262 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.bitmap;
+
+import gnu.trove.procedure.TIntProcedure;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * A container holding up to {@link #ARRAY_MAX} values in a sorted <tt>char</tt>
+ * array.
+ */
+final class ArrayContainer extends RoaringContainer {
+
+    /** the values, sorted, in the first <tt>_cardinality</tt> elements */
+    private char[] _content;
+
+    /** the number of values */
+    private int _cardinality;
+
+
+    ArrayContainer() {
+        this( new char[ 4 ], 0 );
+    }
+
+
+    ArrayContainer( char[] content, int cardinality ) {
+        _content = content;
+        _cardinality = cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public int cardinality() {
+        return _cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean contains( int low ) {
+        return Arrays.binarySearch( _content, 0, _cardinality, ( char ) low ) >= 0;
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer add( int low ) {
+        int index = Arrays.binarySearch( _content, 0, _cardinality, ( char ) low );
+        if ( index >= 0 ) {
+            return this;
+        }
+        if ( _cardinality == ARRAY_MAX ) {
+            return new BitmapContainer( copyWords(), _cardinality ).add( low );
+        }
+
+        index = -index - 1;
+        if ( _cardinality == _content.length ) {
+            char[] content = new char[ Math.min( ARRAY_MAX, Math.max( 4, _cardinality * 2 ) ) ];
+            System.arraycopy( _content, 0, content, 0, index );
+            System.arraycopy( _content, index, content, index + 1, _cardinality - index );
+            _content = content;
+        } else {
+            System.arraycopy( _content, index, _content, index + 1, _cardinality - index );
+        }
+        _content[ index ] = ( char ) low;
+        _cardinality++;
+        return this;
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer remove( int low ) {
+        int index = Arrays.binarySearch( _content, 0, _cardinality, ( char ) low );
+        if ( index >= 0 ) {
+            System.arraycopy( _content, index + 1, _content, index, _cardinality - index - 1 );
+            _cardinality--;
+        }
+        return this;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean forEach( int high, TIntProcedure procedure ) {
+        char[] content = _content;
+        for ( int i = 0, size = _cardinality; i < size; i++ ) {
+            if ( ! procedure.execute( high | content[ i ] ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public int toArray( int high, int[] dest, int offset ) {
+        char[] content = _content;
+        for ( int i = 0, size = _cardinality; i < size; i++ ) {
+            dest[ offset + i ] = high | content[ i ];
+        }
+        return _cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public int last() {
+        return _content[ _cardinality - 1 ];
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer copy() {
+        char[] content = new char[ Math.max( 4, _cardinality ) ];
+        System.arraycopy( _content, 0, content, 0, _cardinality );
+        return new ArrayContainer( content, _cardinality );
+    }
+
+
+    /** {@inheritDoc} */
+    public int numberOfRuns() {
+        int runs = 0;
+        for ( int i = 0, previous = -2; i < _cardinality; i++ ) {
+            int value = _content[ i ];
+            if ( value != previous + 1 ) {
+                runs++;
+            }
+            previous = value;
+        }
+        return runs;
+    }
+
+
+    /** {@inheritDoc} */
+    public int type() {
+        return ARRAY;
+    }
+
+
+    /** {@inheritDoc} */
+    public int serializedSizeInBytes() {
+        return 2 * _cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public void serialize( ByteBuffer buffer, int offset ) {
+        for ( int i = 0; i < _cardinality; i++ ) {
+            buffer.putChar( offset + 2 * i, _content[ i ] );
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    void orInto( long[] words ) {
+        char[] content = _content;
+        for ( int i = _cardinality; i-- > 0; ) {
+            int value = content[ i ];
+            words[ value >>> 6 ] |= 1L << value;
+        }
+    }
+
+
+    /** Clears the bit of each value in <tt>words</tt>. */
+    void clearFrom( long[] words ) {
+        char[] content = _content;
+        for ( int i = _cardinality; i-- > 0; ) {
+            int value = content[ i ];
+            words[ value >>> 6 ] &= ~( 1L << value );
+        }
+    }
+
+
+    /**
+     * Returns the values that are in <tt>other</tt> if <tt>keep</tt> is true,
+     * or not in it if <tt>keep</tt> is false.
+     */
+    RoaringContainer filter( RoaringContainer other, boolean keep ) {
+        char[] content = new char[ _cardinality ];
+        int size = 0;
+        for ( int i = 0; i < _cardinality; i++ ) {
+            char value = _content[ i ];
+            if ( other.contains( value ) == keep ) {
+                content[ size++ ] = value;
+            }
+        }
+        return new ArrayContainer( content, size );
+    }
+
+
+    /** Returns the number of values that are also in <tt>other</tt>. */
+    int countIn( RoaringContainer other ) {
+        int count = 0;
+        for ( int i = _cardinality; i-- > 0; ) {
+            if ( other.contains( _content[ i ] ) ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /** Merges two sorted arrays, keeping the values in both. */
+    RoaringContainer intersect( ArrayContainer other ) {
+        char[] a = _content;
+        char[] b = other._content;
+        char[] content = new char[ Math.min( _cardinality, other._cardinality ) ];
+        int i = 0, j = 0, size = 0;
+        while ( i < _cardinality && j < other._cardinality ) {
+            if ( a[ i ] < b[ j ] ) {
+                i++;
+            } else if ( a[ i ] > b[ j ] ) {
+                j++;
+            } else {
+                content[ size++ ] = a[ i ];
+                i++;
+                j++;
+            }
+        }
+        return new ArrayContainer( content, size );
+    }
+
+
+    /** Merges two sorted arrays, keeping the values in either. */
+    RoaringContainer union( ArrayContainer other ) {
+        char[] a = _content;
+        char[] b = other._content;
+        char[] content = new char[ Math.max( 4, _cardinality + other._cardinality ) ];
+        int i = 0, j = 0, size = 0;
+        while ( i < _cardinality && j < other._cardinality ) {
+            if ( a[ i ] < b[ j ] ) {
+                content[ size++ ] = a[ i++ ];
+            } else if ( a[ i ] > b[ j ] ) {
+                content[ size++ ] = b[ j++ ];
+            } else {
+                content[ size++ ] = a[ i ];
+                i++;
+                j++;
+            }
+        }
+        while ( i < _cardinality ) {
+            content[ size++ ] = a[ i++ ];
+        }
+        while ( j < other._cardinality ) {
+            content[ size++ ] = b[ j++ ];
+        }
+        return new ArrayContainer( content, size );
+    }
+} // ArrayContainer
@@ -0,0 +1,180 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.bitmap;
+
+import gnu.trove.procedure.TIntProcedure;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A container holding more than {@link #ARRAY_MAX} values as a 65536-bit bitmap.
+ * It turns back into an array container when removals bring it down to
+ * {@link #ARRAY_MAX} values.
+ */
+final class BitmapContainer extends RoaringContainer {
+
+    /** one bit per possible value */
+    private final long[] _words;
+
+    /** the number of set bits */
+    private int _cardinality;
+
+
+    BitmapContainer( long[] words, int cardinality ) {
+        _words = words;
+        _cardinality = cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public int cardinality() {
+        return _cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean contains( int low ) {
+        return ( _words[ low >>> 6 ] & ( 1L << low ) ) != 0;
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer add( int low ) {
+        int index = low >>> 6;
+        long word = _words[ index ];
+        long bit = 1L << low;
+        if ( ( word & bit ) == 0 ) {
+            _words[ index ] = word | bit;
+            _cardinality++;
+        }
+        return this;
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer remove( int low ) {
+        int index = low >>> 6;
+        long word = _words[ index ];
+        long bit = 1L << low;
+        if ( ( word & bit ) != 0 ) {
+            _words[ index ] = word & ~bit;
+            if ( --_cardinality <= ARRAY_MAX ) {
+                return fromWords( _words );
+            }
+        }
+        return this;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean forEach( int high, TIntProcedure procedure ) {
+        long[] words = _words;
+        for ( int i = 0; i < WORDS; i++ ) {
+            for ( long word = words[ i ]; word != 0; word &= word - 1 ) {
+                if ( ! procedure.execute(
+                    high | ( i << 6 ) + Long.numberOfTrailingZeros( word ) ) ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public int toArray( int high, int[] dest, int offset ) {
+        long[] words = _words;
+        int j = offset;
+        for ( int i = 0; i < WORDS; i++ ) {
+            for ( long word = words[ i ]; word != 0; word &= word - 1 ) {
+                dest[ j++ ] = high | ( i << 6 ) + Long.numberOfTrailingZeros( word );
+            }
+        }
+        return j - offset;
+    }
+
+
+    /** {@inheritDoc} */
+    public int last() {
+        int i = WORDS - 1;
+        while ( _words[ i ] == 0 ) {
+            i--;
+        }
+        return ( i << 6 ) + 63 - Long.numberOfLeadingZeros( _words[ i ] );
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer copy() {
+        return new BitmapContainer( _words.clone(), _cardinality );
+    }
+
+
+    /** {@inheritDoc} */
+    public int numberOfRuns() {
+        // a run starts at each set bit whose lower neighbour is clear
+        int runs = 0;
+        long carry = 0;
+        for ( int i = 0; i < WORDS; i++ ) {
+            long word = _words[ i ];
+            runs += Long.bitCount( word & ~( ( word << 1 ) | carry ) );
+            carry = word >>> 63;
+        }
+        return runs;
+    }
+
+
+    /** {@inheritDoc} */
+    public int type() {
+        return BITMAP;
+    }
+
+
+    /** {@inheritDoc} */
+    public int serializedSizeInBytes() {
+        return 8 * WORDS;
+    }
+
+
+    /** {@inheritDoc} */
+    public void serialize( ByteBuffer buffer, int offset ) {
+        for ( int i = 0; i < WORDS; i++ ) {
+            buffer.putLong( offset + 8 * i, _words[ i ] );
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    void orInto( long[] words ) {
+        for ( int i = WORDS; i-- > 0; ) {
+            words[ i ] |= _words[ i ];
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    long[] words() {
+        return _words;
+    }
+
+
+    /** {@inheritDoc} */
+    long[] copyWords() {
+        return _words.clone();
+    }
+} // BitmapContainer
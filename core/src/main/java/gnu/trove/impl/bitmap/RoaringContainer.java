@@ -0,0 +1,372 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.bitmap;
+
+import gnu.trove.procedure.TIntProcedure;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * A set of 16-bit values, the low half of the values of a Roaring set that share
+ * the same high half.
+ * <p>
+ * There are three representations: a sorted <tt>char</tt> array for up to
+ * {@link #ARRAY_MAX} values, a 65536-bit bitmap above that, and a sorted list of
+ * runs for values that cluster into ranges. Mutating methods return the container
+ * that holds the result, which is this one unless the representation changed, so
+ * callers must always store the returned container. Run containers are only
+ * produced by {@link #runOptimize} and deserialization and are never modified in
+ * place.
+ * <p>
+ * The binary operations never modify their operands.
+ */
+public abstract class RoaringContainer {
+
+    /** the most values held in an array container */
+    public static final int ARRAY_MAX = 4096;
+
+    /** type of a sorted array container in the serialized form */
+    public static final int ARRAY = 0;
+
+    /** type of a bitmap container in the serialized form */
+    public static final int BITMAP = 1;
+
+    /** type of a run container in the serialized form */
+    public static final int RUN = 2;
+
+    /** the number of <tt>long</tt> words in a bitmap */
+    static final int WORDS = 1024;
+
+
+    RoaringContainer() {
+    }
+
+
+    /** Returns a new container holding only <tt>low</tt>. */
+    public static RoaringContainer singleton( int low ) {
+        return new ArrayContainer().add( low );
+    }
+
+
+    /** Returns the number of values in the container. */
+    public abstract int cardinality();
+
+
+    /** Returns whether <tt>low</tt> is in the container. */
+    public abstract boolean contains( int low );
+
+
+    /**
+     * Adds <tt>low</tt> to the container.
+     *
+     * @return the container now holding the values
+     */
+    public abstract RoaringContainer add( int low );
+
+
+    /**
+     * Removes <tt>low</tt> from the container.
+     *
+     * @return the container now holding the values
+     */
+    public abstract RoaringContainer remove( int low );
+
+
+    /**
+     * Passes <tt>high | low</tt> for each value in ascending order to
+     * <tt>procedure</tt>, stopping if it returns false.
+     *
+     * @return false if the procedure returned false
+     */
+    public abstract boolean forEach( int high, TIntProcedure procedure );
+
+
+    /**
+     * Writes <tt>high | low</tt> for each value in ascending order into
+     * <tt>dest</tt> starting at <tt>offset</tt>.
+     *
+     * @return the number of values written
+     */
+    public abstract int toArray( int high, int[] dest, int offset );
+
+
+    /** Returns the largest value in the container, which must not be empty. */
+    public abstract int last();
+
+
+    /** Returns an independent copy of the container. */
+    public abstract RoaringContainer copy();
+
+
+    /** Returns the number of runs of consecutive values in the container. */
+    public abstract int numberOfRuns();
+
+
+    /** Returns the serialized type of the container. */
+    public abstract int type();
+
+
+    /** Returns the number of bytes {@link #serialize} writes. */
+    public abstract int serializedSizeInBytes();
+
+
+    /** Writes the container at the absolute <tt>offset</tt> of <tt>buffer</tt>. */
+    public abstract void serialize( ByteBuffer buffer, int offset );
+
+
+    /** Sets the bit of each value in <tt>words</tt>. */
+    abstract void orInto( long[] words );
+
+
+    /**
+     * Returns a bitmap of the values. The result may be the container's own and
+     * must not be modified.
+     */
+    long[] words() {
+        return copyWords();
+    }
+
+
+    /** Returns a new bitmap of the values. */
+    long[] copyWords() {
+        long[] words = new long[ WORDS ];
+        orInto( words );
+        return words;
+    }
+
+
+    /**
+     * Returns the representation of the same values that serializes to the fewest
+     * bytes, which is a run container when the values are clustered.
+     */
+    public RoaringContainer runOptimize() {
+        int cardinality = cardinality();
+        int runs = numberOfRuns();
+        int runBytes = RunContainer.serializedSizeInBytes( runs );
+        int otherBytes = cardinality <= ARRAY_MAX ? 2 * cardinality : 8 * WORDS;
+        if ( runBytes < otherBytes ) {
+            return this instanceof RunContainer ? this : RunContainer.from( this, runs );
+        }
+        return this instanceof RunContainer ? ( ( RunContainer ) this ).toMutable() : this;
+    }
+
+
+    /** Returns a container holding the values in both this and <tt>other</tt>. */
+    public RoaringContainer and( RoaringContainer other ) {
+        if ( this instanceof ArrayContainer ) {
+            if ( other instanceof ArrayContainer ) {
+                return ( ( ArrayContainer ) this ).intersect( ( ArrayContainer ) other );
+            }
+            return ( ( ArrayContainer ) this ).filter( other, true );
+        }
+        if ( other instanceof ArrayContainer ) {
+            return ( ( ArrayContainer ) other ).filter( this, true );
+        }
+        long[] words = copyWords();
+        long[] that = other.words();
+        for ( int i = WORDS; i-- > 0; ) {
+            words[ i ] &= that[ i ];
+        }
+        return fromWords( words );
+    }
+
+
+    /** Returns a container holding the values in this or <tt>other</tt>. */
+    public RoaringContainer or( RoaringContainer other ) {
+        if ( this instanceof ArrayContainer && other instanceof ArrayContainer &&
+             cardinality() + other.cardinality() <= ARRAY_MAX ) {
+            return ( ( ArrayContainer ) this ).union( ( ArrayContainer ) other );
+        }
+        long[] words = copyWords();
+        other.orInto( words );
+        return fromWords( words );
+    }
+
+
+    /** Returns a container holding the values in this but not in <tt>other</tt>. */
+    public RoaringContainer andNot( RoaringContainer other ) {
+        if ( this instanceof ArrayContainer ) {
+            return ( ( ArrayContainer ) this ).filter( other, false );
+        }
+        long[] words = copyWords();
+        if ( other instanceof ArrayContainer ) {
+            ( ( ArrayContainer ) other ).clearFrom( words );
+        } else {
+            long[] that = other.words();
+            for ( int i = WORDS; i-- > 0; ) {
+                words[ i ] &= ~that[ i ];
+            }
+        }
+        return fromWords( words );
+    }
+
+
+    /** Returns the number of values in both this and <tt>other</tt>. */
+    public int andCardinality( RoaringContainer other ) {
+        if ( this instanceof ArrayContainer ) {
+            return ( ( ArrayContainer ) this ).countIn( other );
+        }
+        if ( other instanceof ArrayContainer ) {
+            return ( ( ArrayContainer ) other ).countIn( this );
+        }
+        long[] words = words();
+        long[] that = other.words();
+        int count = 0;
+        for ( int i = WORDS; i-- > 0; ) {
+            count += Long.bitCount( words[ i ] & that[ i ] );
+        }
+        return count;
+    }
+
+
+    /**
+     * Reads a container written by {@link #serialize}.
+     *
+     * @param buffer the buffer holding the container
+     * @param offset the absolute offset of the container in the buffer
+     * @param type the serialized type of the container
+     * @param cardinality the number of values in the container
+     */
+    public static RoaringContainer deserialize( ByteBuffer buffer, int offset,
+        int type, int cardinality ) {
+
+        switch ( type ) {
+            case ARRAY: {
+                char[] content = new char[ cardinality ];
+                for ( int i = 0; i < cardinality; i++ ) {
+                    content[ i ] = buffer.getChar( offset + 2 * i );
+                }
+                return new ArrayContainer( content, cardinality );
+            }
+            case BITMAP: {
+                long[] words = new long[ WORDS ];
+                for ( int i = 0; i < WORDS; i++ ) {
+                    words[ i ] = buffer.getLong( offset + 8 * i );
+                }
+                return new BitmapContainer( words, cardinality );
+            }
+            case RUN: {
+                int count = buffer.getChar( offset );
+                char[] runs = new char[ 2 * count ];
+                for ( int i = 0; i < runs.length; i++ ) {
+                    runs[ i ] = buffer.getChar( offset + 2 + 2 * i );
+                }
+                return new RunContainer( runs, count, cardinality );
+            }
+            default:
+                throw new IllegalArgumentException( "Unknown container type: " + type );
+        }
+    }
+
+
+    /**
+     * Returns whether <tt>low</tt> is in a serialized container, reading the
+     * buffer in place.
+     *
+     * @param buffer the buffer holding the container
+     * @param offset the absolute offset of the container in the buffer
+     * @param type the serialized type of the container
+     * @param cardinality the number of values in the container
+     * @param low the value to look for
+     */
+    public static boolean contains( ByteBuffer buffer, int offset, int type,
+        int cardinality, int low ) {
+
+        switch ( type ) {
+            case ARRAY: {
+                int lo = 0;
+                int hi = cardinality - 1;
+                while ( lo <= hi ) {
+                    int mid = ( lo + hi ) >>> 1;
+                    int value = buffer.getChar( offset + 2 * mid );
+                    if ( value < low ) {
+                        lo = mid + 1;
+                    } else if ( value > low ) {
+                        hi = mid - 1;
+                    } else {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case BITMAP:
+                return ( buffer.getLong( offset + 8 * ( low >>> 6 ) ) & ( 1L << low ) ) != 0;
+            case RUN: {
+                // the last run starting at or before low
+                int lo = 0;
+                int hi = buffer.getChar( offset ) - 1;
+                while ( lo <= hi ) {
+                    int mid = ( lo + hi ) >>> 1;
+                    if ( buffer.getChar( offset + 2 + 4 * mid ) <= low ) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+                if ( hi < 0 ) {
+                    return false;
+                }
+                int start = buffer.getChar( offset + 2 + 4 * hi );
+                return low - start <= buffer.getChar( offset + 4 + 4 * hi );
+            }
+            default:
+                throw new IllegalArgumentException( "Unknown container type: " + type );
+        }
+    }
+
+
+    /**
+     * Returns the container holding the values of a bitmap, which is an array
+     * container when there are few of them. The bitmap becomes owned by the result.
+     */
+    static RoaringContainer fromWords( long[] words ) {
+        int cardinality = 0;
+        for ( int i = WORDS; i-- > 0; ) {
+            cardinality += Long.bitCount( words[ i ] );
+        }
+        if ( cardinality > ARRAY_MAX ) {
+            return new BitmapContainer( words, cardinality );
+        }
+        char[] content = new char[ cardinality ];
+        int j = 0;
+        for ( int i = 0; i < WORDS; i++ ) {
+            for ( long word = words[ i ]; word != 0; word &= word - 1 ) {
+                content[ j++ ] = ( char ) ( ( i << 6 ) + Long.numberOfTrailingZeros( word ) );
+            }
+        }
+        return new ArrayContainer( content, cardinality );
+    }
+
+
+    /** Sets the bits from <tt>start</tt> to <tt>end</tt> inclusive. */
+    static void setRange( long[] words, int start, int end ) {
+        int first = start >>> 6;
+        int last = end >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> ( 63 - ( end & 63 ) );
+        if ( first == last ) {
+            words[ first ] |= firstMask & lastMask;
+            return;
+        }
+        words[ first ] |= firstMask;
+        for ( int i = first + 1; i < last; i++ ) {
+            words[ i ] = -1L;
+        }
+        words[ last ] |= lastMask;
+    }
+} // RoaringContainer
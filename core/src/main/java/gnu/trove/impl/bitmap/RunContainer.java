@@ -0,0 +1,207 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.bitmap;
+
+import gnu.trove.procedure.TIntProcedure;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * An immutable container holding its values as sorted runs of consecutive values.
+ * Adding or removing a value returns an array or bitmap container instead.
+ */
+final class RunContainer extends RoaringContainer {
+
+    /** the start and the length minus one of each run */
+    private final char[] _runs;
+
+    /** the number of runs */
+    private final int _count;
+
+    /** the number of values */
+    private final int _cardinality;
+
+
+    RunContainer( char[] runs, int count, int cardinality ) {
+        _runs = runs;
+        _count = count;
+        _cardinality = cardinality;
+    }
+
+
+    /** Returns a run container holding the values of <tt>container</tt>. */
+    static RunContainer from( RoaringContainer container, int runs ) {
+        int cardinality = container.cardinality();
+        int[] values = new int[ cardinality ];
+        container.toArray( 0, values, 0 );
+
+        char[] pairs = new char[ 2 * runs ];
+        int count = 0;
+        for ( int i = 0; i < cardinality; ) {
+            int start = values[ i ];
+            int end = start;
+            while ( ++i < cardinality && values[ i ] == end + 1 ) {
+                end++;
+            }
+            pairs[ 2 * count ] = ( char ) start;
+            pairs[ 2 * count + 1 ] = ( char ) ( end - start );
+            count++;
+        }
+        return new RunContainer( pairs, count, cardinality );
+    }
+
+
+    /** Returns the number of bytes a run container of <tt>runs</tt> runs takes. */
+    static int serializedSizeInBytes( int runs ) {
+        return 2 + 4 * runs;
+    }
+
+
+    /** Returns the same values in an array or bitmap container. */
+    RoaringContainer toMutable() {
+        if ( _cardinality > ARRAY_MAX ) {
+            return new BitmapContainer( copyWords(), _cardinality );
+        }
+        char[] content = new char[ Math.max( 4, _cardinality ) ];
+        int j = 0;
+        for ( int r = 0; r < _count; r++ ) {
+            int start = _runs[ 2 * r ];
+            for ( int value = start, end = start + _runs[ 2 * r + 1 ]; value <= end; value++ ) {
+                content[ j++ ] = ( char ) value;
+            }
+        }
+        return new ArrayContainer( content, _cardinality );
+    }
+
+
+    /** {@inheritDoc} */
+    public int cardinality() {
+        return _cardinality;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean contains( int low ) {
+        // the last run starting at or before low
+        int lo = 0;
+        int hi = _count - 1;
+        while ( lo <= hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            if ( _runs[ 2 * mid ] <= low ) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi >= 0 && low - _runs[ 2 * hi ] <= _runs[ 2 * hi + 1 ];
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer add( int low ) {
+        if ( contains( low ) ) {
+            return this;
+        }
+        return toMutable().add( low );
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer remove( int low ) {
+        if ( ! contains( low ) ) {
+            return this;
+        }
+        return toMutable().remove( low );
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean forEach( int high, TIntProcedure procedure ) {
+        for ( int r = 0; r < _count; r++ ) {
+            int start = _runs[ 2 * r ];
+            for ( int value = start, end = start + _runs[ 2 * r + 1 ]; value <= end; value++ ) {
+                if ( ! procedure.execute( high | value ) ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public int toArray( int high, int[] dest, int offset ) {
+        int j = offset;
+        for ( int r = 0; r < _count; r++ ) {
+            int start = _runs[ 2 * r ];
+            for ( int value = start, end = start + _runs[ 2 * r + 1 ]; value <= end; value++ ) {
+                dest[ j++ ] = high | value;
+            }
+        }
+        return j - offset;
+    }
+
+
+    /** {@inheritDoc} */
+    public int last() {
+        return _runs[ 2 * _count - 2 ] + _runs[ 2 * _count - 1 ];
+    }
+
+
+    /** {@inheritDoc} */
+    public RoaringContainer copy() {
+        // never modified, so it can be shared
+        return this;
+    }
+
+
+    /** {@inheritDoc} */
+    public int numberOfRuns() {
+        return _count;
+    }
+
+
+    /** {@inheritDoc} */
+    public int type() {
+        return RUN;
+    }
+
+
+    /** {@inheritDoc} */
+    public int serializedSizeInBytes() {
+        return serializedSizeInBytes( _count );
+    }
+
+
+    /** {@inheritDoc} */
+    public void serialize( ByteBuffer buffer, int offset ) {
+        buffer.putChar( offset, ( char ) _count );
+        for ( int i = 0; i < 2 * _count; i++ ) {
+            buffer.putChar( offset + 2 + 2 * i, _runs[ i ] );
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    void orInto( long[] words ) {
+        for ( int r = 0; r < _count; r++ ) {
+            int start = _runs[ 2 * r ];
+            setRange( words, start, start + _runs[ 2 * r + 1 ] );
+        }
+    }
+} // RunContainer
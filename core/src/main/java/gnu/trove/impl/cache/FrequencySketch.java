@@ -0,0 +1,135 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.cache;
+
+import java.util.Arrays;
+
+
+/**
+ * A count-min sketch of how often hash codes have been seen recently, using four
+ * 4-bit counters per hash code packed sixteen to a <tt>long</tt>.
+ * <p>
+ * Estimates never undercount, but saturate at 15. Once the number of increments
+ * reaches ten times the expected number of distinct items, every counter is
+ * halved, so old popularity fades and the sketch tracks the recent working set.
+ */
+public final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+        0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    /** clears the bit that a right shift moves into the next counter */
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] _table;
+    private final int _mask;
+    private final int _sampleSize;
+    private int _additions;
+
+
+    /**
+     * Creates a new sketch sized for about <tt>expectedItems</tt> distinct items.
+     *
+     * @param expectedItems the number of items the owner holds, usually a cache's
+     *                      maximum size
+     */
+    public FrequencySketch( int expectedItems ) {
+        int length = Math.max( 8, Math.min( expectedItems, 1 << 30 ) );
+        length = Integer.highestOneBit( length - 1 ) << 1;
+        _table = new long[ length ];
+        _mask = length - 1;
+        _sampleSize = ( int ) Math.min( 10L * Math.max( expectedItems, 1 ),
+            Integer.MAX_VALUE );
+    }
+
+
+    /**
+     * Returns the estimated number of recent occurrences of <tt>hash</tt>, from
+     * 0 to 15.
+     */
+    public int frequency( int hash ) {
+        int h = spread( hash );
+        int start = ( h & 3 ) << 2;
+        int frequency = 15;
+        for ( int i = 0; i < 4; i++ ) {
+            int offset = ( start + i ) << 2;
+            int count = ( int ) ( ( _table[ indexOf( h, i ) ] >>> offset ) & 0xfL );
+            frequency = Math.min( frequency, count );
+        }
+        return frequency;
+    }
+
+
+    /**
+     * Records an occurrence of <tt>hash</tt>, aging the whole sketch when the
+     * sample period ends.
+     */
+    public void increment( int hash ) {
+        int h = spread( hash );
+        int start = ( h & 3 ) << 2;
+        boolean added = false;
+        for ( int i = 0; i < 4; i++ ) {
+            added |= incrementAt( indexOf( h, i ), start + i );
+        }
+        if ( added && ++_additions == _sampleSize ) {
+            reset();
+        }
+    }
+
+
+    /** Forgets every occurrence. */
+    public void clear() {
+        Arrays.fill( _table, 0L );
+        _additions = 0;
+    }
+
+
+    /** Halves every counter. */
+    private void reset() {
+        for ( int i = 0; i < _table.length; i++ ) {
+            _table[ i ] = ( _table[ i ] >>> 1 ) & RESET_MASK;
+        }
+        _additions >>>= 1;
+    }
+
+
+    private boolean incrementAt( int index, int counter ) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ( ( _table[ index ] & mask ) != mask ) {
+            _table[ index ] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+
+    private int indexOf( int h, int i ) {
+        long hash = ( h + SEEDS[ i ] ) * SEEDS[ i ];
+        hash += hash >>> 32;
+        return ( int ) hash & _mask;
+    }
+
+
+    /** Mixes the bits of a weak hash code, such as that of a small int key. */
+    private static int spread( int x ) {
+        x = ( ( x >>> 16 ) ^ x ) * 0x45d9f3b;
+        x = ( ( x >>> 16 ) ^ x ) * 0x45d9f3b;
+        return ( x >>> 16 ) ^ x;
+    }
+} // FrequencySketch
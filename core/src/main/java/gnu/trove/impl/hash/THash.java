@@ -20,8 +20,12 @@
 
 package gnu.trove.impl.hash;
 
+import gnu.trove.TMemoryFootprint;
 import gnu.trove.impl.Constants;
+import gnu.trove.impl.MemoryEstimates;
 import gnu.trove.impl.PrimeFinder;
+import gnu.trove.impl.ResizeEvents;
+import gnu.trove.strategy.GrowthPolicy;
 
 import java.io.Externalizable;
 import java.io.ObjectOutput;
@@ -42,7 +46,7 @@ import java.io.ObjectInput;
  *
  * @version $Id: THash.java,v 1.1.2.4 2010/03/02 00:55:34 robeden Exp $
  */
-abstract public class THash implements Externalizable {
+abstract public class THash implements Externalizable, TMemoryFootprint {
     @SuppressWarnings( { "UnusedDeclaration" } )
     static final long serialVersionUID = -1792948471915530295L;
 
@@ -58,6 +62,12 @@ abstract public class THash implements Externalizable {
      */
     protected static final int DEFAULT_CAPACITY = Constants.DEFAULT_CAPACITY;
 
+    /** what {@link #probeLength(int)} returns for a free slot */
+    protected static final int SLOT_FREE = 0;
+
+    /** what {@link #probeLength(int)} returns for a slot holding a removed marker */
+    protected static final int SLOT_REMOVED = -1;
+
 
     /** the current number of occupied slots in the hash. */
     protected transient int _size;
@@ -94,6 +104,18 @@ abstract public class THash implements Externalizable {
     /** @see #tempDisableAutoCompaction */
     protected transient boolean _autoCompactTemporaryDisable = false;
 
+    /** @see #setGrowthPolicy */
+    protected transient GrowthPolicy _growthPolicy = GrowthPolicy.getDefault();
+
+    /** whether the growth policy may shrink the table after a removal */
+    private transient boolean _shrinks = _growthPolicy.shrinks();
+
+    /** true while {@link #rehash} puts back keys the table already held */
+    private transient boolean _rehashing;
+
+    /** the rehash counters, or null unless statistics are enabled */
+    transient THashStatistics.Counters _statistics;
+
 
     /**
      * Creates a new <code>THash</code> instance with the default
@@ -196,8 +218,9 @@ abstract public class THash implements Externalizable {
      */
     public void ensureCapacity( int desiredCapacity ) {
         if ( desiredCapacity > ( _maxSize - size() ) ) {
-            rehash( PrimeFinder.nextPrime(Math.max( _size + 1,
-               saturatedCast( fastCeil( ( desiredCapacity + _size ) / (double) _loadFactor) + 1 ) ) ) );
+            timedRehash( PrimeFinder.nextPrime(Math.max( _size + 1,
+               saturatedCast( fastCeil( ( desiredCapacity + _size ) / (double) _loadFactor) + 1 ) ) ),
+                ResizeEvents.RESERVE );
             if ( capacity() >= PrimeFinder.largestPrime ) {
                 _loadFactor = 1.0f;
             }
@@ -223,14 +246,31 @@ abstract public class THash implements Externalizable {
      * </ol>
      */
     public void compact() {
+        compact( false );
+    }
+
+
+    private void compact( boolean automatic ) {
+        ResizeEvents events = ResizeEvents.INSTANCE;
+        Object event = events == null ? null : events.beginCompact();
+        int oldCapacity = capacity();
+
         // need at least one free spot for open addressing
-        rehash( PrimeFinder.nextPrime( Math.max( _size + 1,
-	        saturatedCast( fastCeil( _size / (double) _loadFactor ) + 1 ) ) ) );
+        timedRehash( PrimeFinder.nextPrime( Math.max( _size + 1,
+	        saturatedCast( fastCeil( _size / (double) _loadFactor ) + 1 ) ) ),
+            ResizeEvents.COMPACTION );
         computeMaxSize( capacity() );
+        if ( _statistics != null ) {
+            _statistics.compactions++;
+        }
 
         // If auto-compaction is enabled, re-determine the compaction interval
         if ( _autoCompactionFactor != 0 ) {
-            computeNextAutoCompactionAmount( size() );
+            computeNextAutoCompactionAmount( _size );
+        }
+
+        if ( event != null ) {
+            events.endCompact( event, this, oldCapacity, capacity(), _size, automatic );
         }
     }
 
@@ -265,6 +305,143 @@ abstract public class THash implements Externalizable {
     }
 
 
+    /**
+     * Sets the policy that decides how far the table grows when it is full and
+     * whether it shrinks when it is cleared or sparse. Tables start with
+     * {@link GrowthPolicy#getDefault}.
+     *
+     * @param policy a <code>GrowthPolicy</code> value
+     */
+    public void setGrowthPolicy( GrowthPolicy policy ) {
+        if ( policy == null ) {
+            throw new IllegalArgumentException( "policy can not be null" );
+        }
+        _growthPolicy = policy;
+        _shrinks = policy.shrinks();
+    }
+
+
+    /**
+     * @see #setGrowthPolicy
+     *
+     * @return the <code>GrowthPolicy</code> of the table
+     */
+    public GrowthPolicy getGrowthPolicy() {
+        return _growthPolicy;
+    }
+
+
+    /**
+     * Enables or disables counting and timing the rehashes and compactions of
+     * the table for {@link #getStatistics}. Enabling resets the counters. The
+     * counters are only touched when the table rehashes, so a table with
+     * statistics disabled does no extra work on inserts, lookups or removals.
+     *
+     * @param enabled a <code>boolean</code> value
+     */
+    public void setStatisticsEnabled( boolean enabled ) {
+        _statistics = enabled ? new THashStatistics.Counters() : null;
+    }
+
+
+    /**
+     * @see #setStatisticsEnabled
+     *
+     * @return true if the table counts its rehashes
+     */
+    public boolean isStatisticsEnabled() {
+        return _statistics != null;
+    }
+
+
+    /**
+     * Scans every slot of the table and returns its statistics.
+     *
+     * @return a <code>THashStatistics</code> value
+     */
+    public THashStatistics getStatistics() {
+        return getStatistics( Integer.MAX_VALUE );
+    }
+
+
+    /**
+     * Scans about <tt>sampleSlots</tt> evenly spaced slots of the table, or
+     * all of them if it has fewer, and returns its statistics.
+     *
+     * @param sampleSlots the number of slots to scan
+     * @return a <code>THashStatistics</code> value
+     */
+    public THashStatistics getStatistics( int sampleSlots ) {
+        if ( sampleSlots <= 0 ) {
+            throw new IllegalArgumentException( "sampleSlots must be > 0: " + sampleSlots );
+        }
+        int capacity = capacity();
+        int stride = Math.max( 1, capacity / sampleSlots );
+        long[] histogram = new long[ THashStatistics.HISTOGRAM_BUCKETS ];
+        int scanned = 0;
+        int full = 0;
+        int removed = 0;
+        long totalProbes = 0;
+        int maxProbes = 0;
+        for ( int i = 0; i < capacity; i += stride ) {
+            scanned++;
+            int probes = probeLength( i );
+            if ( probes == SLOT_REMOVED ) {
+                removed++;
+            }
+            else if ( probes > 0 ) {
+                full++;
+                totalProbes += probes;
+                maxProbes = Math.max( maxProbes, probes );
+                histogram[ Math.min( probes, histogram.length ) - 1 ]++;
+            }
+        }
+        return new THashStatistics( capacity, _size, scanned, full, removed,
+            totalProbes, maxProbes, histogram, _statistics );
+    }
+
+
+    /**
+     * Returns the number of slots a lookup of the entry at <tt>index</tt>
+     * probes, {@link #SLOT_FREE} if the slot is free or {@link #SLOT_REMOVED}
+     * if it holds a removed marker. Subclasses that know the layout of their
+     * slots override this; this implementation reports every slot as free.
+     *
+     * @param index an <code>int</code> value
+     * @return an <code>int</code> value
+     */
+    protected int probeLength( int index ) {
+        return SLOT_FREE;
+    }
+
+
+    /**
+     * Returns the number of slots the double hashing of the tables probes to
+     * reach <tt>index</tt> from <tt>hash</tt>.
+     *
+     * @param hash the non-negative hash of an entry
+     * @param index the slot of the entry
+     * @param length the capacity of the table
+     * @return an <code>int</code> value
+     */
+    protected static int probeLength( int hash, int index, int length ) {
+        int slot = hash % length;
+        int probes = 1;
+        if ( slot != index ) {
+            // see Knuth, p. 529
+            int probe = 1 + ( hash % ( length - 2 ) );
+            do {
+                slot -= probe;
+                if ( slot < 0 ) {
+                    slot += length;
+                }
+                probes++;
+            } while ( slot != index && probes <= length );
+        }
+        return probes;
+    }
+
+
     /**
      * This simply calls {@link #compact compact}.  It is included for
      * symmetry with other collection classes.  Note that the name of this
@@ -295,7 +472,16 @@ abstract public class THash implements Externalizable {
             if ( !_autoCompactTemporaryDisable && _autoCompactRemovesRemaining <= 0 ) {
                 // Do the compact
                 // NOTE: this will cause the next compaction interval to be calculated
-                compact();
+                compact( true );
+            }
+        }
+
+        if ( _shrinks && !_autoCompactTemporaryDisable ) {
+            int capacity = capacity();
+            int shrunk = _growthPolicy.shrink( capacity, _size, requiredCapacity( _size ) );
+            if ( shrunk < capacity ) {
+                timedRehash( primeCapacity( shrunk ), ResizeEvents.SHRINK );
+                computeMaxSize( capacity() );
             }
         }
     }
@@ -304,6 +490,11 @@ abstract public class THash implements Externalizable {
     /** Empties the collection. */
     public void clear() {
         _size = 0;
+        int capacity = capacity();
+        int cleared = Math.max( requiredCapacity( DEFAULT_CAPACITY ), _growthPolicy.clear( capacity ) );
+        if ( cleared < capacity ) {
+            setUp( cleared );
+        }
         _free = capacity();
     }
 
@@ -337,6 +528,49 @@ abstract public class THash implements Externalizable {
     protected abstract void rehash( int newCapacity );
 
 
+    /**
+     * Rehashes, counting and timing it if statistics are enabled and reporting
+     * it to the {@link ResizeEvents} provider if there is one.
+     */
+    private void timedRehash( int newCapacity, int trigger ) {
+        ResizeEvents events = ResizeEvents.INSTANCE;
+        THashStatistics.Counters statistics = _statistics;
+        if ( events == null && statistics == null ) {
+            rehashKeys( newCapacity );
+            return;
+        }
+
+        Object event = events == null ? null : events.beginRehash();
+        int oldCapacity = capacity();
+        long start = statistics == null ? 0 : System.nanoTime();
+        rehashKeys( newCapacity );
+        if ( statistics != null ) {
+            statistics.rehashNanos += System.nanoTime() - start;
+            statistics.rehashes++;
+            if ( trigger == ResizeEvents.TOMBSTONES ) {
+                statistics.sameCapacityRehashes++;
+            }
+        }
+        if ( event != null ) {
+            events.endRehash( event, this, oldCapacity, capacity(), _size, trigger );
+        }
+    }
+
+
+    /**
+     * Rehashes, telling {@link #preInsertHook} that the keys going in are not new.
+     */
+    private void rehashKeys( int newCapacity ) {
+        _rehashing = true;
+        try {
+            rehash( newCapacity );
+        }
+        finally {
+            _rehashing = false;
+        }
+    }
+
+
     /**
      * Temporarily disables auto-compaction. MUST be followed by calling
      * {@link #reenableAutoCompaction}.
@@ -362,7 +596,7 @@ abstract public class THash implements Externalizable {
 
             // Do the compact
             // NOTE: this will cause the next compaction interval to be calculated
-            compact();
+            compact( true );
         }
     }
 
@@ -396,6 +630,18 @@ abstract public class THash implements Externalizable {
     }
 
 
+    /**
+     * Before a new key is stored, this hook is called to ask the growth policy
+     * for the capacity the insert will grow the table to, so that a policy
+     * refusing to grow fails while the table is still unchanged.
+     */
+    protected final void preInsertHook() {
+        if ( _size >= _maxSize && !_rehashing ) {
+            _growthPolicy.grow( capacity(), requiredCapacity( _size + 1 ), bytesPerSlot() );
+        }
+    }
+
+
     /**
      * After an insert, this hook is called to adjust the size/free
      * values of the set and to perform rehashing if necessary.
@@ -413,15 +659,93 @@ abstract public class THash implements Externalizable {
             // if we've grown beyond our maximum size, double capacity;
             // if we've exhausted the free spots, rehash to the same capacity,
             // which will free up any stale removed slots for reuse.
-            int newCapacity = _size > _maxSize ? PrimeFinder.nextPrime( capacity() << 1 ) : capacity();
-            rehash( newCapacity );
+            int newCapacity = _size > _maxSize ? primeCapacity( calculateGrownCapacity() ) : capacity();
+            timedRehash( newCapacity, _size > _maxSize ? ResizeEvents.GROWTH : ResizeEvents.TOMBSTONES );
             computeMaxSize( capacity() );
         }
     }
 
 
+    /**
+     * Returns the prime capacity a table takes for a capacity the growth policy
+     * chose. The policy keeps within {@link GrowthPolicy#MAX_ARRAY_SIZE}, so
+     * rounding up must not take the table past it; the largest prime below the
+     * limit is taken instead.
+     *
+     * @param capacity an <code>int</code> value
+     * @return an <code>int</code> value
+     */
+    static int primeCapacity( int capacity ) {
+        int prime = PrimeFinder.nextPrime( capacity );
+        return prime <= GrowthPolicy.MAX_ARRAY_SIZE ? prime : PrimeFinder.largestPrime;
+    }
+
+
+    /**
+     * Returns the capacity a full table grows to, as the growth policy decides.
+     *
+     * @return an <code>int</code> value
+     */
     protected int calculateGrownCapacity() {
-        return capacity() << 1;
+        return _growthPolicy.grow( capacity(), requiredCapacity( _size ), bytesPerSlot() );
+    }
+
+
+    /**
+     * Returns the least capacity that holds <tt>size</tt> elements at the
+     * load factor, with the free slot open addressing needs.
+     *
+     * @param size an <code>int</code> value
+     * @return an <code>int</code> value
+     */
+    protected int requiredCapacity( int size ) {
+        return Math.max( size + 1, saturatedCast( fastCeil( size / (double) _loadFactor ) + 1 ) );
+    }
+
+
+    /** {@inheritDoc} */
+    public long estimatedMemoryBytes() {
+        // the fields of THash and the array references of a subclass
+        return MemoryEstimates.object( 48 ) + tableBytes();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * For a hash table these are the bytes of the slots beyond those the
+     * current size needs at the load factor.
+     */
+    public long wastedBytes() {
+        int capacity = capacity();
+        if ( capacity == 0 ) {
+            return 0;
+        }
+        int excess = capacity - Math.min( capacity, requiredCapacity( _size ) );
+        return tableBytes() * excess / capacity;
+    }
+
+
+    /**
+     * Returns an estimate of the bytes the arrays of the table take. Subclasses
+     * add the arrays they hold to the result of <tt>super.tableBytes()</tt>.
+     *
+     * @return a <code>long</code> value
+     */
+    protected long tableBytes() {
+        return 0;
+    }
+
+
+    /**
+     * Returns an estimate of the bytes each slot of the table takes, which
+     * growth policies use to budget memory. This implementation assumes a
+     * single reference; subclasses that know better override it.
+     *
+     * @return an <code>int</code> value
+     */
+    protected int bytesPerSlot() {
+        return 4;
     }
 
 
@@ -0,0 +1,189 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.hash;
+
+
+/**
+ * A snapshot of the health of a hash table: how far lookups probe, how many
+ * slots hold <tt>REMOVED</tt> markers and how often the table was rehashed.
+ * <p>
+ * Probe lengths and slot counts come from a scan of the table, of all slots or
+ * of an evenly spaced sample, made when the snapshot is taken; the counts are
+ * of the slots scanned. The rehash counters and times are only kept while
+ * statistics are enabled on the table, and are zero otherwise.
+ *
+ * @see THash#setStatisticsEnabled
+ * @see THash#getStatistics
+ */
+public class THashStatistics {
+
+    /**
+     * The number of buckets of the probe length histogram. Bucket <tt>i</tt>
+     * counts entries found with <tt>i + 1</tt> probes, except the last, which
+     * counts all longer probes too.
+     */
+    public static final int HISTOGRAM_BUCKETS = 16;
+
+
+    /** The counters a table keeps while statistics are enabled. */
+    static final class Counters {
+        long rehashes;
+        long sameCapacityRehashes;
+        long compactions;
+        long rehashNanos;
+    }
+
+
+    private final int _capacity;
+    private final int _size;
+    private final int _scannedSlots;
+    private final int _fullSlots;
+    private final int _removedSlots;
+    private final long _totalProbes;
+    private final int _maxProbeLength;
+    private final long[] _histogram;
+    private final long _rehashes;
+    private final long _sameCapacityRehashes;
+    private final long _compactions;
+    private final long _rehashNanos;
+
+
+    THashStatistics( int capacity, int size, int scannedSlots, int fullSlots,
+        int removedSlots, long totalProbes, int maxProbeLength, long[] histogram,
+        Counters counters ) {
+        _capacity = capacity;
+        _size = size;
+        _scannedSlots = scannedSlots;
+        _fullSlots = fullSlots;
+        _removedSlots = removedSlots;
+        _totalProbes = totalProbes;
+        _maxProbeLength = maxProbeLength;
+        _histogram = histogram;
+        if ( counters == null ) {
+            counters = new Counters();
+        }
+        _rehashes = counters.rehashes;
+        _sameCapacityRehashes = counters.sameCapacityRehashes;
+        _compactions = counters.compactions;
+        _rehashNanos = counters.rehashNanos;
+    }
+
+
+    /** @return the capacity of the table */
+    public int getCapacity() {
+        return _capacity;
+    }
+
+
+    /** @return the number of entries in the table */
+    public int getSize() {
+        return _size;
+    }
+
+
+    /** @return the number of slots scanned */
+    public int getScannedSlots() {
+        return _scannedSlots;
+    }
+
+
+    /** @return the number of scanned slots holding an entry */
+    public int getFullSlots() {
+        return _fullSlots;
+    }
+
+
+    /** @return the number of scanned slots holding a <tt>REMOVED</tt> marker */
+    public int getRemovedSlots() {
+        return _removedSlots;
+    }
+
+
+    /**
+     * Returns the average number of slots a lookup of an entry in the scanned
+     * slots probes, 1 being a hit on the first slot, or 0 if there are none.
+     *
+     * @return a <code>double</code> value
+     */
+    public double getAverageProbeLength() {
+        return _fullSlots == 0 ? 0 : _totalProbes / ( double ) _fullSlots;
+    }
+
+
+    /** @return the most slots a lookup of an entry in the scanned slots probes */
+    public int getMaxProbeLength() {
+        return _maxProbeLength;
+    }
+
+
+    /**
+     * Returns the number of entries in the scanned slots by the number of
+     * slots their lookup probes.
+     *
+     * @return an array of {@link #HISTOGRAM_BUCKETS} counts
+     */
+    public long[] getProbeLengthHistogram() {
+        return _histogram.clone();
+    }
+
+
+    /** @return the number of rehashes, whatever their cause */
+    public long getRehashCount() {
+        return _rehashes;
+    }
+
+
+    /**
+     * Returns the number of rehashes to the same capacity, which an insert
+     * triggers when it uses the last free slot because <tt>REMOVED</tt>
+     * markers fill the rest.
+     *
+     * @return a <code>long</code> value
+     */
+    public long getSameCapacityRehashCount() {
+        return _sameCapacityRehashes;
+    }
+
+
+    /** @return the number of compactions, explicit or automatic */
+    public long getCompactionCount() {
+        return _compactions;
+    }
+
+
+    /** @return the nanoseconds spent rehashing */
+    public long getRehashNanos() {
+        return _rehashNanos;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        buf.append( "size=" ).append( _size )
+            .append( ", capacity=" ).append( _capacity )
+            .append( ", scanned=" ).append( _scannedSlots )
+            .append( ", removed=" ).append( _removedSlots )
+            .append( ", avgProbe=" ).append( getAverageProbeLength() )
+            .append( ", maxProbe=" ).append( _maxProbeLength )
+            .append( ", rehashes=" ).append( _rehashes )
+            .append( ", sameCapacityRehashes=" ).append( _sameCapacityRehashes )
+            .append( ", compactions=" ).append( _compactions )
+            .append( ", rehashNanos=" ).append( _rehashNanos );
+        return buf.toString();
+    }
+} // THashStatistics
@@ -20,6 +20,7 @@
 
 package gnu.trove.impl.hash;
 
+import gnu.trove.impl.MemoryEstimates;
 import gnu.trove.procedure.TObjectProcedure;
 
 import java.io.IOException;
@@ -121,6 +122,13 @@ abstract public class TObjectHash<T> extends THash {
     }
 
 
+    /** {@inheritDoc} */
+    @Override
+    protected long tableBytes() {
+        return super.tableBytes() + MemoryEstimates.array(_set.length, MemoryEstimates.REFERENCE);
+    }
+
+
     /**
      * Executes <tt>procedure</tt> for each element in the set.
      *
@@ -154,6 +162,24 @@ abstract public class TObjectHash<T> extends THash {
     }
 
 
+    /** {@inheritDoc} */
+    @Override
+    protected int probeLength(int index) {
+        Object o = _set[index];
+        if (o == FREE) {
+            return SLOT_FREE;
+        }
+        if (o == REMOVED) {
+            return SLOT_REMOVED;
+        }
+        if (o == null) {
+            // null is found by a scan from the first slot
+            return index + 1;
+        }
+        return probeLength(hash(o) & 0x7fffffff, index, _set.length);
+    }
+
+
     /**
      * Locates the index of <tt>obj</tt>.
      *
@@ -283,6 +309,7 @@ abstract public class TObjectHash<T> extends THash {
 
         if (cur == FREE) {
             consumeFreeSlot = true;
+            preInsertHook();
             _set[index] = key;  // insert value
             return index;       // empty, all done
         }
@@ -330,10 +357,12 @@ abstract public class TObjectHash<T> extends THash {
             // A FREE slot stops the search
             if (cur == FREE) {
                 if (firstRemoved != -1) {
+                    preInsertHook();
                     _set[firstRemoved] = key;
                     return firstRemoved;
                 } else {
                     consumeFreeSlot = true;
+                    preInsertHook();
                     _set[index] = key;  // insert value
                     return index;
                 }
@@ -349,6 +378,7 @@ abstract public class TObjectHash<T> extends THash {
         // We inspected all reachable slots and did not find a FREE one
         // If we found a REMOVED slot we return the first one found
         if (firstRemoved != -1) {
+            preInsertHook();
             _set[firstRemoved] = key;
             return firstRemoved;
         }
@@ -378,10 +408,12 @@ abstract public class TObjectHash<T> extends THash {
 
             if (o == FREE) {
                 if (firstRemoved != -1) {
+                    preInsertHook();
                     _set[firstRemoved] = null;
                     return firstRemoved;
                 } else {
                     consumeFreeSlot = true;
+                    preInsertHook();
                     _set[index] = null;  // insert value
                     return index;
                 }
@@ -397,6 +429,7 @@ abstract public class TObjectHash<T> extends THash {
         // We inspected all reachable slots and did not find a FREE one
         // If we found a REMOVED slot we return the first one found
         if (firstRemoved != -1) {
+            preInsertHook();
             _set[firstRemoved] = null;
             return firstRemoved;
         }
@@ -21,6 +21,7 @@
 package gnu.trove.impl.hash;
 
 import gnu.trove.impl.HashFunctions;
+import gnu.trove.impl.MemoryEstimates;
 
 
 
@@ -131,4 +132,11 @@ abstract public class TPrimitiveHash extends THash {
         _states = new byte[capacity];
         return capacity;
     }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected long tableBytes() {
+        return super.tableBytes() + MemoryEstimates.array( _states.length, 1 );
+    }
 } // TPrimitiveHash
\ No newline at end of file
@@ -0,0 +1,272 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.hash;
+
+import gnu.trove.impl.MemoryEstimates;
+import gnu.trove.procedure.TIntProcedure;
+
+import java.util.Arrays;
+
+
+/**
+ * A hierarchical timer wheel that tracks the expiry time of each slot of a hash
+ * table, so that expired slots can be found without scanning the table.
+ * <p>
+ * Times are in milliseconds. Level 0 has 64 buckets of 64ms, each following level
+ * has 64 buckets each as wide as the whole level below, and a final bucket holds
+ * anything more than about twelve days away. A slot is filed in the finest level
+ * whose range covers its delay. When time moves into a coarse bucket, its slots
+ * are refiled into finer levels; when time leaves a level 0 bucket, its slots
+ * have expired. Advancing therefore costs time proportional to the number of
+ * slots that are refiled or expire, plus at most 64 buckets per level.
+ * <p>
+ * Each slot has an expiry time and is threaded through its bucket with parallel
+ * <tt>int</tt> arrays. The wheel is sized to the table and is rebuilt when the
+ * table is rehashed.
+ */
+public class TimerWheel {
+
+    /** the expiry of a slot that never expires */
+    public static final long NEVER = Long.MAX_VALUE;
+
+    /** log2 of the bucket width of each level, in milliseconds */
+    private static final int[] SHIFTS = { 6, 12, 18, 24, 30 };
+
+    /** the number of buckets of each level */
+    private static final int[] BUCKETS = { 64, 64, 64, 64, 1 };
+
+    /** the index in <tt>_heads</tt> of the first bucket of each level */
+    private static final int[] OFFSETS = { 0, 64, 128, 192, 256 };
+
+    private static final int LEVELS = SHIFTS.length;
+
+    /** the expiry time of each slot, or {@link #NEVER} */
+    private final long[] _expiries;
+
+    /** the slot that follows each slot in its bucket, or -1 */
+    private final int[] _next;
+
+    /** the slot that precedes each slot in its bucket, or -1 */
+    private final int[] _prev;
+
+    /** the bucket that holds each slot, or -1 if it is not scheduled */
+    private final int[] _buckets;
+
+    /** the first slot of each bucket, or -1 */
+    private final int[] _heads;
+
+    /** the time the wheel was last advanced to */
+    private long _time;
+
+
+    /**
+     * Creates a new wheel for a table of <tt>capacity</tt> slots, with the clock
+     * at <tt>now</tt>.
+     */
+    public TimerWheel( int capacity, long now ) {
+        _expiries = new long[ capacity ];
+        _next = new int[ capacity ];
+        _prev = new int[ capacity ];
+        _buckets = new int[ capacity ];
+        _heads = new int[ OFFSETS[ LEVELS - 1 ] + BUCKETS[ LEVELS - 1 ] ];
+        Arrays.fill( _expiries, NEVER );
+        Arrays.fill( _buckets, -1 );
+        Arrays.fill( _heads, -1 );
+        _time = now;
+    }
+
+
+    /**
+     * Returns an estimate of the bytes the wheel takes, as
+     * {@link gnu.trove.TMemoryFootprint} counts them.
+     */
+    public long estimatedMemoryBytes() {
+        return MemoryEstimates.object( 5 * MemoryEstimates.REFERENCE + 8 )
+            + MemoryEstimates.array( _expiries.length, 8 )
+            + 3 * MemoryEstimates.array( _next.length, 4 )
+            + MemoryEstimates.array( _heads.length, 4 );
+    }
+
+
+    /** Returns the time the wheel was last advanced to. */
+    public long getTime() {
+        return _time;
+    }
+
+
+    /** Returns the expiry time of <tt>slot</tt>, or {@link #NEVER}. */
+    public long getExpiry( int slot ) {
+        return _expiries[ slot ];
+    }
+
+
+    /**
+     * Sets the expiry time of <tt>slot</tt>, replacing any earlier one.
+     *
+     * @param slot the table slot
+     * @param expiry the time at which the slot expires, or {@link #NEVER}
+     */
+    public void schedule( int slot, long expiry ) {
+        if ( _buckets[ slot ] != -1 ) {
+            unlink( slot );
+        }
+        _expiries[ slot ] = expiry;
+        if ( expiry != NEVER ) {
+            link( slot, bucketFor( expiry ) );
+        }
+    }
+
+
+    /** Forgets the expiry time of <tt>slot</tt>. */
+    public void cancel( int slot ) {
+        if ( _buckets[ slot ] != -1 ) {
+            unlink( slot );
+        }
+        _expiries[ slot ] = NEVER;
+    }
+
+
+    /** Forgets every expiry time. */
+    public void clear() {
+        Arrays.fill( _expiries, NEVER );
+        Arrays.fill( _buckets, -1 );
+        Arrays.fill( _heads, -1 );
+    }
+
+
+    /**
+     * Moves the clock forward to <tt>now</tt>, passing each slot whose bucket
+     * has been left behind and whose expiry is at or before <tt>now</tt> to
+     * <tt>expired</tt>. The slot is no longer scheduled when the procedure is
+     * called. The procedure must not rehash the table.
+     * <p>
+     * Slots expiring within the current 64ms are not reported until the clock
+     * moves past them; use {@link #expireCurrent} as well for an exact result.
+     *
+     * @param now the current time, in milliseconds
+     * @param expired told the slot of each expired entry
+     */
+    public void advance( long now, TIntProcedure expired ) {
+        long previous = _time;
+        if ( now <= previous ) {
+            return;
+        }
+        _time = now;
+
+        for ( int level = 0; level < LEVELS; level++ ) {
+            long previousTicks = previous >> SHIFTS[ level ];
+            long currentTicks = now >> SHIFTS[ level ];
+            long delta = currentTicks - previousTicks;
+            if ( delta <= 0 ) {
+                break;
+            }
+
+            // Level 0 buckets are emptied as time leaves them, coarser buckets
+            // as time enters them so their slots move down a level in time.
+            long first = level == 0 ? previousTicks : previousTicks + 1;
+            int count = ( int ) Math.min( delta, BUCKETS[ level ] );
+            for ( int i = 0; i < count; i++ ) {
+                int bucket = OFFSETS[ level ] +
+                    ( int ) ( ( first + i ) & ( BUCKETS[ level ] - 1 ) );
+                process( bucket, now, expired );
+            }
+        }
+    }
+
+
+    /**
+     * Passes each slot in the current level 0 bucket whose expiry is at or before
+     * <tt>now</tt> to <tt>expired</tt>. Called after {@link #advance} this
+     * reports every remaining expired slot.
+     */
+    public void expireCurrent( long now, TIntProcedure expired ) {
+        int bucket = ( int ) ( ( now >> SHIFTS[ 0 ] ) & ( BUCKETS[ 0 ] - 1 ) );
+        for ( int slot = _heads[ bucket ]; slot != -1; ) {
+            int next = _next[ slot ];
+            if ( _expiries[ slot ] <= now ) {
+                unlink( slot );
+                _expiries[ slot ] = NEVER;
+                expired.execute( slot );
+            }
+            slot = next;
+        }
+    }
+
+
+    /** Detaches a bucket, then expires or refiles each of its slots. */
+    private void process( int bucket, long now, TIntProcedure expired ) {
+        int slot = _heads[ bucket ];
+        _heads[ bucket ] = -1;
+        while ( slot != -1 ) {
+            int next = _next[ slot ];
+            _buckets[ slot ] = -1;
+            long expiry = _expiries[ slot ];
+            if ( expiry <= now ) {
+                _expiries[ slot ] = NEVER;
+                expired.execute( slot );
+            } else {
+                link( slot, bucketFor( expiry ) );
+            }
+            slot = next;
+        }
+    }
+
+
+    /**
+     * Returns the bucket of the finest level whose range covers the delay. A time
+     * already past is filed under the current time, to be reported as soon as
+     * the clock moves on.
+     */
+    private int bucketFor( long expiry ) {
+        long at = Math.max( expiry, _time );
+        long delay = at - _time;
+        for ( int level = 0; level < LEVELS - 1; level++ ) {
+            if ( delay < ( 1L << SHIFTS[ level + 1 ] ) ) {
+                return OFFSETS[ level ] +
+                    ( int ) ( ( at >> SHIFTS[ level ] ) & ( BUCKETS[ level ] - 1 ) );
+            }
+        }
+        return OFFSETS[ LEVELS - 1 ];
+    }
+
+
+    private void link( int slot, int bucket ) {
+        int head = _heads[ bucket ];
+        _buckets[ slot ] = bucket;
+        _prev[ slot ] = -1;
+        _next[ slot ] = head;
+        if ( head != -1 ) {
+            _prev[ head ] = slot;
+        }
+        _heads[ bucket ] = slot;
+    }
+
+
+    private void unlink( int slot ) {
+        int prev = _prev[ slot ];
+        int next = _next[ slot ];
+        if ( prev == -1 ) {
+            _heads[ _buckets[ slot ] ] = next;
+        } else {
+            _next[ prev ] = next;
+        }
+        if ( next != -1 ) {
+            _prev[ next ] = prev;
+        }
+        _buckets[ slot ] = -1;
+    }
+} // TimerWheel
@@ -0,0 +1,127 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.queue;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+
+/**
+ * Padding placed before the value of a {@link Sequence}. Superclass fields are
+ * laid out first, so this keeps the value off the cache line of whatever object
+ * precedes it on the heap.
+ */
+@SuppressWarnings( { "UnusedDeclaration" } )
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+
+/** The value of a {@link Sequence}, plus the owner's cached copy of its peer. */
+abstract class SequenceValue extends SequenceLhsPadding {
+    static final AtomicLongFieldUpdater<SequenceValue> VALUE_UPDATER =
+        AtomicLongFieldUpdater.newUpdater( SequenceValue.class, "value" );
+
+    /** the published position */
+    protected volatile long value;
+
+    /**
+     * The owning thread's last observed position of the opposite side of the queue.
+     * Only ever touched by the thread that writes <tt>value</tt>.
+     */
+    protected long cache;
+}
+
+
+/**
+ * A monotonically increasing position in a ring buffer, padded on both sides so
+ * that a producer position and a consumer position never share a cache line.
+ * <p>
+ * Writes by the single owner of a position should use {@link #lazySet}, which is an
+ * ordered (release) store: it is not reordered with the preceding writes to the
+ * buffer, but does not stall the writer the way a full volatile write does.
+ *
+ * @see java.util.concurrent.atomic.AtomicLong
+ */
+@SuppressWarnings( { "UnusedDeclaration" } )
+public final class Sequence extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+
+
+    /**
+     * Creates a new <code>Sequence</code> at position zero.
+     */
+    public Sequence() {
+        this( 0 );
+    }
+
+
+    /**
+     * Creates a new <code>Sequence</code> at the given position.
+     *
+     * @param initial a <code>long</code> value
+     */
+    public Sequence( long initial ) {
+        VALUE_UPDATER.lazySet( this, initial );
+    }
+
+
+    /** Returns the current position with volatile (acquire) semantics. */
+    public long get() {
+        return value;
+    }
+
+
+    /** Sets the position with volatile semantics. */
+    public void set( long position ) {
+        value = position;
+    }
+
+
+    /** Sets the position with ordered (release) semantics. */
+    public void lazySet( long position ) {
+        VALUE_UPDATER.lazySet( this, position );
+    }
+
+
+    /**
+     * Atomically sets the position to <tt>update</tt> if it currently equals
+     * <tt>expect</tt>.
+     *
+     * @return true if successful
+     */
+    public boolean compareAndSet( long expect, long update ) {
+        return VALUE_UPDATER.compareAndSet( this, expect, update );
+    }
+
+
+    /** Returns the owner's cached copy of the opposite position. */
+    public long getCache() {
+        return cache;
+    }
+
+
+    /** Updates the owner's cached copy of the opposite position. */
+    public void setCache( long position ) {
+        cache = position;
+    }
+
+
+    @Override
+    public String toString() {
+        return Long.toString( value );
+    }
+} // Sequence
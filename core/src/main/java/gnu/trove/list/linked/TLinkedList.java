@@ -21,6 +21,8 @@
 
 package gnu.trove.list.linked;
 
+import gnu.trove.TMemoryFootprint;
+import gnu.trove.impl.MemoryEstimates;
 import gnu.trove.list.TLinkable;
 import gnu.trove.procedure.TObjectProcedure;
 
@@ -64,7 +66,7 @@ import java.lang.reflect.Array;
 
 
 public class TLinkedList<T extends TLinkable<T>> extends AbstractSequentialList<T>
-        implements Externalizable {
+        implements TMemoryFootprint, Externalizable {
 
     static final long serialVersionUID = 1L;
 
@@ -110,6 +112,22 @@ public class TLinkedList<T extends TLinkable<T>> extends AbstractSequentialList<
     }
 
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements carry the links of the list, so this is just the list itself.
+     */
+    public long estimatedMemoryBytes() {
+        return MemoryEstimates.object( 4 + 2 * MemoryEstimates.REFERENCE );
+    }
+
+
+    /** {@inheritDoc} */
+    public long wastedBytes() {
+        return 0;
+    }
+
+
     /**
      * Inserts <tt>linkable</tt> at index <tt>index</tt> in the list.
      * All values &gt; index are shifted over one position to accommodate
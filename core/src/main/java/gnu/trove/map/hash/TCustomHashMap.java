@@ -20,6 +20,7 @@ package gnu.trove.map.hash;
 
 import gnu.trove.function.TObjectFunction;
 import gnu.trove.impl.HashFunctions;
+import gnu.trove.impl.MemoryEstimates;
 import gnu.trove.impl.hash.TCustomObjectHash;
 import gnu.trove.iterator.hash.TObjectHashIterator;
 import gnu.trove.map.TMap;
@@ -135,6 +136,13 @@ public class TCustomHashMap<K, V> extends TCustomObjectHash<K>
     }
 
 
+    /** {@inheritDoc} */
+    @Override
+    protected long tableBytes() {
+        return super.tableBytes() + MemoryEstimates.array( _values.length, MemoryEstimates.REFERENCE );
+    }
+
+
     /**
      * Inserts a key/value pair into the map.
      *
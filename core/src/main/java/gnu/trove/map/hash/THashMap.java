@@ -22,6 +22,7 @@ package gnu.trove.map.hash;
 
 import gnu.trove.function.TObjectFunction;
 import gnu.trove.impl.HashFunctions;
+import gnu.trove.impl.MemoryEstimates;
 import gnu.trove.impl.hash.TObjectHash;
 import gnu.trove.iterator.hash.TObjectHashIterator;
 import gnu.trove.map.TMap;
@@ -132,6 +133,20 @@ public class THashMap<K, V> extends TObjectHash<K> implements TMap<K, V>, Extern
     }
 
 
+    /** {@inheritDoc} */
+    @Override
+    protected long tableBytes() {
+        return super.tableBytes() + MemoryEstimates.array(_values.length, MemoryEstimates.REFERENCE);
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    protected int bytesPerSlot() {
+        return 8;
+    }
+
+
     /**
      * Inserts a key/value pair into the map.
      *
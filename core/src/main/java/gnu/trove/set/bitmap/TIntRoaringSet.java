@@ -0,0 +1,863 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.set.bitmap;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.impl.Constants;
+import gnu.trove.impl.HashFunctions;
+import gnu.trove.impl.bitmap.RoaringContainer;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.TIntSet;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A compressed set of <code>int</code> primitives using the Roaring layout.
+ * <p>
+ * Values are grouped by their high 16 bits. Each group keeps its low 16 bits in a
+ * container: a sorted array while the group holds at most 4096 values, a
+ * 65536-bit bitmap above that, or a list of runs after {@link #runOptimize}. A
+ * dense set therefore costs little more than one bit per possible value and a
+ * sparse one two bytes per value, against about ten bytes per value in a
+ * <tt>TIntHashSet</tt>.
+ * <p>
+ * {@link #and}, {@link #or} and {@link #andNot} combine whole containers at a
+ * time, and the other bulk operations use them when given another
+ * <tt>TIntRoaringSet</tt>. Iteration is in ascending order.
+ * <p>
+ * {@link #serialize} writes a form with a fixed-size header per container, which
+ * {@link #contains(ByteBuffer, int)} can query in place, for example in a
+ * memory-mapped file.
+ */
+public class TIntRoaringSet implements TIntSet, Externalizable {
+    static final long serialVersionUID = 1L;
+
+    /** the size of the header of each container in the serialized form */
+    private static final int HEADER_BYTES = 12;
+
+    /** the high 16 bits of each container, flipped so that keys sort as ints do */
+    private char[] _keys;
+
+    /** the containers, in the order of their keys */
+    private RoaringContainer[] _containers;
+
+    /** the number of containers */
+    private int _count;
+
+    /** the number of values */
+    private long _size;
+
+
+    /**
+     * Creates a new, empty <code>TIntRoaringSet</code>.
+     */
+    public TIntRoaringSet() {
+        _keys = new char[ 4 ];
+        _containers = new RoaringContainer[ 4 ];
+    }
+
+
+    /**
+     * Creates a new <code>TIntRoaringSet</code> containing the elements of
+     * <tt>array</tt>.
+     *
+     * @param array an array of <code>int</code> primitives
+     */
+    public TIntRoaringSet( int[] array ) {
+        this();
+        addAll( array );
+    }
+
+
+    /**
+     * Creates a new <code>TIntRoaringSet</code> that is a copy of the existing
+     * collection.
+     *
+     * @param collection a <tt>TIntCollection</tt> that will be duplicated.
+     */
+    public TIntRoaringSet( TIntCollection collection ) {
+        this();
+        addAll( collection );
+    }
+
+
+    /**
+     * Creates a new <code>TIntRoaringSet</code> that is a copy of the existing
+     * Collection.
+     *
+     * @param collection a <tt>Collection</tt> that will be duplicated.
+     */
+    public TIntRoaringSet( Collection<? extends Integer> collection ) {
+        this();
+        addAll( collection );
+    }
+
+
+    private static char keyOf( int value ) {
+        return ( char ) ( ( value >>> 16 ) ^ 0x8000 );
+    }
+
+
+    private static int highOf( char key ) {
+        return ( key ^ 0x8000 ) << 16;
+    }
+
+
+    private int indexOf( char key ) {
+        return Arrays.binarySearch( _keys, 0, _count, key );
+    }
+
+
+    /** {@inheritDoc} */
+    public int getNoEntryValue() {
+        return Constants.DEFAULT_INT_NO_ENTRY_VALUE;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A set holding more than <tt>Integer.MAX_VALUE</tt> values returns
+     * <tt>Integer.MAX_VALUE</tt>; see {@link #cardinality}.
+     */
+    public int size() {
+        return ( int ) Math.min( _size, Integer.MAX_VALUE );
+    }
+
+
+    /**
+     * Returns the number of values in the set, which may be up to 2<sup>32</sup>.
+     *
+     * @return the number of values in the set
+     */
+    public long cardinality() {
+        return _size;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean contains( int entry ) {
+        int index = indexOf( keyOf( entry ) );
+        return index >= 0 && _containers[ index ].contains( entry & 0xFFFF );
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean add( int entry ) {
+        char key = keyOf( entry );
+        int index = indexOf( key );
+        if ( index >= 0 ) {
+            RoaringContainer container = _containers[ index ];
+            int before = container.cardinality();
+            container = container.add( entry & 0xFFFF );
+            _containers[ index ] = container;
+            if ( container.cardinality() == before ) {
+                return false;
+            }
+        } else {
+            insertContainer( -index - 1, key, RoaringContainer.singleton( entry & 0xFFFF ) );
+        }
+        _size++;
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean remove( int entry ) {
+        int index = indexOf( keyOf( entry ) );
+        if ( index < 0 ) {
+            return false;
+        }
+        RoaringContainer container = _containers[ index ];
+        int before = container.cardinality();
+        container = container.remove( entry & 0xFFFF );
+        if ( container.cardinality() == before ) {
+            return false;
+        }
+        if ( container.cardinality() == 0 ) {
+            removeContainer( index );
+        } else {
+            _containers[ index ] = container;
+        }
+        _size--;
+        return true;
+    }
+
+
+    private void insertContainer( int index, char key, RoaringContainer container ) {
+        if ( _count == _keys.length ) {
+            int capacity = Math.max( 4, _count * 2 );
+            char[] keys = new char[ capacity ];
+            RoaringContainer[] containers = new RoaringContainer[ capacity ];
+            System.arraycopy( _keys, 0, keys, 0, _count );
+            System.arraycopy( _containers, 0, containers, 0, _count );
+            _keys = keys;
+            _containers = containers;
+        }
+        System.arraycopy( _keys, index, _keys, index + 1, _count - index );
+        System.arraycopy( _containers, index, _containers, index + 1, _count - index );
+        _keys[ index ] = key;
+        _containers[ index ] = container;
+        _count++;
+    }
+
+
+    private void removeContainer( int index ) {
+        System.arraycopy( _keys, index + 1, _keys, index, _count - index - 1 );
+        System.arraycopy( _containers, index + 1, _containers, index, _count - index - 1 );
+        _containers[ --_count ] = null;
+    }
+
+
+    /**
+     * Keeps only the values that are also in <tt>other</tt>.
+     *
+     * @param other the set to intersect with
+     */
+    public void and( TIntRoaringSet other ) {
+        if ( other == this ) {
+            return;
+        }
+        char[] keys = new char[ Math.max( 4, Math.min( _count, other._count ) ) ];
+        RoaringContainer[] containers = new RoaringContainer[ keys.length ];
+        int count = 0;
+        long size = 0;
+        for ( int i = 0, j = 0; i < _count && j < other._count; ) {
+            if ( _keys[ i ] < other._keys[ j ] ) {
+                i++;
+            } else if ( _keys[ i ] > other._keys[ j ] ) {
+                j++;
+            } else {
+                RoaringContainer container = _containers[ i ].and( other._containers[ j ] );
+                if ( container.cardinality() > 0 ) {
+                    keys[ count ] = _keys[ i ];
+                    containers[ count++ ] = container;
+                    size += container.cardinality();
+                }
+                i++;
+                j++;
+            }
+        }
+        _keys = keys;
+        _containers = containers;
+        _count = count;
+        _size = size;
+    }
+
+
+    /**
+     * Adds every value in <tt>other</tt>.
+     *
+     * @param other the set to unite with
+     */
+    public void or( TIntRoaringSet other ) {
+        if ( other == this ) {
+            return;
+        }
+        char[] keys = new char[ Math.max( 4, _count + other._count ) ];
+        RoaringContainer[] containers = new RoaringContainer[ keys.length ];
+        int count = 0;
+        long size = 0;
+        int i = 0, j = 0;
+        while ( i < _count || j < other._count ) {
+            RoaringContainer container;
+            if ( j == other._count || ( i < _count && _keys[ i ] < other._keys[ j ] ) ) {
+                keys[ count ] = _keys[ i ];
+                container = _containers[ i++ ];
+            } else if ( i == _count || _keys[ i ] > other._keys[ j ] ) {
+                keys[ count ] = other._keys[ j ];
+                container = other._containers[ j++ ].copy();
+            } else {
+                keys[ count ] = _keys[ i ];
+                container = _containers[ i++ ].or( other._containers[ j++ ] );
+            }
+            containers[ count++ ] = container;
+            size += container.cardinality();
+        }
+        _keys = keys;
+        _containers = containers;
+        _count = count;
+        _size = size;
+    }
+
+
+    /**
+     * Removes every value in <tt>other</tt>.
+     *
+     * @param other the set whose values are removed
+     */
+    public void andNot( TIntRoaringSet other ) {
+        if ( other == this ) {
+            clear();
+            return;
+        }
+        int count = 0;
+        long size = 0;
+        for ( int i = 0, j = 0; i < _count; i++ ) {
+            while ( j < other._count && other._keys[ j ] < _keys[ i ] ) {
+                j++;
+            }
+            RoaringContainer container = _containers[ i ];
+            if ( j < other._count && other._keys[ j ] == _keys[ i ] ) {
+                container = container.andNot( other._containers[ j ] );
+            }
+            if ( container.cardinality() > 0 ) {
+                _keys[ count ] = _keys[ i ];
+                _containers[ count++ ] = container;
+                size += container.cardinality();
+            }
+        }
+        Arrays.fill( _containers, count, _count, null );
+        _count = count;
+        _size = size;
+    }
+
+
+    /**
+     * Returns the number of values in both this set and <tt>other</tt>, without
+     * building the intersection.
+     *
+     * @param other the set to intersect with
+     * @return the size of the intersection
+     */
+    public long andCardinality( TIntRoaringSet other ) {
+        long size = 0;
+        for ( int i = 0, j = 0; i < _count && j < other._count; ) {
+            if ( _keys[ i ] < other._keys[ j ] ) {
+                i++;
+            } else if ( _keys[ i ] > other._keys[ j ] ) {
+                j++;
+            } else {
+                size += _containers[ i++ ].andCardinality( other._containers[ j++ ] );
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * Stores each container in whichever of the array, bitmap and run forms is
+     * smallest. Worth calling once a set built from ranges of values is complete.
+     *
+     * @return true if any container changed form
+     */
+    public boolean runOptimize() {
+        boolean changed = false;
+        for ( int i = 0; i < _count; i++ ) {
+            RoaringContainer container = _containers[ i ].runOptimize();
+            if ( container != _containers[ i ] ) {
+                _containers[ i ] = container;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /**
+     * Returns the smallest value in the set.
+     *
+     * @throws NoSuchElementException if the set is empty
+     */
+    public int first() {
+        if ( _count == 0 ) {
+            throw new NoSuchElementException();
+        }
+        final int[] first = new int[ 1 ];
+        _containers[ 0 ].forEach( highOf( _keys[ 0 ] ), new TIntProcedure() {
+            public boolean execute( int value ) {
+                first[ 0 ] = value;
+                return false;
+            }
+        } );
+        return first[ 0 ];
+    }
+
+
+    /**
+     * Returns the largest value in the set.
+     *
+     * @throws NoSuchElementException if the set is empty
+     */
+    public int last() {
+        if ( _count == 0 ) {
+            throw new NoSuchElementException();
+        }
+        return highOf( _keys[ _count - 1 ] ) | _containers[ _count - 1 ].last();
+    }
+
+
+    /** {@inheritDoc} */
+    public TIntIterator iterator() {
+        return new TIntRoaringIterator();
+    }
+
+
+    /** {@inheritDoc} */
+    public int[] toArray() {
+        return toArray( new int[ size() ] );
+    }
+
+
+    /** {@inheritDoc} */
+    public int[] toArray( int[] dest ) {
+        if ( dest.length < _size ) {
+            dest = new int[ size() ];
+        }
+        int offset = 0;
+        for ( int i = 0; i < _count; i++ ) {
+            offset += _containers[ i ].toArray( highOf( _keys[ i ] ), dest, offset );
+        }
+        if ( dest.length > offset ) {
+            dest[ offset ] = getNoEntryValue();
+        }
+        return dest;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean containsAll( Collection<?> collection ) {
+        for ( Object element : collection ) {
+            if ( ! ( element instanceof Integer ) ||
+                 ! contains( ( ( Integer ) element ).intValue() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean containsAll( TIntCollection collection ) {
+        if ( collection instanceof TIntRoaringSet ) {
+            TIntRoaringSet other = ( TIntRoaringSet ) collection;
+            return andCardinality( other ) == other._size;
+        }
+        TIntIterator iter = collection.iterator();
+        while ( iter.hasNext() ) {
+            if ( ! contains( iter.next() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean containsAll( int[] array ) {
+        for ( int i = array.length; i-- > 0; ) {
+            if ( ! contains( array[ i ] ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean addAll( Collection<? extends Integer> collection ) {
+        boolean changed = false;
+        for ( Integer element : collection ) {
+            if ( add( element.intValue() ) ) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean addAll( TIntCollection collection ) {
+        long before = _size;
+        if ( collection instanceof TIntRoaringSet ) {
+            or( ( TIntRoaringSet ) collection );
+        } else {
+            TIntIterator iter = collection.iterator();
+            while ( iter.hasNext() ) {
+                add( iter.next() );
+            }
+        }
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean addAll( int[] array ) {
+        boolean changed = false;
+        for ( int i = 0; i < array.length; i++ ) {
+            if ( add( array[ i ] ) ) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean retainAll( Collection<?> collection ) {
+        boolean modified = false;
+        TIntIterator iter = iterator();
+        while ( iter.hasNext() ) {
+            if ( ! collection.contains( Integer.valueOf( iter.next() ) ) ) {
+                iter.remove();
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean retainAll( TIntCollection collection ) {
+        long before = _size;
+        and( collection instanceof TIntRoaringSet ?
+            ( TIntRoaringSet ) collection : new TIntRoaringSet( collection ) );
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean retainAll( int[] array ) {
+        long before = _size;
+        and( new TIntRoaringSet( array ) );
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean removeAll( Collection<?> collection ) {
+        boolean changed = false;
+        for ( Object element : collection ) {
+            if ( element instanceof Integer ) {
+                if ( remove( ( ( Integer ) element ).intValue() ) ) {
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean removeAll( TIntCollection collection ) {
+        long before = _size;
+        if ( collection instanceof TIntRoaringSet ) {
+            andNot( ( TIntRoaringSet ) collection );
+        } else {
+            TIntIterator iter = collection.iterator();
+            while ( iter.hasNext() ) {
+                remove( iter.next() );
+            }
+        }
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean removeAll( int[] array ) {
+        boolean changed = false;
+        for ( int i = array.length; i-- > 0; ) {
+            if ( remove( array[ i ] ) ) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public void clear() {
+        Arrays.fill( _containers, 0, _count, null );
+        _count = 0;
+        _size = 0;
+    }
+
+
+    /**
+     * Executes <tt>procedure</tt> for each value in the set, in ascending order.
+     *
+     * @param procedure a <code>TIntProcedure</code> value
+     * @return false if the loop over the set terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEach( TIntProcedure procedure ) {
+        for ( int i = 0; i < _count; i++ ) {
+            if ( ! _containers[ i ].forEach( highOf( _keys[ i ] ), procedure ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean equals( Object other ) {
+        if ( ! ( other instanceof TIntSet ) ) {
+            return false;
+        }
+        TIntSet that = ( TIntSet ) other;
+        if ( other instanceof TIntRoaringSet ) {
+            return _size == ( ( TIntRoaringSet ) other )._size &&
+                andCardinality( ( TIntRoaringSet ) other ) == _size;
+        }
+        return that.size() == _size && that.containsAll( this );
+    }
+
+
+    /** {@inheritDoc} */
+    public int hashCode() {
+        final int[] hashcode = { 0 };
+        forEach( new TIntProcedure() {
+            public boolean execute( int value ) {
+                hashcode[ 0 ] += HashFunctions.hash( value );
+                return true;
+            }
+        } );
+        return hashcode[ 0 ];
+    }
+
+
+    /** {@inheritDoc} */
+    public String toString() {
+        final StringBuilder buffy = new StringBuilder( "{" );
+        forEach( new TIntProcedure() {
+            public boolean execute( int value ) {
+                if ( buffy.length() > 1 ) {
+                    buffy.append( "," );
+                }
+                buffy.append( value );
+                return true;
+            }
+        } );
+        return buffy.append( "}" ).toString();
+    }
+
+
+    /**
+     * Returns the number of bytes {@link #serialize} writes.
+     */
+    public int serializedSizeInBytes() {
+        int bytes = 4 + HEADER_BYTES * _count;
+        for ( int i = 0; i < _count; i++ ) {
+            bytes += _containers[ i ].serializedSizeInBytes();
+        }
+        return bytes;
+    }
+
+
+    /**
+     * Writes the set at the position of <tt>buffer</tt>, in the buffer's byte
+     * order, and moves the position past it.
+     * <p>
+     * The form is the number of containers, a twelve-byte header for each (the
+     * key, the container type, the number of values and the offset of the
+     * container from the start of the form), then the containers.
+     *
+     * @param buffer the buffer to write to
+     */
+    public void serialize( ByteBuffer buffer ) {
+        int start = buffer.position();
+        int offset = start + 4 + HEADER_BYTES * _count;
+        buffer.putInt( start, _count );
+        for ( int i = 0; i < _count; i++ ) {
+            RoaringContainer container = _containers[ i ];
+            int header = start + 4 + HEADER_BYTES * i;
+            buffer.putChar( header, _keys[ i ] );
+            buffer.putChar( header + 2, ( char ) container.type() );
+            buffer.putInt( header + 4, container.cardinality() );
+            buffer.putInt( header + 8, offset - start );
+            container.serialize( buffer, offset );
+            offset += container.serializedSizeInBytes();
+        }
+        buffer.position( offset );
+    }
+
+
+    /**
+     * Reads a set written by {@link #serialize} from the position of
+     * <tt>buffer</tt> and moves the position past it.
+     *
+     * @param buffer the buffer to read from
+     * @return the set
+     */
+    public static TIntRoaringSet deserialize( ByteBuffer buffer ) {
+        int start = buffer.position();
+        int count = buffer.getInt( start );
+        TIntRoaringSet set = new TIntRoaringSet();
+        set._keys = new char[ Math.max( 4, count ) ];
+        set._containers = new RoaringContainer[ set._keys.length ];
+        int end = start + 4 + HEADER_BYTES * count;
+        for ( int i = 0; i < count; i++ ) {
+            int header = start + 4 + HEADER_BYTES * i;
+            int type = buffer.getChar( header + 2 );
+            int cardinality = buffer.getInt( header + 4 );
+            int offset = start + buffer.getInt( header + 8 );
+            RoaringContainer container =
+                RoaringContainer.deserialize( buffer, offset, type, cardinality );
+            set._keys[ i ] = buffer.getChar( header );
+            set._containers[ i ] = container;
+            set._size += cardinality;
+            end = Math.max( end, offset + container.serializedSizeInBytes() );
+        }
+        set._count = count;
+        buffer.position( end );
+        return set;
+    }
+
+
+    /**
+     * Returns whether a set written by {@link #serialize} at the position of
+     * <tt>buffer</tt> contains <tt>value</tt>, reading only the parts of the
+     * buffer it needs and leaving its position unchanged.
+     *
+     * @param buffer the buffer holding the set
+     * @param value the value to look for
+     */
+    public static boolean contains( ByteBuffer buffer, int value ) {
+        int start = buffer.position();
+        char key = keyOf( value );
+        int lo = 0;
+        int hi = buffer.getInt( start ) - 1;
+        while ( lo <= hi ) {
+            int mid = ( lo + hi ) >>> 1;
+            int header = start + 4 + HEADER_BYTES * mid;
+            char midKey = buffer.getChar( header );
+            if ( midKey < key ) {
+                lo = mid + 1;
+            } else if ( midKey > key ) {
+                hi = mid - 1;
+            } else {
+                return RoaringContainer.contains( buffer,
+                    start + buffer.getInt( header + 8 ), buffer.getChar( header + 2 ),
+                    buffer.getInt( header + 4 ), value & 0xFFFF );
+            }
+        }
+        return false;
+    }
+
+
+    /** {@inheritDoc} */
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        // VERSION
+        out.writeByte( 0 );
+
+        // CONTAINERS
+        byte[] bytes = new byte[ serializedSizeInBytes() ];
+        serialize( ByteBuffer.wrap( bytes ) );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+
+    /** {@inheritDoc} */
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        // VERSION
+        in.readByte();
+
+        // CONTAINERS
+        byte[] bytes = new byte[ in.readInt() ];
+        in.readFully( bytes );
+        TIntRoaringSet set = deserialize( ByteBuffer.wrap( bytes ) );
+        _keys = set._keys;
+        _containers = set._containers;
+        _count = set._count;
+        _size = set._size;
+    }
+
+
+    /**
+     * Walks the containers in key order, copying the values of one container at a
+     * time into a buffer. The next container is found by key, so removals through
+     * the set or the iterator are safe.
+     */
+    class TIntRoaringIterator implements TIntIterator {
+
+        /** the values of the current container */
+        private int[] _buffer = new int[ 0 ];
+
+        /** the number of values in the buffer */
+        private int _bufferSize;
+
+        /** the index in the buffer of the next value */
+        private int _position;
+
+        /** the key of the current container, or -1 before the first */
+        private int _key = -1;
+
+        /** whether the last value returned may be removed */
+        private boolean _canRemove;
+
+
+        /** {@inheritDoc} */
+        public boolean hasNext() {
+            if ( _position < _bufferSize ) {
+                return true;
+            }
+            int index = 0;
+            if ( _key >= 0 ) {
+                index = indexOf( ( char ) _key );
+                index = index < 0 ? -index - 1 : index + 1;
+            }
+            if ( index >= _count ) {
+                return false;
+            }
+            RoaringContainer container = _containers[ index ];
+            if ( _buffer.length < container.cardinality() ) {
+                _buffer = new int[ Math.max( container.cardinality(), 2 * _buffer.length ) ];
+            }
+            _bufferSize = container.toArray( highOf( _keys[ index ] ), _buffer, 0 );
+            _position = 0;
+            _key = _keys[ index ];
+            return true;
+        }
+
+
+        /** {@inheritDoc} */
+        public int next() {
+            if ( ! hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            _canRemove = true;
+            return _buffer[ _position++ ];
+        }
+
+
+        /** {@inheritDoc} */
+        public void remove() {
+            if ( ! _canRemove ) {
+                throw new IllegalStateException();
+            }
+            _canRemove = false;
+            TIntRoaringSet.this.remove( _buffer[ _position - 1 ] );
+        }
+    }
+} // TIntRoaringSet
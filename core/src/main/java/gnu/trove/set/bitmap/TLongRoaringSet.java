@@ -0,0 +1,791 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.set.bitmap;
+
+import gnu.trove.TLongCollection;
+import gnu.trove.impl.Constants;
+import gnu.trove.impl.HashFunctions;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.TLongSet;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+
+/**
+ * A compressed set of <code>long</code> primitives using the Roaring layout.
+ * <p>
+ * Values are grouped by their high 32 bits, and the low 32 bits of each group
+ * are kept in a {@link TIntRoaringSet}, so values that cluster within ranges of
+ * 2<sup>32</sup> are stored as compactly as ints are. Iteration is in ascending
+ * order.
+ */
+public class TLongRoaringSet implements TLongSet, Externalizable {
+    static final long serialVersionUID = 1L;
+
+    /** the high 32 bits of each group, sorted */
+    private int[] _highs;
+
+    /** the low 32 bits of each group, flipped so that they sort as unsigned */
+    private TIntRoaringSet[] _sets;
+
+    /** the number of groups */
+    private int _count;
+
+    /** the number of values */
+    private long _size;
+
+
+    /**
+     * Creates a new, empty <code>TLongRoaringSet</code>.
+     */
+    public TLongRoaringSet() {
+        _highs = new int[ 4 ];
+        _sets = new TIntRoaringSet[ 4 ];
+    }
+
+
+    /**
+     * Creates a new <code>TLongRoaringSet</code> containing the elements of
+     * <tt>array</tt>.
+     *
+     * @param array an array of <code>long</code> primitives
+     */
+    public TLongRoaringSet( long[] array ) {
+        this();
+        addAll( array );
+    }
+
+
+    /**
+     * Creates a new <code>TLongRoaringSet</code> that is a copy of the existing
+     * collection.
+     *
+     * @param collection a <tt>TLongCollection</tt> that will be duplicated.
+     */
+    public TLongRoaringSet( TLongCollection collection ) {
+        this();
+        addAll( collection );
+    }
+
+
+    /**
+     * Creates a new <code>TLongRoaringSet</code> that is a copy of the existing
+     * Collection.
+     *
+     * @param collection a <tt>Collection</tt> that will be duplicated.
+     */
+    public TLongRoaringSet( Collection<? extends Long> collection ) {
+        this();
+        addAll( collection );
+    }
+
+
+    private static int highOf( long value ) {
+        return ( int ) ( value >> 32 );
+    }
+
+
+    private static int lowOf( long value ) {
+        return ( int ) value ^ Integer.MIN_VALUE;
+    }
+
+
+    private static long valueOf( int high, int low ) {
+        return ( ( long ) high << 32 ) | ( ( low ^ Integer.MIN_VALUE ) & 0xFFFFFFFFL );
+    }
+
+
+    private int indexOf( int high ) {
+        return Arrays.binarySearch( _highs, 0, _count, high );
+    }
+
+
+    /** {@inheritDoc} */
+    public long getNoEntryValue() {
+        return Constants.DEFAULT_LONG_NO_ENTRY_VALUE;
+    }
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A set holding more than <tt>Integer.MAX_VALUE</tt> values returns
+     * <tt>Integer.MAX_VALUE</tt>; see {@link #cardinality}.
+     */
+    public int size() {
+        return ( int ) Math.min( _size, Integer.MAX_VALUE );
+    }
+
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return the number of values in the set
+     */
+    public long cardinality() {
+        return _size;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean contains( long entry ) {
+        int index = indexOf( highOf( entry ) );
+        return index >= 0 && _sets[ index ].contains( lowOf( entry ) );
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean add( long entry ) {
+        int high = highOf( entry );
+        int index = indexOf( high );
+        if ( index < 0 ) {
+            index = -index - 1;
+            insertSet( index, high, new TIntRoaringSet() );
+        }
+        if ( _sets[ index ].add( lowOf( entry ) ) ) {
+            _size++;
+            return true;
+        }
+        return false;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean remove( long entry ) {
+        int index = indexOf( highOf( entry ) );
+        if ( index < 0 || ! _sets[ index ].remove( lowOf( entry ) ) ) {
+            return false;
+        }
+        if ( _sets[ index ].isEmpty() ) {
+            removeSet( index );
+        }
+        _size--;
+        return true;
+    }
+
+
+    private void insertSet( int index, int high, TIntRoaringSet set ) {
+        if ( _count == _highs.length ) {
+            int capacity = Math.max( 4, _count * 2 );
+            int[] highs = new int[ capacity ];
+            TIntRoaringSet[] sets = new TIntRoaringSet[ capacity ];
+            System.arraycopy( _highs, 0, highs, 0, _count );
+            System.arraycopy( _sets, 0, sets, 0, _count );
+            _highs = highs;
+            _sets = sets;
+        }
+        System.arraycopy( _highs, index, _highs, index + 1, _count - index );
+        System.arraycopy( _sets, index, _sets, index + 1, _count - index );
+        _highs[ index ] = high;
+        _sets[ index ] = set;
+        _count++;
+    }
+
+
+    private void removeSet( int index ) {
+        System.arraycopy( _highs, index + 1, _highs, index, _count - index - 1 );
+        System.arraycopy( _sets, index + 1, _sets, index, _count - index - 1 );
+        _sets[ --_count ] = null;
+    }
+
+
+    /** Drops empty groups and recounts the values after a bulk operation. */
+    private void compact() {
+        int count = 0;
+        long size = 0;
+        for ( int i = 0; i < _count; i++ ) {
+            if ( ! _sets[ i ].isEmpty() ) {
+                _highs[ count ] = _highs[ i ];
+                _sets[ count++ ] = _sets[ i ];
+                size += _sets[ i ].cardinality();
+            }
+        }
+        Arrays.fill( _sets, count, _count, null );
+        _count = count;
+        _size = size;
+    }
+
+
+    /**
+     * Keeps only the values that are also in <tt>other</tt>.
+     *
+     * @param other the set to intersect with
+     */
+    public void and( TLongRoaringSet other ) {
+        if ( other == this ) {
+            return;
+        }
+        for ( int i = 0; i < _count; i++ ) {
+            int index = other.indexOf( _highs[ i ] );
+            if ( index < 0 ) {
+                _sets[ i ].clear();
+            } else {
+                _sets[ i ].and( other._sets[ index ] );
+            }
+        }
+        compact();
+    }
+
+
+    /**
+     * Adds every value in <tt>other</tt>.
+     *
+     * @param other the set to unite with
+     */
+    public void or( TLongRoaringSet other ) {
+        if ( other == this ) {
+            return;
+        }
+        for ( int j = 0; j < other._count; j++ ) {
+            int index = indexOf( other._highs[ j ] );
+            if ( index < 0 ) {
+                TIntRoaringSet set = new TIntRoaringSet();
+                set.or( other._sets[ j ] );
+                insertSet( -index - 1, other._highs[ j ], set );
+            } else {
+                _sets[ index ].or( other._sets[ j ] );
+            }
+        }
+        compact();
+    }
+
+
+    /**
+     * Removes every value in <tt>other</tt>.
+     *
+     * @param other the set whose values are removed
+     */
+    public void andNot( TLongRoaringSet other ) {
+        if ( other == this ) {
+            clear();
+            return;
+        }
+        for ( int i = 0; i < _count; i++ ) {
+            int index = other.indexOf( _highs[ i ] );
+            if ( index >= 0 ) {
+                _sets[ i ].andNot( other._sets[ index ] );
+            }
+        }
+        compact();
+    }
+
+
+    /**
+     * Returns the number of values in both this set and <tt>other</tt>, without
+     * building the intersection.
+     *
+     * @param other the set to intersect with
+     * @return the size of the intersection
+     */
+    public long andCardinality( TLongRoaringSet other ) {
+        long size = 0;
+        for ( int i = 0; i < _count; i++ ) {
+            int index = other.indexOf( _highs[ i ] );
+            if ( index >= 0 ) {
+                size += _sets[ i ].andCardinality( other._sets[ index ] );
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * Stores each container in whichever of the array, bitmap and run forms is
+     * smallest.
+     *
+     * @return true if any container changed form
+     * @see TIntRoaringSet#runOptimize
+     */
+    public boolean runOptimize() {
+        boolean changed = false;
+        for ( int i = 0; i < _count; i++ ) {
+            changed |= _sets[ i ].runOptimize();
+        }
+        return changed;
+    }
+
+
+    /**
+     * Returns the smallest value in the set.
+     *
+     * @throws NoSuchElementException if the set is empty
+     */
+    public long first() {
+        if ( _count == 0 ) {
+            throw new NoSuchElementException();
+        }
+        return valueOf( _highs[ 0 ], _sets[ 0 ].first() );
+    }
+
+
+    /**
+     * Returns the largest value in the set.
+     *
+     * @throws NoSuchElementException if the set is empty
+     */
+    public long last() {
+        if ( _count == 0 ) {
+            throw new NoSuchElementException();
+        }
+        return valueOf( _highs[ _count - 1 ], _sets[ _count - 1 ].last() );
+    }
+
+
+    /** {@inheritDoc} */
+    public TLongIterator iterator() {
+        return new TLongRoaringIterator();
+    }
+
+
+    /** {@inheritDoc} */
+    public long[] toArray() {
+        return toArray( new long[ size() ] );
+    }
+
+
+    /** {@inheritDoc} */
+    public long[] toArray( long[] dest ) {
+        if ( dest.length < _size ) {
+            dest = new long[ size() ];
+        }
+        int offset = 0;
+        for ( int i = 0; i < _count; i++ ) {
+            int high = _highs[ i ];
+            int[] lows = _sets[ i ].toArray();
+            for ( int j = 0; j < lows.length; j++ ) {
+                dest[ offset++ ] = valueOf( high, lows[ j ] );
+            }
+        }
+        if ( dest.length > offset ) {
+            dest[ offset ] = getNoEntryValue();
+        }
+        return dest;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean containsAll( Collection<?> collection ) {
+        for ( Object element : collection ) {
+            if ( ! ( element instanceof Long ) ||
+                 ! contains( ( ( Long ) element ).longValue() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean containsAll( TLongCollection collection ) {
+        if ( collection instanceof TLongRoaringSet ) {
+            TLongRoaringSet other = ( TLongRoaringSet ) collection;
+            return andCardinality( other ) == other._size;
+        }
+        TLongIterator iter = collection.iterator();
+        while ( iter.hasNext() ) {
+            if ( ! contains( iter.next() ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean containsAll( long[] array ) {
+        for ( int i = array.length; i-- > 0; ) {
+            if ( ! contains( array[ i ] ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean addAll( Collection<? extends Long> collection ) {
+        boolean changed = false;
+        for ( Long element : collection ) {
+            if ( add( element.longValue() ) ) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean addAll( TLongCollection collection ) {
+        long before = _size;
+        if ( collection instanceof TLongRoaringSet ) {
+            or( ( TLongRoaringSet ) collection );
+        } else {
+            TLongIterator iter = collection.iterator();
+            while ( iter.hasNext() ) {
+                add( iter.next() );
+            }
+        }
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean addAll( long[] array ) {
+        boolean changed = false;
+        for ( int i = 0; i < array.length; i++ ) {
+            if ( add( array[ i ] ) ) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean retainAll( Collection<?> collection ) {
+        boolean modified = false;
+        TLongIterator iter = iterator();
+        while ( iter.hasNext() ) {
+            if ( ! collection.contains( Long.valueOf( iter.next() ) ) ) {
+                iter.remove();
+                modified = true;
+            }
+        }
+        return modified;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean retainAll( TLongCollection collection ) {
+        long before = _size;
+        and( collection instanceof TLongRoaringSet ?
+            ( TLongRoaringSet ) collection : new TLongRoaringSet( collection ) );
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean retainAll( long[] array ) {
+        long before = _size;
+        and( new TLongRoaringSet( array ) );
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean removeAll( Collection<?> collection ) {
+        boolean changed = false;
+        for ( Object element : collection ) {
+            if ( element instanceof Long ) {
+                if ( remove( ( ( Long ) element ).longValue() ) ) {
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean removeAll( TLongCollection collection ) {
+        long before = _size;
+        if ( collection instanceof TLongRoaringSet ) {
+            andNot( ( TLongRoaringSet ) collection );
+        } else {
+            TLongIterator iter = collection.iterator();
+            while ( iter.hasNext() ) {
+                remove( iter.next() );
+            }
+        }
+        return _size != before;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean removeAll( long[] array ) {
+        boolean changed = false;
+        for ( int i = array.length; i-- > 0; ) {
+            if ( remove( array[ i ] ) ) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+
+    /** {@inheritDoc} */
+    public void clear() {
+        Arrays.fill( _sets, 0, _count, null );
+        _count = 0;
+        _size = 0;
+    }
+
+
+    /**
+     * Executes <tt>procedure</tt> for each value in the set, in ascending order.
+     *
+     * @param procedure a <code>TLongProcedure</code> value
+     * @return false if the loop over the set terminated because
+     * the procedure returned false for some value.
+     */
+    public boolean forEach( final TLongProcedure procedure ) {
+        for ( int i = 0; i < _count; i++ ) {
+            final int high = _highs[ i ];
+            boolean completed = _sets[ i ].forEach( new TIntProcedure() {
+                public boolean execute( int low ) {
+                    return procedure.execute( valueOf( high, low ) );
+                }
+            } );
+            if ( ! completed ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /** {@inheritDoc} */
+    public boolean equals( Object other ) {
+        if ( ! ( other instanceof TLongSet ) ) {
+            return false;
+        }
+        if ( other instanceof TLongRoaringSet ) {
+            return _size == ( ( TLongRoaringSet ) other )._size &&
+                andCardinality( ( TLongRoaringSet ) other ) == _size;
+        }
+        TLongSet that = ( TLongSet ) other;
+        return that.size() == _size && that.containsAll( this );
+    }
+
+
+    /** {@inheritDoc} */
+    public int hashCode() {
+        final int[] hashcode = { 0 };
+        forEach( new TLongProcedure() {
+            public boolean execute( long value ) {
+                hashcode[ 0 ] += HashFunctions.hash( value );
+                return true;
+            }
+        } );
+        return hashcode[ 0 ];
+    }
+
+
+    /** {@inheritDoc} */
+    public String toString() {
+        final StringBuilder buffy = new StringBuilder( "{" );
+        forEach( new TLongProcedure() {
+            public boolean execute( long value ) {
+                if ( buffy.length() > 1 ) {
+                    buffy.append( "," );
+                }
+                buffy.append( value );
+                return true;
+            }
+        } );
+        return buffy.append( "}" ).toString();
+    }
+
+
+    /**
+     * Returns the number of bytes {@link #serialize} writes.
+     */
+    public int serializedSizeInBytes() {
+        int bytes = 4;
+        for ( int i = 0; i < _count; i++ ) {
+            bytes += 8 + _sets[ i ].serializedSizeInBytes();
+        }
+        return bytes;
+    }
+
+
+    /**
+     * Writes the set at the position of <tt>buffer</tt>, in the buffer's byte
+     * order, and moves the position past it.
+     * <p>
+     * The form is the number of groups, then for each group its high 32 bits, the
+     * length of its {@link TIntRoaringSet#serialize serialized int set} and that
+     * set.
+     *
+     * @param buffer the buffer to write to
+     */
+    public void serialize( ByteBuffer buffer ) {
+        buffer.putInt( _count );
+        for ( int i = 0; i < _count; i++ ) {
+            buffer.putInt( _highs[ i ] );
+            buffer.putInt( _sets[ i ].serializedSizeInBytes() );
+            _sets[ i ].serialize( buffer );
+        }
+    }
+
+
+    /**
+     * Reads a set written by {@link #serialize} from the position of
+     * <tt>buffer</tt> and moves the position past it.
+     *
+     * @param buffer the buffer to read from
+     * @return the set
+     */
+    public static TLongRoaringSet deserialize( ByteBuffer buffer ) {
+        int count = buffer.getInt();
+        TLongRoaringSet set = new TLongRoaringSet();
+        set._highs = new int[ Math.max( 4, count ) ];
+        set._sets = new TIntRoaringSet[ set._highs.length ];
+        for ( int i = 0; i < count; i++ ) {
+            set._highs[ i ] = buffer.getInt();
+            buffer.getInt();
+            set._sets[ i ] = TIntRoaringSet.deserialize( buffer );
+            set._size += set._sets[ i ].cardinality();
+        }
+        set._count = count;
+        return set;
+    }
+
+
+    /**
+     * Returns whether a set written by {@link #serialize} at the position of
+     * <tt>buffer</tt> contains <tt>value</tt>, reading the buffer in place and
+     * leaving its position unchanged.
+     *
+     * @param buffer the buffer holding the set
+     * @param value the value to look for
+     */
+    public static boolean contains( ByteBuffer buffer, long value ) {
+        int high = highOf( value );
+        int offset = buffer.position();
+        int count = buffer.getInt( offset );
+        offset += 4;
+        for ( int i = 0; i < count; i++ ) {
+            int groupHigh = buffer.getInt( offset );
+            if ( groupHigh > high ) {
+                return false;
+            }
+            if ( groupHigh == high ) {
+                ByteBuffer group = buffer.duplicate();
+                group.order( buffer.order() );
+                group.position( offset + 8 );
+                return TIntRoaringSet.contains( group, lowOf( value ) );
+            }
+            offset += 8 + buffer.getInt( offset + 4 );
+        }
+        return false;
+    }
+
+
+    /** {@inheritDoc} */
+    public void writeExternal( ObjectOutput out ) throws IOException {
+        // VERSION
+        out.writeByte( 0 );
+
+        // GROUPS
+        byte[] bytes = new byte[ serializedSizeInBytes() ];
+        serialize( ByteBuffer.wrap( bytes ) );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+
+    /** {@inheritDoc} */
+    public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        // VERSION
+        in.readByte();
+
+        // GROUPS
+        byte[] bytes = new byte[ in.readInt() ];
+        in.readFully( bytes );
+        TLongRoaringSet set = deserialize( ByteBuffer.wrap( bytes ) );
+        _highs = set._highs;
+        _sets = set._sets;
+        _count = set._count;
+        _size = set._size;
+    }
+
+
+    /**
+     * Walks the groups in order, finding the next group by its high bits so that
+     * removals through the set or the iterator are safe.
+     */
+    class TLongRoaringIterator implements TLongIterator {
+
+        /** iterates over the low bits of the current group */
+        private TIntIterator _lows;
+
+        /** the high bits of the current group */
+        private int _high;
+
+        /** whether the last value returned may be removed */
+        private boolean _canRemove;
+
+        /** the last value returned */
+        private long _last;
+
+
+        /** {@inheritDoc} */
+        public boolean hasNext() {
+            while ( _lows == null || ! _lows.hasNext() ) {
+                int index = 0;
+                if ( _lows != null ) {
+                    index = indexOf( _high );
+                    index = index < 0 ? -index - 1 : index + 1;
+                }
+                if ( index >= _count ) {
+                    return false;
+                }
+                _high = _highs[ index ];
+                _lows = _sets[ index ].iterator();
+            }
+            return true;
+        }
+
+
+        /** {@inheritDoc} */
+        public long next() {
+            if ( ! hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            _canRemove = true;
+            _last = valueOf( _high, _lows.next() );
+            return _last;
+        }
+
+
+        /** {@inheritDoc} */
+        public void remove() {
+            if ( ! _canRemove ) {
+                throw new IllegalStateException();
+            }
+            _canRemove = false;
+            TLongRoaringSet.this.remove( _last );
+        }
+    }
+} // TLongRoaringSet
@@ -20,6 +20,8 @@
 
 package gnu.trove.set.hash;
 
+import gnu.trove.impl.ParallelTasks;
+import gnu.trove.impl.hash.THash;
 import gnu.trove.impl.hash.TObjectHash;
 import gnu.trove.impl.HashFunctions;
 import gnu.trove.procedure.TObjectProcedure;
@@ -27,6 +29,7 @@ import gnu.trove.procedure.array.ToObjectArrayProceedure;
 import gnu.trove.iterator.hash.TObjectHashIterator;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
@@ -366,6 +369,261 @@ public class THashSet<E> extends TObjectHash<E>
     }
 
 
+    /** the size from which an operand is split across threads */
+    protected static final int PARALLEL_THRESHOLD = 1 << 15;
+
+
+    /**
+     * Returns a new set holding the elements that are in both <tt>a</tt> and
+     * <tt>b</tt>. The smaller operand is iterated and the larger one probed.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @return a new <code>THashSet</code> sized for the smaller operand
+     */
+    public static <E> THashSet<E> intersect(Set<? extends E> a, Set<? extends E> b) {
+        return intersect(a, b, new THashSet<E>(Math.min(a.size(), b.size())), false);
+    }
+
+
+    /**
+     * Adds the elements that are in both <tt>a</tt> and <tt>b</tt> to
+     * <tt>dest</tt>, leaving the operands untouched. The smaller operand is
+     * iterated and the larger one probed; if <tt>parallel</tt> is true and the
+     * smaller operand is a large <tt>THashSet</tt>, its table is scanned by
+     * several threads, which may then call <tt>contains</tt> on the larger
+     * operand concurrently.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @param dest the set to add to, which must not be an operand
+     * @param parallel whether large operands may be scanned in parallel
+     * @return <tt>dest</tt>
+     */
+    public static <E, S extends Set<? super E>> S intersect(Set<? extends E> a,
+            Set<? extends E> b, S dest, boolean parallel) {
+        Set<? extends E> small = a.size() <= b.size() ? a : b;
+        Set<? extends E> large = small == a ? b : a;
+        if (parallel && isSplittable(small)) {
+            THashSet.<E>addAll(dest, scan((THashSet<?>) small, large, true));
+        } else {
+            for (E element : small) {
+                if (large.contains(element)) {
+                    dest.add(element);
+                }
+            }
+        }
+        return dest;
+    }
+
+
+    /**
+     * Returns a new set holding the elements that are in <tt>a</tt> or
+     * <tt>b</tt>, sized for both.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @return a new <code>THashSet</code>
+     */
+    public static <E> THashSet<E> union(Set<? extends E> a, Set<? extends E> b) {
+        return union(a, b, new THashSet<E>(a.size() + b.size()));
+    }
+
+
+    /**
+     * Adds the elements that are in <tt>a</tt> or <tt>b</tt> to <tt>dest</tt>,
+     * leaving the operands untouched.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @param dest the set to add to
+     * @return <tt>dest</tt>
+     */
+    public static <E, S extends Set<? super E>> S union(Set<? extends E> a,
+            Set<? extends E> b, S dest) {
+        Set<? extends E> small = a.size() <= b.size() ? a : b;
+        Set<? extends E> large = small == a ? b : a;
+        if (dest != large) {
+            dest.addAll(large);
+        }
+        if (dest != small) {
+            dest.addAll(small);
+        }
+        return dest;
+    }
+
+
+    /**
+     * Returns a new set holding the elements of <tt>a</tt> that are not in
+     * <tt>b</tt>.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @return a new <code>THashSet</code> sized for <tt>a</tt>
+     */
+    public static <E> THashSet<E> difference(Set<? extends E> a, Set<?> b) {
+        return difference(a, b, new THashSet<E>(a.size()), false);
+    }
+
+
+    /**
+     * Adds the elements of <tt>a</tt> that are not in <tt>b</tt> to
+     * <tt>dest</tt>, leaving the operands untouched. If <tt>parallel</tt> is
+     * true and <tt>a</tt> is a large <tt>THashSet</tt>, its table is scanned
+     * by several threads, which may then call <tt>contains</tt> on <tt>b</tt>
+     * concurrently.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @param dest the set to add to, which must not be an operand
+     * @param parallel whether a large <tt>a</tt> may be scanned in parallel
+     * @return <tt>dest</tt>
+     */
+    public static <E, S extends Set<? super E>> S difference(Set<? extends E> a,
+            Set<?> b, S dest, boolean parallel) {
+        if (parallel && isSplittable(a)) {
+            THashSet.<E>addAll(dest, scan((THashSet<?>) a, b, false));
+        } else {
+            for (E element : a) {
+                if (!b.contains(element)) {
+                    dest.add(element);
+                }
+            }
+        }
+        return dest;
+    }
+
+
+    /**
+     * Returns the number of elements that are in both <tt>a</tt> and
+     * <tt>b</tt>, without building the intersection.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @return an <code>int</code> value
+     */
+    public static int intersectionSize(Set<?> a, Set<?> b) {
+        return intersectionSize(a, b, false);
+    }
+
+
+    /**
+     * Returns the number of elements that are in both <tt>a</tt> and
+     * <tt>b</tt>, without building the intersection. The smaller operand is
+     * iterated, in parallel if <tt>parallel</tt> is true and it is a large
+     * <tt>THashSet</tt>.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @param parallel whether a large operand may be scanned in parallel
+     * @return an <code>int</code> value
+     */
+    public static int intersectionSize(Set<?> a, Set<?> b, boolean parallel) {
+        Set<?> small = a.size() <= b.size() ? a : b;
+        Set<?> large = small == a ? b : a;
+        if (parallel && isSplittable(small)) {
+            int total = 0;
+            for (Object[] part : scan((THashSet<?>) small, large, true)) {
+                total += part.length;
+            }
+            return total;
+        }
+        int count = 0;
+        for (Object element : small) {
+            if (large.contains(element)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Returns the Jaccard similarity of <tt>a</tt> and <tt>b</tt>: the size of
+     * their intersection divided by the size of their union, or 1 if both are
+     * empty.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @return a <code>double</code> from 0 to 1
+     */
+    public static double jaccard(Set<?> a, Set<?> b) {
+        return jaccard(a, b, false);
+    }
+
+
+    /**
+     * Returns the Jaccard similarity of <tt>a</tt> and <tt>b</tt>, counting
+     * their intersection as {@link #intersectionSize(Set, Set, boolean)} does.
+     *
+     * @param a a <code>Set</code> value
+     * @param b a <code>Set</code> value
+     * @param parallel whether a large operand may be scanned in parallel
+     * @return a <code>double</code> from 0 to 1
+     */
+    public static double jaccard(Set<?> a, Set<?> b, boolean parallel) {
+        int intersection = intersectionSize(a, b, parallel);
+        int union = a.size() + b.size() - intersection;
+        return union == 0 ? 1.0 : (double) intersection / union;
+    }
+
+
+    private static boolean isSplittable(Set<?> set) {
+        return set instanceof THashSet && set.size() >= PARALLEL_THRESHOLD;
+    }
+
+
+    /**
+     * Scans the table of <tt>set</tt> in parallel parts and returns, for each
+     * part, the elements whose presence in <tt>probe</tt> is <tt>present</tt>.
+     */
+    private static Object[][] scan(THashSet<?> set, final Set<?> probe,
+            final boolean present) {
+        final Object[] elements = set._set;
+        int parts = ParallelTasks.PARALLELISM;
+        final Object[][] found = new Object[parts][];
+        Runnable[] tasks = new Runnable[parts];
+        for (int p = 0; p < parts; p++) {
+            final int part = p;
+            final int from = ParallelTasks.boundary(p, parts, elements.length);
+            final int to = ParallelTasks.boundary(p + 1, parts, elements.length);
+            tasks[p] = new Runnable() {
+                public void run() {
+                    ArrayList<Object> list = new ArrayList<Object>();
+                    for (int i = from; i < to; i++) {
+                        Object element = elements[i];
+                        if (element != FREE && element != REMOVED
+                                && probe.contains(element) == present) {
+                            list.add(element);
+                        }
+                    }
+                    found[part] = list.toArray();
+                }
+            };
+        }
+        ParallelTasks.invokeAll(tasks);
+        return found;
+    }
+
+
+    /** Adds the parts found by {@link #scan} to <tt>dest</tt>, sizing it first. */
+    @SuppressWarnings({"unchecked"})
+    private static <E> void addAll(Set<? super E> dest, Object[][] parts) {
+        if (dest instanceof THash) {
+            int total = 0;
+            for (Object[] part : parts) {
+                total += part.length;
+            }
+            ((THash) dest).ensureCapacity(total);
+        }
+        for (Object[] part : parts) {
+            for (Object element : part) {
+                dest.add((E) element);
+            }
+        }
+    }
+
+
     public void writeExternal(ObjectOutput out) throws IOException {
         // VERSION
         out.writeByte(1);
@@ -0,0 +1,383 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.strategy;
+
+
+/**
+ * Decides how far hash tables and array lists grow when they run out of room
+ * and whether they give room back once they hold fewer elements.
+ * <p>
+ * Capacities are counted in the units of the collection asking: slots for a
+ * hash table, elements for a list. Hash tables round the capacity chosen up to
+ * a prime. Policies must be stateless, or at least safe to share, as one
+ * instance is typically shared by every collection using it.
+ * <p>
+ * Collections take the policy returned by {@link #getDefault} when they are
+ * created; <tt>setGrowthPolicy</tt> changes it for a single collection. The
+ * policy is not serialized with the collection.
+ */
+public abstract class GrowthPolicy {
+
+    /**
+     * Doubles the capacity on each grow and never shrinks. This is the initial
+     * default and how the collections have always grown.
+     */
+    public static final GrowthPolicy DOUBLING = new Factor( 2 );
+
+    /** The largest capacity a policy grows to unless more is required. */
+    public static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /** The capacity of a collection below which sparse collections are not shrunk. */
+    protected static final int MIN_SHRINK_CAPACITY = 64;
+
+    private static volatile GrowthPolicy DEFAULT = DOUBLING;
+
+
+    /**
+     * Returns the policy new collections take.
+     *
+     * @return a <code>GrowthPolicy</code> value
+     */
+    public static GrowthPolicy getDefault() {
+        return DEFAULT;
+    }
+
+
+    /**
+     * Sets the policy new collections take. Collections that already exist
+     * keep the policy they have.
+     *
+     * @param policy a <code>GrowthPolicy</code> value
+     */
+    public static void setDefault( GrowthPolicy policy ) {
+        if ( policy == null ) {
+            throw new IllegalArgumentException( "policy can not be null" );
+        }
+        DEFAULT = policy;
+    }
+
+
+    /**
+     * Returns the capacity a full collection grows to.
+     *
+     * @param capacity the current capacity
+     * @param required the least capacity that will do
+     * @param bytesPerElement an estimate of the bytes each unit of capacity takes
+     * @return a capacity of at least <tt>required</tt>
+     * @throws IllegalStateException if the policy will not allow
+     *                               <tt>required</tt>
+     */
+    public abstract int grow( int capacity, int required, int bytesPerElement );
+
+
+    /**
+     * Returns the capacity a collection that has just been cleared keeps. The
+     * collection clamps the result to its default capacity. This implementation
+     * keeps the capacity.
+     *
+     * @param capacity the current capacity
+     * @return a capacity of at most <tt>capacity</tt>
+     */
+    public int clear( int capacity ) {
+        return capacity;
+    }
+
+
+    /**
+     * Returns the capacity a collection shrinks to after a removal, or
+     * <tt>capacity</tt> to leave it be. This implementation never shrinks.
+     *
+     * @param capacity the current capacity
+     * @param size the number of elements remaining
+     * @param required the least capacity that will hold the remaining elements,
+     *                 which for a hash table allows for its load factor
+     * @return a capacity between <tt>required</tt> and <tt>capacity</tt>
+     */
+    public int shrink( int capacity, int size, int required ) {
+        return capacity;
+    }
+
+
+    /**
+     * Returns whether {@link #shrink} may return less than the capacity.
+     * Collections read this when the policy is set and do not ask the policy
+     * after removals if it is false. This implementation returns false.
+     *
+     * @return a <code>boolean</code> value
+     */
+    public boolean shrinks() {
+        return false;
+    }
+
+
+    /**
+     * Returns a policy that multiplies the capacity by <tt>factor</tt> on each
+     * grow. A factor of 1.5 wastes less memory than doubling at the cost of
+     * more frequent copies.
+     *
+     * @param factor a <code>double</code> greater than one
+     * @return a <code>GrowthPolicy</code> value
+     */
+    public static GrowthPolicy factor( double factor ) {
+        if ( !( factor > 1 ) ) {
+            throw new IllegalArgumentException( "Factor must be > 1: " + factor );
+        }
+        return new Factor( factor );
+    }
+
+
+    /**
+     * Returns a policy that adds <tt>increment</tt> to the capacity on each
+     * grow. Filling a collection then takes time quadratic in its size, so
+     * this suits collections whose final size is roughly known.
+     *
+     * @param increment a positive <code>int</code>
+     * @return a <code>GrowthPolicy</code> value
+     */
+    public static GrowthPolicy increment( int increment ) {
+        if ( increment <= 0 ) {
+            throw new IllegalArgumentException( "Increment must be > 0: " + increment );
+        }
+        return new Increment( increment );
+    }
+
+
+    /**
+     * Returns a policy that grows as <tt>growth</tt> does, but no further than
+     * a capacity taking <tt>maxBytes</tt>, and that refuses to grow past it.
+     * Hash tables round the capacity up to a prime, which may add a few percent.
+     *
+     * @param maxBytes the most memory a collection may take, in bytes
+     * @param growth the policy to follow within the budget
+     * @return a <code>GrowthPolicy</code> value
+     */
+    public static GrowthPolicy memoryBudget( long maxBytes, GrowthPolicy growth ) {
+        if ( maxBytes <= 0 ) {
+            throw new IllegalArgumentException( "Budget must be > 0: " + maxBytes );
+        }
+        return new MemoryBudget( maxBytes, growth );
+    }
+
+
+    /**
+     * Returns a policy that grows and shrinks as <tt>growth</tt> does, and that
+     * also releases the capacity of a collection when it is cleared.
+     *
+     * @param growth the policy to follow otherwise
+     * @return a <code>GrowthPolicy</code> value
+     */
+    public static GrowthPolicy shrinkOnClear( GrowthPolicy growth ) {
+        return new ShrinkOnClear( growth );
+    }
+
+
+    /**
+     * Returns a policy that grows as <tt>growth</tt> does, and that halves the
+     * unused capacity of a collection when removals leave less than
+     * <tt>minLoad</tt> of it in use. Collections under
+     * {@value #MIN_SHRINK_CAPACITY} are left be.
+     *
+     * @param growth the policy to follow otherwise
+     * @param minLoad the fraction of the capacity holding elements below which
+     *                to shrink, between 0 and 0.5
+     * @return a <code>GrowthPolicy</code> value
+     */
+    public static GrowthPolicy shrinkWhenSparse( GrowthPolicy growth, float minLoad ) {
+        if ( !( minLoad > 0 && minLoad <= 0.5f ) ) {
+            throw new IllegalArgumentException( "Load must be in (0, 0.5]: " + minLoad );
+        }
+        return new ShrinkWhenSparse( growth, minLoad );
+    }
+
+
+    /**
+     * Clamps a grown capacity to the largest array some VMs will allocate, so
+     * that a collection near the limit grows only as far as it must.
+     */
+    static int clamp( long capacity ) {
+        return ( int ) Math.min( MAX_ARRAY_SIZE, capacity );
+    }
+
+
+    private static final class Factor extends GrowthPolicy {
+
+        private final double _factor;
+
+
+        Factor( double factor ) {
+            _factor = factor;
+        }
+
+
+        @Override
+        public int grow( int capacity, int required, int bytesPerElement ) {
+            return Math.max( required, clamp( ( long ) ( capacity * _factor ) ) );
+        }
+
+
+        @Override
+        public String toString() {
+            return "GrowthPolicy.factor(" + _factor + ")";
+        }
+    }
+
+
+    private static final class Increment extends GrowthPolicy {
+
+        private final int _increment;
+
+
+        Increment( int increment ) {
+            _increment = increment;
+        }
+
+
+        @Override
+        public int grow( int capacity, int required, int bytesPerElement ) {
+            return Math.max( required, clamp( ( long ) capacity + _increment ) );
+        }
+
+
+        @Override
+        public String toString() {
+            return "GrowthPolicy.increment(" + _increment + ")";
+        }
+    }
+
+
+    /** Forwards to another policy. */
+    private static class Forwarding extends GrowthPolicy {
+
+        protected final GrowthPolicy _growth;
+
+
+        Forwarding( GrowthPolicy growth ) {
+            if ( growth == null ) {
+                throw new IllegalArgumentException( "growth can not be null" );
+            }
+            _growth = growth;
+        }
+
+
+        @Override
+        public int grow( int capacity, int required, int bytesPerElement ) {
+            return _growth.grow( capacity, required, bytesPerElement );
+        }
+
+
+        @Override
+        public int clear( int capacity ) {
+            return _growth.clear( capacity );
+        }
+
+
+        @Override
+        public int shrink( int capacity, int size, int required ) {
+            return _growth.shrink( capacity, size, required );
+        }
+
+
+        @Override
+        public boolean shrinks() {
+            return _growth.shrinks();
+        }
+    }
+
+
+    private static final class MemoryBudget extends Forwarding {
+
+        private final long _maxBytes;
+
+
+        MemoryBudget( long maxBytes, GrowthPolicy growth ) {
+            super( growth );
+            _maxBytes = maxBytes;
+        }
+
+
+        @Override
+        public int grow( int capacity, int required, int bytesPerElement ) {
+            long limit = _maxBytes / Math.max( 1, bytesPerElement );
+            if ( required > limit ) {
+                throw new IllegalStateException( "Growing to " + required
+                    + " elements of " + bytesPerElement + " bytes exceeds the budget of "
+                    + _maxBytes + " bytes" );
+            }
+            return clamp( Math.min( limit, _growth.grow( capacity, required, bytesPerElement ) ) );
+        }
+
+
+        @Override
+        public String toString() {
+            return "GrowthPolicy.memoryBudget(" + _maxBytes + ", " + _growth + ")";
+        }
+    }
+
+
+    private static final class ShrinkOnClear extends Forwarding {
+
+        ShrinkOnClear( GrowthPolicy growth ) {
+            super( growth );
+        }
+
+
+        @Override
+        public int clear( int capacity ) {
+            return 0;
+        }
+
+
+        @Override
+        public String toString() {
+            return "GrowthPolicy.shrinkOnClear(" + _growth + ")";
+        }
+    }
+
+
+    private static final class ShrinkWhenSparse extends Forwarding {
+
+        private final float _minLoad;
+
+
+        ShrinkWhenSparse( GrowthPolicy growth, float minLoad ) {
+            super( growth );
+            _minLoad = minLoad;
+        }
+
+
+        @Override
+        public int shrink( int capacity, int size, int required ) {
+            if ( capacity < MIN_SHRINK_CAPACITY || size >= capacity * _minLoad ) {
+                return _growth.shrink( capacity, size, required );
+            }
+            // halving the unused room keeps a burst of inserts from growing it straight back
+            return required + ( capacity - required ) / 2;
+        }
+
+
+        @Override
+        public boolean shrinks() {
+            return true;
+        }
+
+
+        @Override
+        public String toString() {
+            return "GrowthPolicy.shrinkWhenSparse(" + _growth + ", " + _minLoad + ")";
+        }
+    }
+} // GrowthPolicy
@@ -0,0 +1,144 @@
+package gnu.trove;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongBigArrayList;
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.array.TShortIntArrayMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TIntIntSmallHashMap;
+import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.map.hash.TIntObjectExpiringMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.stack.array.TIntArrayStack;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ *
+ */
+public class TMemoryReportTest extends TestCase {
+	public void testLists() {
+		TIntArrayList list = new TIntArrayList( 100 );
+		// a 32 byte list and a 16 + 400 byte array
+		assertEquals( 448, list.estimatedMemoryBytes() );
+		assertEquals( 400, list.wastedBytes() );
+		for ( int i = 0; i < 10; i++ ) {
+			list.add( i );
+		}
+		assertEquals( 448, list.estimatedMemoryBytes() );
+		assertEquals( 360, list.wastedBytes() );
+		list.trimToSize();
+		assertEquals( 0, list.wastedBytes() );
+
+		TIntArrayStack stack = new TIntArrayStack( 100 );
+		assertTrue( stack.estimatedMemoryBytes() > 448 );
+		assertEquals( 400, stack.wastedBytes() );
+
+		TLongBigArrayList big = new TLongBigArrayList( 10, 4 );
+		assertTrue( big.estimatedMemoryBytes() > 16 * 8 );
+		assertEquals( 16 * 8, big.wastedBytes() );
+		big.add( new long[ 10 ] );
+		assertEquals( 6 * 8, big.wastedBytes() );
+	}
+
+
+	public void testHashTables() {
+		TIntLongHashMap map = new TIntLongHashMap();
+		long empty = map.estimatedMemoryBytes();
+		assertTrue( empty > map.capacity() * 13 );
+		for ( int i = 0; i < 10000; i++ ) {
+			map.put( i, i );
+		}
+		long full = map.estimatedMemoryBytes();
+		assertTrue( full > map.capacity() * 13 );
+		assertTrue( map.wastedBytes() < full / 2 );
+
+		// a spike followed by a clear leaves the table over-provisioned
+		map.clear();
+		assertEquals( full, map.estimatedMemoryBytes() );
+		assertTrue( map.wastedBytes() > full * 9 / 10 );
+		map.compact();
+		assertTrue( map.estimatedMemoryBytes() < empty );
+
+		THashMap<String, String> objects = new THashMap<String, String>( 1000 );
+		assertTrue( objects.estimatedMemoryBytes() > objects.capacity() * 8 );
+		assertTrue( objects.wastedBytes() > 0 );
+	}
+
+
+	public void testSmallAndDirectMaps() {
+		TIntIntSmallHashMap small = new TIntIntSmallHashMap();
+		long empty = small.estimatedMemoryBytes();
+		assertEquals( 0, small.wastedBytes() );
+		small.put( 1, 1 );
+		small.put( 2, 2 );
+		small.put( 3, 3 );
+		// three entries in inline arrays of four
+		assertEquals( empty + 2 * ( 16 + 16 ), small.estimatedMemoryBytes() );
+		assertEquals( 8, small.wastedBytes() );
+		for ( int i = 0; i < 100; i++ ) {
+			small.put( i, i );
+		}
+		assertFalse( small.isInline() );
+		assertTrue( small.estimatedMemoryBytes() > new TIntIntHashMap( small ).estimatedMemoryBytes() / 2 );
+
+		TShortIntArrayMap direct = new TShortIntArrayMap();
+		// a 256 int value array and a four word bitmap
+		assertEquals( 32 + 16 + 1024 + 16 + 32, direct.estimatedMemoryBytes() );
+		short far = ( short ) ( Short.MIN_VALUE + 1000 );
+		direct.put( far, 1 );
+		assertEquals( 0, direct.wastedBytes() );
+		direct.remove( far );
+		direct.put( Short.MIN_VALUE, 1 );
+		assertEquals( 15 * ( 64 * 4 + 8 ), direct.wastedBytes() );
+
+		TIntObjectExpiringMap<String> expiring =
+			new TIntObjectExpiringMap<String>( 100, 1, TimeUnit.MINUTES );
+		TIntObjectHashMap<String> plain = new TIntObjectHashMap<String>( 100 );
+		assertEquals( expiring.capacity(), plain.capacity() );
+		// the wheel's expiry, link and bucket arrays and its bucket heads
+		assertTrue( expiring.estimatedMemoryBytes() - plain.estimatedMemoryBytes()
+			>= expiring.capacity() * 20L + 257 * 4 );
+	}
+
+
+	public void testReport() {
+		TIntArrayList list = new TIntArrayList( 100 );
+		TIntHashSet set = new TIntHashSet();
+		for ( int i = 0; i < 10000; i++ ) {
+			set.add( i );
+		}
+
+		TMemoryReport report = new TMemoryReport();
+		report.register( "list", list );
+		report.register( "set", set );
+		assertEquals( 2, report.size() );
+		assertEquals( list.estimatedMemoryBytes() + set.estimatedMemoryBytes(),
+			report.estimatedMemoryBytes() );
+		assertEquals( list.wastedBytes() + set.wastedBytes(), report.wastedBytes() );
+		assertEquals( Arrays.asList( "list" ), report.overProvisioned( 0.5, 0 ) );
+		assertEquals( Arrays.asList(), report.overProvisioned( 0.5, 1000 ) );
+
+		set.clear();
+		assertEquals( Arrays.asList( "list", "set" ), report.overProvisioned( 0.5, 0 ) );
+		assertEquals( Arrays.asList( "set" ), report.overProvisioned( 0.5, 1000 ) );
+
+		final StringBuilder names = new StringBuilder();
+		assertFalse( report.forEach( new TMemoryReport.Procedure() {
+			public boolean execute( String name, long estimatedBytes, long wastedBytes ) {
+				names.append( name );
+				return false;
+			}
+		} ) );
+		assertEquals( "list", names.toString() );
+		assertTrue( report.toString().startsWith( "list: 448 bytes, 400 wasted\n" ) );
+
+		assertTrue( report.unregister( "list" ) );
+		assertFalse( report.unregister( "list" ) );
+		assertEquals( 1, report.size() );
+	}
+}
@@ -0,0 +1,192 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.cache;
+
+import gnu.trove.impl.cache.FrequencySketch;
+import gnu.trove.map.hash.TLongObjectLRUMap;
+import gnu.trove.procedure.TIntObjectProcedure;
+import gnu.trove.set.hash.TIntHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveCacheTest extends TestCase {
+
+    public TPrimitiveCacheTest( String name ) {
+        super( name );
+    }
+
+
+    public void testBasic() {
+        TIntObjectCache<String> cache = new TIntObjectCache<String>( 10 );
+        assertEquals( 10, cache.getMaximumSize() );
+        assertNull( cache.get( 1 ) );
+        assertNull( cache.put( 1, "a" ) );
+        assertEquals( "a", cache.put( 1, "b" ) );
+        assertEquals( "b", cache.get( 1 ) );
+        assertEquals( "b", cache.peek( 1 ) );
+        assertTrue( cache.containsKey( 1 ) );
+        assertEquals( new TCacheStats( 1, 1, 0 ), cache.stats() );
+        assertEquals( 0.5, cache.stats().hitRate() );
+
+        assertEquals( "b", cache.remove( 1 ) );
+        assertNull( cache.remove( 1 ) );
+        assertTrue( cache.isEmpty() );
+
+        cache.resetStats();
+        assertEquals( new TCacheStats( 0, 0, 0 ), cache.stats() );
+        assertEquals( 1.0, cache.stats().hitRate() );
+    }
+
+
+    public void testBoundedUnderChurn() {
+        final Map<Integer,String> evicted = new HashMap<Integer,String>();
+        TIntObjectCache<String> cache = new TIntObjectCache<String>( 64,
+            new TIntObjectProcedure<String>() {
+                public boolean execute( int key, String value ) {
+                    assertNull( evicted.put( key, value ) );
+                    return true;
+                }
+            } );
+
+        Random rand = new Random( 9 );
+        TIntHashSet present = new TIntHashSet();
+        for ( int i = 0; i < 50000; i++ ) {
+            int key = rand.nextInt( 500 );
+            if ( rand.nextInt( 5 ) == 0 ) {
+                cache.remove( key );
+                present.remove( key );
+            } else if ( cache.get( key ) == null ) {
+                evicted.clear();
+                cache.put( key, String.valueOf( key ) );
+                present.add( key );
+                for ( Integer gone : evicted.keySet() ) {
+                    assertEquals( String.valueOf( gone ), evicted.get( gone ) );
+                    assertTrue( present.remove( gone.intValue() ) );
+                }
+            }
+            assertTrue( cache.size() <= 64 );
+            assertEquals( present.size(), cache.size() );
+        }
+
+        final int[] seen = { 0 };
+        cache.forEachEntry( new TIntObjectProcedure<String>() {
+            public boolean execute( int key, String value ) {
+                assertEquals( String.valueOf( key ), value );
+                seen[ 0 ]++;
+                return true;
+            }
+        } );
+        assertEquals( cache.size(), seen[ 0 ] );
+
+        TCacheStats stats = cache.stats();
+        assertEquals( 40000, stats.requestCount(), 1000 );
+        assertTrue( stats.evictionCount() > 0 );
+
+        cache.setMaximumSize( 10 );
+        assertEquals( 10, cache.size() );
+        cache.clear();
+        assertTrue( cache.isEmpty() );
+        assertEquals( "{}", cache.toString() );
+    }
+
+
+    public void testScanResistance() {
+        int size = 200;
+        TLongObjectCache<Long> cache = new TLongObjectCache<Long>( size );
+        TLongObjectLRUMap<Long> lru = new TLongObjectLRUMap<Long>( size );
+
+        // a hot set that fits in the cache, interleaved with a scan of one-off keys
+        Random rand = new Random( 1 );
+        long scan = 1L << 40;
+        int lruHits = 0;
+        for ( int i = 0; i < 100000; i++ ) {
+            long key = ( i & 1 ) == 0 ? rand.nextInt( 150 ) : scan++;
+            if ( cache.get( key ) == null ) {
+                cache.put( key, key );
+            }
+            if ( lru.get( key ) == null ) {
+                lru.put( key, key );
+            } else {
+                lruHits++;
+            }
+        }
+
+        double lruHitRate = lruHits / 100000.0;
+        double hitRate = cache.stats().hitRate();
+        assertTrue( "LRU " + lruHitRate + ", cache " + hitRate, hitRate > 0.45 );
+        assertTrue( "LRU " + lruHitRate + ", cache " + hitRate, hitRate > lruHitRate + 0.1 );
+    }
+
+
+    public void testFrequencySketch() {
+        FrequencySketch sketch = new FrequencySketch( 512 );
+        assertEquals( 0, sketch.frequency( 42 ) );
+        for ( int i = 0; i < 20; i++ ) {
+            sketch.increment( 42 );
+        }
+        assertEquals( 15, sketch.frequency( 42 ) );
+
+        sketch.increment( 7 );
+        sketch.increment( 7 );
+        assertTrue( sketch.frequency( 7 ) >= 2 );
+
+        // aging halves the counts after ten increments per expected item
+        for ( int i = 0; i < 5120; i++ ) {
+            sketch.increment( 100000 + i );
+        }
+        assertTrue( sketch.frequency( 42 ) <= 8 );
+
+        sketch.clear();
+        assertEquals( 0, sketch.frequency( 42 ) );
+    }
+
+
+    public void testSerialization() throws Exception {
+        TIntObjectCache<String> cache = new TIntObjectCache<String>( 5 );
+        for ( int i = 0; i < 5; i++ ) {
+            cache.put( i, "v" + i );
+        }
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( cache );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        TIntObjectCache<String> deserialized =
+            ( TIntObjectCache<String> ) oin.readObject();
+
+        assertEquals( 5, deserialized.getMaximumSize() );
+        assertEquals( 5, deserialized.size() );
+        for ( int i = 0; i < 5; i++ ) {
+            assertEquals( "v" + i, deserialized.peek( i ) );
+        }
+    }
+}
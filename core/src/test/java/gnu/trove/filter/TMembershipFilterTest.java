@@ -0,0 +1,201 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.filter;
+
+import gnu.trove.set.hash.TIntFilteredHashSet;
+import gnu.trove.set.hash.TLongFilteredHashSet;
+import gnu.trove.set.hash.TLongHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TMembershipFilterTest extends TestCase {
+
+    public TMembershipFilterTest( String name ) {
+        super( name );
+    }
+
+
+    private static Object roundTrip( Object object ) throws Exception {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( object );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        return oin.readObject();
+    }
+
+
+    /** Returns the fraction of 100000 values never added that the filter reports. */
+    private static double falsePositives( TMembershipFilter filter, long first ) {
+        int positives = 0;
+        for ( long i = 0; i < 100000; i++ ) {
+            if ( filter.mightContain( first + i ) ) {
+                positives++;
+            }
+        }
+        return positives / 100000.0;
+    }
+
+
+    public void testBloom() throws Exception {
+        TBlockedBloomFilter filter = new TBlockedBloomFilter( 100000, 0.01 );
+        assertFalse( filter.mightContain( 7L ) );
+        assertEquals( 0.0, filter.falsePositiveProbability() );
+
+        Random rand = new Random( 37 );
+        long[] values = new long[ 100000 ];
+        for ( int i = 0; i < values.length; i++ ) {
+            values[ i ] = rand.nextLong();
+            filter.add( values[ i ] );
+        }
+        assertFalse( filter.add( values[ 0 ] ) );
+        for ( long value : values ) {
+            assertTrue( filter.mightContain( value ) );
+        }
+        double rate = falsePositives( filter, 1L << 40 );
+        assertTrue( String.valueOf( rate ), rate < 0.02 );
+        assertTrue( filter.falsePositiveProbability() < 0.02 );
+
+        assertTrue( filter.add( "trove" ) );
+        assertTrue( filter.mightContain( "trove" ) );
+        assertTrue( filter.add( 2.5 ) );
+        assertTrue( filter.mightContain( 2.5 ) );
+
+        TBlockedBloomFilter read = ( TBlockedBloomFilter ) roundTrip( filter );
+        for ( long value : values ) {
+            assertTrue( read.mightContain( value ) );
+        }
+        assertEquals( filter.sizeInBytes(), read.sizeInBytes() );
+
+        filter.clear();
+        assertFalse( filter.mightContain( values[ 0 ] ) );
+    }
+
+
+    public void testBloomSizingLarge() {
+        // -8 * expectedValues overflowed an int past about 268 million values
+        int small = TBlockedBloomFilter.blocks( 100000000, 0.01 );
+        int large = TBlockedBloomFilter.blocks( 300000000, 0.01 );
+        assertTrue( small + " " + large, large > 2 * small );
+        assertEquals( 1 << 27, TBlockedBloomFilter.blocks( Integer.MAX_VALUE, 1e-9 ) );
+        assertEquals( 1, TBlockedBloomFilter.blocks( 0, 0.5 ) );
+    }
+
+
+    public void testCuckoo() throws Exception {
+        TCuckooFilter filter = new TCuckooFilter( 100000 );
+        for ( int i = 0; i < 100000; i++ ) {
+            assertTrue( filter.add( i * 31 ) );
+        }
+        assertFalse( filter.isFull() );
+        assertEquals( 100000, filter.size() );
+        for ( int i = 0; i < 100000; i++ ) {
+            assertTrue( filter.mightContain( i * 31 ) );
+        }
+        double rate = falsePositives( filter, 1L << 40 );
+        assertTrue( String.valueOf( rate ), rate < 0.001 );
+
+        // values are counted, so one of two additions can be removed
+        assertTrue( filter.add( 31 ) );
+        assertTrue( filter.remove( 31 ) );
+        assertTrue( filter.mightContain( 31 ) );
+
+        for ( int i = 0; i < 100000; i += 2 ) {
+            assertTrue( filter.remove( i * 31 ) );
+        }
+        assertEquals( 50000, filter.size() );
+        for ( int i = 1; i < 100000; i += 2 ) {
+            assertTrue( filter.mightContain( i * 31 ) );
+        }
+        assertTrue( falsePositives( filter, 1L << 40 ) < 0.0005 );
+
+        TCuckooFilter read = ( TCuckooFilter ) roundTrip( filter );
+        assertEquals( 50000, read.size() );
+        for ( int i = 1; i < 100000; i += 2 ) {
+            assertTrue( read.mightContain( i * 31 ) );
+        }
+
+        filter.clear();
+        assertEquals( 0, filter.size() );
+        assertFalse( filter.mightContain( 31 ) );
+    }
+
+
+    public void testCuckooFull() {
+        TCuckooFilter filter = new TCuckooFilter( 64 );
+        int added = 0;
+        while ( filter.add( added ) ) {
+            added++;
+        }
+        assertTrue( filter.isFull() );
+        assertTrue( added > 64 );
+        for ( int i = 0; i < added; i++ ) {
+            assertTrue( filter.mightContain( i ) );
+        }
+
+        // removing a value makes room again, and nothing is lost on the way
+        assertTrue( filter.remove( 0 ) );
+        for ( int i = 1; i < added; i++ ) {
+            assertTrue( filter.mightContain( i ) );
+        }
+        assertEquals( added - 1, filter.size() );
+    }
+
+
+    public void testFilteredSet() throws Exception {
+        Random rand = new Random( 41 );
+        TLongFilteredHashSet set = new TLongFilteredHashSet();
+        TLongHashSet reference = new TLongHashSet();
+        for ( int i = 0; i < 200000; i++ ) {
+            long value = rand.nextInt( 100000 );
+            if ( rand.nextInt( 3 ) == 0 ) {
+                assertEquals( reference.remove( value ), set.remove( value ) );
+            } else {
+                assertEquals( reference.add( value ), set.add( value ) );
+            }
+        }
+        assertEquals( reference, set );
+        for ( long value = -1000; value < 101000; value++ ) {
+            assertEquals( reference.contains( value ), set.contains( value ) );
+        }
+
+        TLongFilteredHashSet read = ( TLongFilteredHashSet ) roundTrip( set );
+        assertEquals( set, read );
+        assertTrue( read.contains( reference.iterator().next() ) );
+
+        set.clear();
+        assertFalse( set.contains( reference.iterator().next() ) );
+
+        TIntFilteredHashSet ints = new TIntFilteredHashSet( new int[]{ 1, 2, 3 } );
+        assertTrue( ints.contains( 2 ) );
+        assertFalse( ints.contains( 4 ) );
+        assertTrue( ints.retainAll( new int[]{ 2 } ) );
+        assertFalse( ints.contains( 1 ) );
+        assertEquals( 1, ints.size() );
+    }
+}
@@ -2,6 +2,7 @@ package gnu.trove.impl.hash;
 
 import gnu.trove.impl.PrimeFinder;
 import gnu.trove.set.hash.TByteHashSet;
+import gnu.trove.strategy.GrowthPolicy;
 import junit.framework.TestCase;
 import gnu.trove.set.hash.THashSet;
 import gnu.trove.map.hash.THashMap;
@@ -75,6 +76,17 @@ public class THashTest extends TestCase {
         assertTrue( "capacity was not large enough to hold desired elements" , set.capacity() > twentyFourBitPrime );
     }
 
+    public void testPrimeCapacityWithinArrayLimit() {
+        assertEquals( PrimeFinder.nextPrime( 1000 ), THash.primeCapacity( 1000 ) );
+        for ( int capacity : new int[]{ PrimeFinder.largestPrime - 1,
+            GrowthPolicy.MAX_ARRAY_SIZE, Integer.MAX_VALUE } ) {
+            int prime = THash.primeCapacity( capacity );
+            assertTrue( String.valueOf( prime ), prime <= GrowthPolicy.MAX_ARRAY_SIZE );
+            assertEquals( PrimeFinder.largestPrime, prime );
+        }
+    }
+
+
     public void testReusesRemovedSlotsOnCollision() {
         THashSet<Object> set = new THashSet<Object>( 11, 0.5f );
 
@@ -269,4 +281,92 @@ public class THashTest extends TestCase {
         assertEquals( original_hash._loadFactor, deserialized_hash._loadFactor );
     }
 
+
+    public void testStatistics() {
+        TIntLongHashMap map = new TIntLongHashMap();
+        map.setAutoCompactionFactor( 0 );
+        assertFalse( map.isStatisticsEnabled() );
+        map.setStatisticsEnabled( true );
+        for ( int i = 0; i < 1000; i++ ) {
+            map.put( i, i );
+        }
+        THashStatistics statistics = map.getStatistics();
+        assertEquals( 1000, statistics.getSize() );
+        assertEquals( map.capacity(), statistics.getScannedSlots() );
+        assertEquals( 1000, statistics.getFullSlots() );
+        assertEquals( 0, statistics.getRemovedSlots() );
+        assertTrue( statistics.getAverageProbeLength() >= 1 );
+        assertTrue( statistics.getMaxProbeLength() >= 1 );
+        long entries = 0;
+        for ( long count : statistics.getProbeLengthHistogram() ) {
+            entries += count;
+        }
+        assertEquals( 1000, entries );
+        assertTrue( statistics.getRehashCount() > 0 );
+        assertEquals( 0, statistics.getSameCapacityRehashCount() );
+        assertEquals( 0, statistics.getCompactionCount() );
+
+        for ( int i = 0; i < 100; i++ ) {
+            map.remove( i );
+        }
+        assertEquals( 100, map.getStatistics().getRemovedSlots() );
+        map.compact();
+        statistics = map.getStatistics();
+        assertEquals( 0, statistics.getRemovedSlots() );
+        assertEquals( 900, statistics.getFullSlots() );
+        assertEquals( 1, statistics.getCompactionCount() );
+
+        assertTrue( map.getStatistics( 10 ).getScannedSlots() <= 20 );
+        assertTrue( map.getStatistics( 10 ).getScannedSlots() >= 10 );
+
+        map.setStatisticsEnabled( false );
+        assertEquals( 0, map.getStatistics().getRehashCount() );
+        assertEquals( 900, map.getStatistics().getFullSlots() );
+    }
+
+
+    public void testSameCapacityRehashStatistics() {
+        TIntLongHashMap map = new TIntLongHashMap( 100 );
+        map.setAutoCompactionFactor( 0 );
+        map.setStatisticsEnabled( true );
+        int capacity = map.capacity();
+        for ( int i = 0; i < 10 * capacity; i++ ) {
+            map.put( i, i );
+            map.remove( i );
+        }
+        assertEquals( capacity, map.capacity() );
+        THashStatistics statistics = map.getStatistics();
+        assertTrue( statistics.getSameCapacityRehashCount() > 0 );
+        assertEquals( statistics.getSameCapacityRehashCount(), statistics.getRehashCount() );
+    }
+
+
+    public void testProbeLengthStatistics() {
+        THashSet<Object> good = new THashSet<Object>();
+        THashSet<Object> bad = new THashSet<Object>();
+        for ( int i = 0; i < 100; i++ ) {
+            good.add( Integer.valueOf( i ) );
+            final int value = i;
+            bad.add( new Object() {
+                @Override
+                public int hashCode() {
+                    return 42;
+                }
+
+                @Override
+                public boolean equals( Object other ) {
+                    return other == this;
+                }
+
+                @Override
+                public String toString() {
+                    return String.valueOf( value );
+                }
+            } );
+        }
+        assertEquals( 1.0, good.getStatistics().getAverageProbeLength(), 0.0 );
+        assertEquals( 100, bad.getStatistics().getMaxProbeLength() );
+        assertEquals( 50.5, bad.getStatistics().getAverageProbeLength(), 0.0 );
+        assertEquals( 85, bad.getStatistics().getProbeLengthHistogram()[ THashStatistics.HISTOGRAM_BUCKETS - 1 ] );
+    }
 }
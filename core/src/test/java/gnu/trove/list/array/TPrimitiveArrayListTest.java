@@ -8,6 +8,7 @@ import gnu.trove.list.TIntList;
 import gnu.trove.procedure.TIntProcedure;
 import gnu.trove.set.TIntSet;
 import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.strategy.GrowthPolicy;
 import junit.framework.TestCase;
 
 import java.io.ByteArrayInputStream;
@@ -1597,4 +1598,191 @@ public class TPrimitiveArrayListTest extends TestCase {
 
         assertEquals( list, new_list );
     }
+
+
+    public void testRadixSort() {
+        Random rand = new Random( 53 );
+        int[] ints = new int[ 50000 ];
+        long[] longs = new long[ ints.length ];
+        double[] doubles = new double[ ints.length ];
+        char[] chars = new char[ ints.length ];
+        for ( int i = 0; i < ints.length; i++ ) {
+            ints[ i ] = rand.nextInt();
+            longs[ i ] = rand.nextBoolean() ? rand.nextLong() : rand.nextInt( 100 ) - 50;
+            doubles[ i ] = rand.nextGaussian();
+            chars[ i ] = ( char ) rand.nextInt();
+        }
+        doubles[ 0 ] = Double.NaN;
+        doubles[ 1 ] = -0.0;
+        doubles[ 2 ] = 0.0;
+        doubles[ 3 ] = Double.NEGATIVE_INFINITY;
+        doubles[ 4 ] = Double.POSITIVE_INFINITY;
+
+        TIntArrayList intList = new TIntArrayList( ints );
+        intList.radixSort();
+        Arrays.sort( ints );
+        assertTrue( Arrays.equals( ints, intList.toArray() ) );
+
+        TLongArrayList longList = new TLongArrayList( longs );
+        longList.radixSort( 100, 40000 );
+        Arrays.sort( longs, 100, 40000 );
+        assertTrue( Arrays.equals( longs, longList.toArray() ) );
+
+        TDoubleArrayList doubleList = new TDoubleArrayList( doubles );
+        doubleList.radixSort();
+        Arrays.sort( doubles );
+        assertTrue( Arrays.equals( doubles, doubleList.toArray() ) );
+
+        TCharArrayList charList = new TCharArrayList( chars );
+        charList.radixSort();
+        Arrays.sort( chars );
+        assertTrue( Arrays.equals( chars, charList.toArray() ) );
+
+        // a slice that is already sorted, and one that is too short to need it
+        intList.radixSort();
+        assertTrue( Arrays.equals( ints, intList.toArray() ) );
+        TFloatArrayList floatList = new TFloatArrayList( new float[]{ 2f, Float.NaN, -0f, 0f, -1f } );
+        floatList.radixSort();
+        assertTrue( Arrays.equals( new float[]{ -1f, -0f, 0f, 2f, Float.NaN }, floatList.toArray() ) );
+
+        try {
+            intList.radixSort( 0, intList.size() + 1 );
+            fail( "Expected ArrayIndexOutOfBoundsException" );
+        }
+        catch ( ArrayIndexOutOfBoundsException ex ) {
+            // expected
+        }
+    }
+
+
+    public void testParallelSort() {
+        Random rand = new Random( 59 );
+        float[] floats = new float[ 30001 ];
+        for ( int i = 0; i < floats.length; i++ ) {
+            floats[ i ] = rand.nextInt( 1000 ) - 500.5f;
+        }
+        floats[ 7 ] = Float.NaN;
+        floats[ 8 ] = -0f;
+        float[] expected = floats.clone();
+        Arrays.sort( expected, 1, 30000 );
+
+        // more parts than processors still sorts, as does an odd number of runs
+        for ( int parts = 2; parts <= 5; parts++ ) {
+            float[] actual = floats.clone();
+            TFloatArrayList.parallelSort( actual, 1, 30000, parts );
+            assertTrue( Arrays.equals( expected, actual ) );
+        }
+
+        TFloatArrayList list = new TFloatArrayList( floats );
+        list.parallelSort( 1, 30000 );
+        assertTrue( Arrays.equals( expected, list.toArray() ) );
+    }
+
+
+    public void testPairSort() {
+        Random rand = new Random( 61 );
+        for ( int length : new int[]{ 0, 20, 20000 } ) {
+            TLongArrayList keys = new TLongArrayList();
+            TIntArrayList payload = new TIntArrayList();
+            for ( int i = 0; i < length; i++ ) {
+                keys.add( rand.nextInt( length / 4 + 1 ) - length / 8 );
+                payload.add( i );
+            }
+            long[] original = keys.toArray();
+            TLongIntPairSort.sort( keys, payload );
+
+            long[] sorted = original.clone();
+            Arrays.sort( sorted );
+            assertTrue( Arrays.equals( sorted, keys.toArray() ) );
+            for ( int i = 0; i < length; i++ ) {
+                assertEquals( original[ payload.get( i ) ], keys.get( i ) );
+                // the sort is stable
+                if ( i > 0 && keys.get( i ) == keys.get( i - 1 ) ) {
+                    assertTrue( payload.get( i ) > payload.get( i - 1 ) );
+                }
+            }
+        }
+
+        double[] keys = { 3.0, Double.NaN, -1.0, 3.0 };
+        byte[] payload = { 0, 1, 2, 3 };
+        TDoubleBytePairSort.sort( keys, payload );
+        assertTrue( Arrays.equals( new double[]{ -1.0, 3.0, 3.0, Double.NaN }, keys ) );
+        assertTrue( Arrays.equals( new byte[]{ 2, 0, 3, 1 }, payload ) );
+
+        try {
+            TLongIntPairSort.sort( new TLongArrayList( new long[ 2 ] ), new TIntArrayList() );
+            fail( "Expected IllegalArgumentException" );
+        }
+        catch ( IllegalArgumentException ex ) {
+            // expected
+        }
+    }
+
+
+    public void testBulkKernels() {
+        TDoubleArrayList a = new TDoubleArrayList( new double[]{ 1, -2, Double.NaN, 4, 4 } );
+        TDoubleArrayList b = new TDoubleArrayList( new double[]{ 2, 2, 0, 1, 0.5 } );
+        assertEquals( 4.0, a.max() );
+        assertEquals( -2.0, a.min() );
+        assertEquals( 3, a.indexOf( 4 ) );
+        assertEquals( -1, a.indexOf( Double.NaN ) );
+        assertTrue( a.containsAll( new double[]{ 4, 1 } ) );
+        assertEquals( 2, a.count( 4 ) );
+        assertEquals( 3, a.countGreaterThan( 0 ) );
+        assertEquals( 1, a.countLessThan( 0 ) );
+        assertEquals( 5.5, b.sum() );
+
+        a.set( 2, 3 );
+        assertEquals( 1 * 2 - 2 * 2 + 3 * 0 + 4 * 1 + 4 * 0.5, a.dot( b ) );
+        a.addElementwise( b );
+        assertTrue( Arrays.equals( new double[]{ 3, 0, 3, 5, 4.5 }, a.toArray() ) );
+        a.multiplyElementwise( b );
+        assertTrue( Arrays.equals( new double[]{ 6, 0, 0, 5, 2.25 }, a.toArray() ) );
+
+        try {
+            a.dot( new TDoubleArrayList() );
+            fail( "Expected IllegalArgumentException" );
+        }
+        catch ( IllegalArgumentException ex ) {
+            // expected
+        }
+
+        TIntArrayList ints = new TIntArrayList( new int[]{ Integer.MAX_VALUE, 1, 7 } );
+        assertEquals( Integer.MIN_VALUE + 7, ints.sum() );
+        assertEquals( 1, ints.min() );
+        assertEquals( 2, ints.lastIndexOf( 7 ) );
+    }
+
+
+    public void testGrowthPolicy() {
+        TIntArrayList list = new TIntArrayList( 10, 0, GrowthPolicy.factor( 1.5 ) );
+        for ( int i = 0; i < 11; i++ ) {
+            list.add( i );
+        }
+        assertEquals( 15, list._data.length );
+
+        list = new TIntArrayList( 10 );
+        list.setGrowthPolicy( GrowthPolicy.increment( 100 ) );
+        for ( int i = 0; i < 11; i++ ) {
+            list.add( i );
+        }
+        assertEquals( 110, list._data.length );
+
+        list.setGrowthPolicy( GrowthPolicy.shrinkWhenSparse( GrowthPolicy.DOUBLING, 0.25f ) );
+        list.remove( 1, 9 );
+        assertEquals( 56, list._data.length );
+        assertEquals( 10, list.get( 1 ) );
+        list.clear();
+        assertEquals( 56, list._data.length );
+        list.add( new int[ 100 ] );
+        assertEquals( 112, list._data.length );
+        list.remove( 0, 80 );
+        assertEquals( 66, list._data.length );
+        assertEquals( 20, list.size() );
+
+        list.setGrowthPolicy( GrowthPolicy.shrinkOnClear( GrowthPolicy.DOUBLING ) );
+        list.clear();
+        assertEquals( 10, list._data.length );
+        assertEquals( 0, list.size() );
+    }
 }
@@ -0,0 +1,170 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+package gnu.trove.list.array;
+
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.procedure.TLongProcedure;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ *
+ */
+public class TPrimitiveBigArrayListTest extends TestCase {
+
+    public TPrimitiveBigArrayListTest( String name ) {
+        super( name );
+    }
+
+
+    public void testAddGetSet() {
+        // segments of 16 values, so that most operations cross segments
+        TLongBigArrayList list = new TLongBigArrayList( 0, 4 );
+        assertTrue( list.isEmpty() );
+        for ( long i = 0; i < 100; i++ ) {
+            list.add( i * 3 );
+        }
+        assertEquals( 100, list.size() );
+        assertEquals( 112, list.capacity() );
+        assertEquals( 99 * 3, list.get( 99 ) );
+        assertEquals( 45, list.set( 15, -1 ) );
+        assertEquals( -1, list.get( 15 ) );
+
+        long[] values = new long[ 40 ];
+        for ( int i = 0; i < values.length; i++ ) {
+            values[ i ] = 1000 + i;
+        }
+        list.add( values, 5, 35 );
+        assertEquals( 135, list.size() );
+        assertEquals( 1005, list.get( 100 ) );
+        assertEquals( 1039, list.get( 134 ) );
+
+        long[] dest = list.get( 10, new long[ 22 ], 1, 20 );
+        assertEquals( 0, dest[ 0 ] );
+        assertEquals( 30, dest[ 1 ] );
+        assertEquals( -1, dest[ 6 ] );
+        assertEquals( 29 * 3, dest[ 20 ] );
+
+        list.set( 30, values, 0, 20 );
+        assertEquals( 1019, list.get( 49 ) );
+        assertEquals( 50 * 3, list.get( 50 ) );
+
+        list.fill( 14, 40, 7 );
+        assertEquals( 13 * 3, list.get( 13 ) );
+        assertEquals( 7, list.get( 14 ) );
+        assertEquals( 7, list.get( 39 ) );
+        assertEquals( 1010, list.get( 40 ) );
+
+        try {
+            list.get( 135 );
+            fail( "Expected ArrayIndexOutOfBoundsException" );
+        }
+        catch ( ArrayIndexOutOfBoundsException ex ) {
+            // expected
+        }
+        try {
+            list.get( 130, new long[ 10 ], 0, 10 );
+            fail( "Expected ArrayIndexOutOfBoundsException" );
+        }
+        catch ( ArrayIndexOutOfBoundsException ex ) {
+            // expected
+        }
+
+        list.truncate( 20 );
+        list.trimToSize();
+        assertEquals( 20, list.size() );
+        assertEquals( 32, list.capacity() );
+        list.add( 5 );
+        assertEquals( 5, list.get( 20 ) );
+
+        list.clear();
+        assertEquals( 0, list.capacity() );
+        list.add( 1 );
+        assertEquals( 1, list.size() );
+    }
+
+
+    public void testIteration() throws Exception {
+        TLongBigArrayList list = new TLongBigArrayList( 1000, 6 );
+        for ( long i = 0; i < 1000; i++ ) {
+            list.add( i );
+        }
+
+        final long[] sum = new long[ 1 ];
+        assertTrue( list.forEach( new TLongProcedure() {
+            public boolean execute( long value ) {
+                sum[ 0 ] += value;
+                return true;
+            }
+        } ) );
+        assertEquals( 999 * 1000 / 2, sum[ 0 ] );
+
+        final int[] calls = new int[ 1 ];
+        assertTrue( list.forEachSegment( 60, 200, new TLongBigArrayList.SegmentProcedure() {
+            public boolean execute( long index, long[] segment, int offset, int length ) {
+                calls[ 0 ]++;
+                assertEquals( index, segment[ offset ] );
+                assertEquals( index + length - 1, segment[ offset + length - 1 ] );
+                return true;
+            }
+        } ) );
+        assertEquals( 4, calls[ 0 ] );
+
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        assertTrue( list.forEachSegmentParallel( new TLongBigArrayList.SegmentProcedure() {
+            public boolean execute( long index, long[] segment, int offset, int length ) {
+                for ( int i = offset; i < offset + length; i++ ) {
+                    total.addAndGet( segment[ i ] );
+                }
+                count.addAndGet( length );
+                return true;
+            }
+        } ) );
+        assertEquals( 1000, count.get() );
+        assertEquals( sum[ 0 ], total.get() );
+
+        TLongIterator iterator = list.iterator();
+        for ( long i = 0; i < 1000; i++ ) {
+            assertEquals( i, iterator.next() );
+        }
+        assertFalse( iterator.hasNext() );
+
+        long[] expected = new long[ 1000 ];
+        for ( int i = 0; i < expected.length; i++ ) {
+            expected[ i ] = i;
+        }
+        assertTrue( Arrays.equals( expected, list.toArray() ) );
+        assertEquals( new TLongArrayList( expected ).hashCode(), list.hashCode() );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( list );
+        oout.close();
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        TLongBigArrayList read = ( TLongBigArrayList ) oin.readObject();
+        assertEquals( list, read );
+        assertEquals( 64, read.getSegmentSize() );
+    }
+}
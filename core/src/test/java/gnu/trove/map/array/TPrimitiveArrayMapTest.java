@@ -0,0 +1,174 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.map.array;
+
+import gnu.trove.iterator.TByteIntIterator;
+import gnu.trove.iterator.TShortIterator;
+import gnu.trove.map.hash.TByteIntHashMap;
+import gnu.trove.map.hash.TShortLongHashMap;
+import gnu.trove.procedure.TCharProcedure;
+import gnu.trove.set.hash.TShortHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveArrayMapTest extends TestCase {
+
+    public TPrimitiveArrayMapTest( String name ) {
+        super( name );
+    }
+
+
+    public void testBasic() {
+        TByteIntArrayMap map = new TByteIntArrayMap();
+        assertEquals( 256, TByteIntArrayMap.KEY_SPACE );
+        assertTrue( map.isEmpty() );
+        assertEquals( 0, map.get( Byte.MIN_VALUE ) );
+
+        assertEquals( 0, map.put( Byte.MIN_VALUE, 1 ) );
+        assertEquals( 0, map.put( Byte.MAX_VALUE, 2 ) );
+        assertEquals( 0, map.put( ( byte ) 0, 3 ) );
+        assertEquals( 3, map.put( ( byte ) 0, 4 ) );
+        assertEquals( 3, map.size() );
+        assertEquals( 1, map.get( Byte.MIN_VALUE ) );
+        assertEquals( 2, map.get( Byte.MAX_VALUE ) );
+        assertTrue( map.containsKey( ( byte ) 0 ) );
+        assertFalse( map.containsKey( ( byte ) 1 ) );
+        assertTrue( map.containsValue( 4 ) );
+        assertEquals( "{-128=1, 0=4, 127=2}", map.toString() );
+        assertTrue( Arrays.equals( new byte[]{ Byte.MIN_VALUE, 0, Byte.MAX_VALUE }, map.keys() ) );
+        assertTrue( Arrays.equals( new int[]{ 1, 4, 2 }, map.values() ) );
+
+        assertEquals( 4, map.putIfAbsent( ( byte ) 0, 9 ) );
+        assertTrue( map.increment( ( byte ) 0 ) );
+        assertFalse( map.adjustValue( ( byte ) 5, 1 ) );
+        assertEquals( 7, map.adjustOrPutValue( ( byte ) 5, 1, 7 ) );
+        assertEquals( 8, map.adjustOrPutValue( ( byte ) 5, 1, 7 ) );
+        assertEquals( 5, map.remove( ( byte ) 0 ) );
+        assertEquals( 0, map.remove( ( byte ) 0 ) );
+        assertEquals( 0, map.get( ( byte ) 0 ) );
+        assertEquals( 3, map.size() );
+
+        TByteIntHashMap hash = new TByteIntHashMap( map );
+        assertEquals( hash, map );
+        assertEquals( map, hash );
+        assertEquals( hash.hashCode(), map.hashCode() );
+
+        TByteIntIterator iter = map.iterator();
+        iter.advance();
+        assertEquals( Byte.MIN_VALUE, iter.key() );
+        iter.remove();
+        iter.advance();
+        assertEquals( 8, iter.setValue( 80 ) );
+        assertEquals( 80, map.get( ( byte ) 5 ) );
+        assertEquals( 2, map.size() );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertEquals( 0, map.get( Byte.MAX_VALUE ) );
+        assertFalse( map.iterator().hasNext() );
+    }
+
+
+    public void testGrowth() {
+        TCharDoubleArrayMap map = new TCharDoubleArrayMap( 0, -1 );
+        assertEquals( 65536, TCharDoubleArrayMap.KEY_SPACE );
+        assertEquals( -1.0, map.get( Character.MAX_VALUE ) );
+
+        map.put( 'a', 1 );
+        map.put( '中', 2 );
+        map.put( Character.MAX_VALUE, 3 );
+        assertEquals( -1.0, map.get( 'b' ) );
+        assertEquals( -1.0, map.get( '丬' ) );
+        assertEquals( 2.0, map.get( '中' ) );
+        assertEquals( 3.0, map.get( Character.MAX_VALUE ) );
+
+        final StringBuilder keys = new StringBuilder();
+        map.forEachKey( new TCharProcedure() {
+            public boolean execute( char key ) {
+                keys.append( key );
+                return true;
+            }
+        } );
+        assertEquals( "a中" + Character.MAX_VALUE, keys.toString() );
+
+        assertEquals( 3.0, map.remove( Character.MAX_VALUE ) );
+        assertEquals( -1.0, map.get( Character.MAX_VALUE ) );
+    }
+
+
+    public void testAgainstHashMap() throws Exception {
+        Random rand = new Random( 17 );
+        TShortLongArrayMap map = new TShortLongArrayMap();
+        TShortLongHashMap reference = new TShortLongHashMap();
+        for ( int i = 0; i < 100000; i++ ) {
+            short key = ( short ) ( rand.nextBoolean() ? rand.nextInt( 512 ) : rand.nextInt() );
+            switch ( rand.nextInt( 4 ) ) {
+                case 0:
+                    assertEquals( reference.remove( key ), map.remove( key ) );
+                    break;
+                case 1:
+                    assertEquals( reference.adjustOrPutValue( key, 3, 1 ),
+                        map.adjustOrPutValue( key, 3, 1 ) );
+                    break;
+                default:
+                    long value = rand.nextLong();
+                    assertEquals( reference.put( key, value ), map.put( key, value ) );
+                    break;
+            }
+            assertEquals( reference.get( key ), map.get( key ) );
+        }
+        assertEquals( reference, map );
+        assertEquals( reference.keySet(), map.keySet() );
+
+        short[] keys = reference.keys();
+        Arrays.sort( keys );
+        assertTrue( Arrays.equals( keys, map.keys() ) );
+
+        TShortIterator iter = map.keySet().iterator();
+        TShortHashSet removed = new TShortHashSet();
+        while ( iter.hasNext() ) {
+            short key = iter.next();
+            if ( key % 3 == 0 ) {
+                iter.remove();
+                removed.add( key );
+            }
+        }
+        assertEquals( reference.size() - removed.size(), map.size() );
+        for ( short key : keys ) {
+            assertEquals( ! removed.contains( key ), map.containsKey( key ) );
+        }
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( map );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        assertEquals( map, oin.readObject() );
+    }
+}
@@ -0,0 +1,254 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.map.hash;
+
+import gnu.trove.impl.hash.TimerWheel;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.set.hash.TIntHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ *
+ */
+public class TPrimitiveExpiringMapTest extends TestCase {
+
+    /** the clock seen by the maps under test, in milliseconds */
+    private long time = -5000;
+
+
+    public TPrimitiveExpiringMapTest( String name ) {
+        super( name );
+    }
+
+
+    private TLongObjectExpiringMap<String> newMap( long timeToLive ) {
+        return new TLongObjectExpiringMap<String>( timeToLive, TimeUnit.MILLISECONDS ) {
+            @Override
+            protected long now() {
+                return time;
+            }
+        };
+    }
+
+
+    public void testExpiry() {
+        TLongObjectExpiringMap<String> map = newMap( 1000 );
+        assertEquals( 1000, map.getTimeToLive( TimeUnit.MILLISECONDS ) );
+
+        map.put( 1, "a" );
+        map.put( 2, "b", 10, TimeUnit.SECONDS );
+        map.put( 3, "c", Long.MAX_VALUE, TimeUnit.DAYS );
+        assertEquals( 1000, map.getTimeToLive( 1, TimeUnit.MILLISECONDS ) );
+        assertEquals( Long.MAX_VALUE, map.getTimeToLive( 3, TimeUnit.MILLISECONDS ) );
+        assertEquals( -1, map.getTimeToLive( 4, TimeUnit.MILLISECONDS ) );
+
+        time += 999;
+        assertEquals( "a", map.get( 1 ) );
+        time += 1;
+        assertNull( map.get( 1 ) );
+        assertFalse( map.containsKey( 1 ) );
+        assertEquals( 2, map.size() );
+
+        // an expired entry counts as absent when it is replaced
+        map.put( 2, "b", 1, TimeUnit.MILLISECONDS );
+        time += 1;
+        assertNull( map.put( 2, "bb" ) );
+        assertEquals( "bb", map.putIfAbsent( 2, "x" ) );
+        assertTrue( map.setTimeToLive( 2, 5, TimeUnit.MILLISECONDS ) );
+        time += 5;
+        assertNull( map.remove( 2 ) );
+        assertFalse( map.setTimeToLive( 2, 5, TimeUnit.MILLISECONDS ) );
+
+        time += TimeUnit.DAYS.toMillis( 400 );
+        assertEquals( 0, map.expire() );
+        assertEquals( "c", map.get( 3 ) );
+        assertEquals( 1, map.size() );
+    }
+
+
+    public void testIdleMap() {
+        TLongObjectExpiringMap<String> map = newMap( 100 );
+        map.put( 1, "a" );
+        map.put( 2, "b" );
+        TLongObjectExpiringMap<String> same = newMap( 100 );
+        same.putAll( map );
+        assertEquals( map, same );
+
+        // nothing touches the map between the entries expiring and the reads
+        time += 1000;
+        assertTrue( map.isEmpty() );
+        map.put( 1, "a" );
+        map.put( 2, "b" );
+        time += 1000;
+        assertEquals( 0, map.size() );
+        map.put( 1, "a" );
+        time += 1000;
+        assertEquals( 0, map.keys().length );
+        assertEquals( 0, map.keys( new long[ 0 ] ).length );
+        map.put( 1, "a" );
+        time += 1000;
+        assertEquals( 0, map.values().length );
+        assertEquals( 0, map.values( new String[ 0 ] ).length );
+        map.put( 1, "a" );
+        time += 1000;
+        assertTrue( map.keySet().isEmpty() );
+        assertFalse( map.keySet().iterator().hasNext() );
+        map.put( 1, "a" );
+        time += 1000;
+        assertFalse( map.valueCollection().iterator().hasNext() );
+        map.put( 1, "a" );
+        time += 1000;
+        assertEquals( 0, map.hashCode() );
+        assertEquals( new TLongObjectHashMap<String>(), map );
+    }
+
+
+    public void testAmortizedReclamation() {
+        TLongObjectExpiringMap<String> map = newMap( 50 );
+        for ( long i = 0; i < 1000; i++ ) {
+            map.put( i, "v", i, TimeUnit.MILLISECONDS );
+        }
+        // the entry put with no time to live has already expired
+        assertEquals( 999, map.size() );
+
+        // passing time and touching the map reclaims the expired entries without
+        // an explicit sweep, within one 64ms tick
+        time += 500;
+        map.get( -1 );
+        int late = map.expire();
+        assertTrue( String.valueOf( late ), late <= 64 );
+
+        // an entry expires at the instant its time to live is used up
+        assertEquals( 499, map.size() );
+        for ( long i = 0; i < 1000; i++ ) {
+            assertEquals( i > 500, map.containsKey( i ) );
+        }
+    }
+
+
+    public void testAgainstReference() {
+        TLongObjectExpiringMap<String> map = newMap( 300 );
+        TLongLongHashMap expiries = new TLongLongHashMap();
+        Random rand = new Random( 3 );
+        for ( int i = 0; i < 50000; i++ ) {
+            time += rand.nextInt( 3 ) == 0 ? rand.nextInt( 100 ) : 0;
+            if ( rand.nextInt( 1000 ) == 0 ) {
+                // a long pause moves every level of the wheel
+                time += rand.nextInt( 100000000 );
+            }
+            long key = rand.nextInt( 400 );
+            switch ( rand.nextInt( 4 ) ) {
+                case 0: {
+                    long ttl = rand.nextInt( 10 ) == 0 ?
+                        rand.nextInt( 20000000 ) : rand.nextInt( 1000 );
+                    map.put( key, "v" + key, ttl, TimeUnit.MILLISECONDS );
+                    expiries.put( key, time + ttl );
+                    break;
+                }
+                case 1:
+                    map.put( key, "v" + key );
+                    expiries.put( key, time + 300 );
+                    break;
+                case 2:
+                    boolean live = expiries.containsKey( key ) && expiries.get( key ) > time;
+                    assertEquals( live ? "v" + key : null, map.get( key ) );
+                    break;
+                case 3:
+                    map.remove( key );
+                    expiries.remove( key );
+                    break;
+            }
+        }
+
+        map.expire();
+        int live = 0;
+        for ( long key : expiries.keys() ) {
+            if ( expiries.get( key ) > time ) {
+                live++;
+                assertTrue( map.containsKey( key ) );
+            }
+        }
+        assertEquals( live, map.size() );
+    }
+
+
+    public void testTimerWheel() {
+        final TIntHashSet expired = new TIntHashSet();
+        TIntProcedure collect = new TIntProcedure() {
+            public boolean execute( int slot ) {
+                assertTrue( expired.add( slot ) );
+                return true;
+            }
+        };
+        TimerWheel wheel = new TimerWheel( 8, 1000 );
+        wheel.schedule( 0, 1010 );
+        wheel.schedule( 1, 1000 + 5000 );
+        wheel.schedule( 2, 1000 + 400000 );
+        wheel.schedule( 3, 1000 + 40000000000L );
+        wheel.schedule( 4, 500 );
+        wheel.schedule( 5, 2000 );
+        wheel.cancel( 5 );
+
+        wheel.advance( 1100, collect );
+        assertEquals( new TIntHashSet( new int[]{ 0, 4 } ), expired );
+        wheel.advance( 6000, collect );
+        wheel.expireCurrent( 6000, collect );
+        assertEquals( new TIntHashSet( new int[]{ 0, 4, 1 } ), expired );
+        wheel.advance( 400999, collect );
+        wheel.expireCurrent( 400999, collect );
+        assertEquals( 3, expired.size() );
+        wheel.advance( 401100, collect );
+        assertEquals( new TIntHashSet( new int[]{ 0, 4, 1, 2 } ), expired );
+        wheel.advance( 1000 + 40000000000L, collect );
+        wheel.expireCurrent( 1000 + 40000000000L, collect );
+        assertEquals( 5, expired.size() );
+        assertEquals( TimerWheel.NEVER, wheel.getExpiry( 3 ) );
+    }
+
+
+    public void testSerialization() throws Exception {
+        TLongObjectExpiringMap<String> map =
+            new TLongObjectExpiringMap<String>( 1000, TimeUnit.MILLISECONDS );
+        map.put( 1, "a" );
+        map.put( 2, "b", Long.MAX_VALUE, TimeUnit.MILLISECONDS );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( map );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        TLongObjectExpiringMap<String> deserialized =
+            ( TLongObjectExpiringMap<String> ) oin.readObject();
+
+        assertEquals( map, deserialized );
+        assertEquals( 1000, deserialized.getTimeToLive( TimeUnit.MILLISECONDS ) );
+        long remaining = deserialized.getTimeToLive( 1, TimeUnit.MILLISECONDS );
+        assertTrue( remaining > 0 && remaining <= 1000 );
+        assertEquals( Long.MAX_VALUE, deserialized.getTimeToLive( 2, TimeUnit.MILLISECONDS ) );
+    }
+}
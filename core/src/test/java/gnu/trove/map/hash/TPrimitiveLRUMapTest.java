@@ -0,0 +1,222 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.map.hash;
+
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.procedure.TLongObjectProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveLRUMapTest extends TestCase {
+
+    public TPrimitiveLRUMapTest( String name ) {
+        super( name );
+    }
+
+
+    private static TLongArrayList order( TLongObjectLRUMap<?> map ) {
+        final TLongArrayList keys = new TLongArrayList();
+        map.forEachKey( new TLongProcedure() {
+            public boolean execute( long key ) {
+                keys.add( key );
+                return true;
+            }
+        } );
+        return keys;
+    }
+
+
+    public void testEvictsLeastRecentlyUsed() {
+        final TLongArrayList evicted = new TLongArrayList();
+        TLongObjectLRUMap<String> map = new TLongObjectLRUMap<String>( 3,
+            new TLongObjectProcedure<String>() {
+                public boolean execute( long key, String value ) {
+                    evicted.add( key );
+                    assertEquals( "v" + key, value );
+                    return true;
+                }
+            } );
+
+        map.put( 1, "v1" );
+        map.put( 2, "v2" );
+        map.put( 3, "v3" );
+        assertEquals( 1, map.eldestKey() );
+
+        // get promotes, peek and containsKey do not
+        assertEquals( "v1", map.get( 1 ) );
+        assertEquals( "v2", map.peek( 2 ) );
+        assertTrue( map.containsKey( 2 ) );
+        assertEquals( new TLongArrayList( new long[]{ 2, 3, 1 } ), order( map ) );
+
+        map.put( 4, "v4" );
+        assertEquals( 3, map.size() );
+        assertFalse( map.containsKey( 2 ) );
+        assertEquals( new TLongArrayList( new long[]{ 2 } ), evicted );
+
+        // replacing a value promotes without evicting
+        map.put( 3, "v3" );
+        assertEquals( new TLongArrayList( new long[]{ 1, 4, 3 } ), order( map ) );
+        assertEquals( 1, evicted.size() );
+
+        assertEquals( "v4", map.putIfAbsent( 4, "x" ) );
+        assertNull( map.putIfAbsent( 5, "v5" ) );
+        assertEquals( new TLongArrayList( new long[]{ 3, 4, 5 } ), order( map ) );
+        assertEquals( new TLongArrayList( new long[]{ 2, 1 } ), evicted );
+
+        // explicit removal is not an eviction
+        assertEquals( "v4", map.remove( 4 ) );
+        assertEquals( new TLongArrayList( new long[]{ 3, 5 } ), order( map ) );
+        assertEquals( 2, evicted.size() );
+
+        map.setMaxSize( 1 );
+        assertEquals( new TLongArrayList( new long[]{ 5 } ), order( map ) );
+        assertEquals( new TLongArrayList( new long[]{ 2, 1, 3 } ), evicted );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertEquals( 0, map.eldestKey() );
+        map.put( 9, "v9" );
+        assertEquals( new TLongArrayList( new long[]{ 9 } ), order( map ) );
+    }
+
+
+    public void testAgainstLinkedHashMap() {
+        final int max = 50;
+        Map<Long,Long> expected = new LinkedHashMap<Long,Long>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Long,Long> eldest ) {
+                return size() > max;
+            }
+        };
+        // a small initial table with the default max forces rehashing and compaction
+        TLongObjectLRUMap<Long> map = new TLongObjectLRUMap<Long>();
+        map.setMaxSize( max );
+
+        Random rand = new Random( 5 );
+        for ( int i = 0; i < 20000; i++ ) {
+            long key = rand.nextInt( 120 );
+            switch ( rand.nextInt( 4 ) ) {
+                case 0:
+                case 1:
+                    assertEquals( expected.put( key, key * i ), map.put( key, key * i ) );
+                    break;
+                case 2:
+                    assertEquals( expected.get( key ), map.get( key ) );
+                    break;
+                case 3:
+                    assertEquals( expected.remove( key ), map.remove( key ) );
+                    break;
+            }
+        }
+
+        assertEquals( expected.size(), map.size() );
+        Iterator<Map.Entry<Long,Long>> expectedIter = expected.entrySet().iterator();
+        TLongObjectIterator<Long> iter = map.iterator();
+        while ( iter.hasNext() ) {
+            iter.advance();
+            Map.Entry<Long,Long> entry = expectedIter.next();
+            assertEquals( entry.getKey().longValue(), iter.key() );
+            assertEquals( entry.getValue(), iter.value() );
+        }
+        assertFalse( expectedIter.hasNext() );
+    }
+
+
+    public void testIteratorRemove() {
+        TLongObjectLRUMap<String> map = new TLongObjectLRUMap<String>( 100 );
+        for ( long i = 0; i < 100; i++ ) {
+            map.put( i, String.valueOf( i ) );
+        }
+        TLongObjectIterator<String> iter = map.iterator();
+        while ( iter.hasNext() ) {
+            iter.advance();
+            if ( iter.key() % 2 == 0 ) {
+                iter.remove();
+            } else {
+                iter.setValue( "odd" );
+            }
+        }
+        assertEquals( 50, map.size() );
+        assertEquals( 1, map.eldestKey() );
+        assertEquals( "odd", map.get( 99 ) );
+        assertNull( map.get( 98 ) );
+    }
+
+
+    public void testPrimitiveValues() {
+        final TIntArrayList evicted = new TIntArrayList();
+        TIntIntLRUMap map = new TIntIntLRUMap( 2, 0.5f, -1, -1, new TIntIntProcedure() {
+            public boolean execute( int key, int value ) {
+                evicted.add( key );
+                evicted.add( value );
+                return true;
+            }
+        } );
+        assertEquals( -1, map.get( 1 ) );
+        assertEquals( 5, map.adjustOrPutValue( 1, 1, 5 ) );
+        assertEquals( -1, map.put( 2, 20 ) );
+        assertEquals( 6, map.adjustOrPutValue( 1, 1, 5 ) );
+        assertTrue( map.increment( 2 ) );
+        // 1 is now the eldest
+        map.put( 3, 30 );
+        assertEquals( new TIntArrayList( new int[]{ 1, 6 } ), evicted );
+        assertEquals( 21, map.get( 2 ) );
+        assertEquals( "{3=30, 2=21}", map.toString() );
+    }
+
+
+    public void testSerialization() throws Exception {
+        TLongObjectLRUMap<String> map = new TLongObjectLRUMap<String>( 4 );
+        for ( long i = 0; i < 6; i++ ) {
+            map.put( i, "v" + i );
+        }
+        map.get( 3 );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( map );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        @SuppressWarnings( "unchecked" )
+        TLongObjectLRUMap<String> deserialized =
+            ( TLongObjectLRUMap<String> ) oin.readObject();
+
+        assertEquals( map, deserialized );
+        assertEquals( 4, deserialized.getMaxSize() );
+        assertEquals( order( map ), order( deserialized ) );
+        deserialized.put( 6, "v6" );
+        assertFalse( deserialized.containsKey( 2 ) );
+    }
+}
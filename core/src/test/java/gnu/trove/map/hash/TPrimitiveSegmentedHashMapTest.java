@@ -0,0 +1,118 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+package gnu.trove.map.hash;
+
+import gnu.trove.iterator.TLongIntIterator;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveSegmentedHashMapTest extends TestCase {
+
+    public TPrimitiveSegmentedHashMapTest( String name ) {
+        super( name );
+    }
+
+
+    public void testAgainstHashMap() {
+        Random rand = new Random( 79 );
+        TLongIntSegmentedHashMap map = new TLongIntSegmentedHashMap();
+        TLongIntHashMap reference = new TLongIntHashMap();
+        for ( int i = 0; i < 100000; i++ ) {
+            long key = rand.nextInt( 20000 );
+            switch ( rand.nextInt( 4 ) ) {
+                case 0:
+                    assertEquals( reference.remove( key ), map.remove( key ) );
+                    break;
+                case 1:
+                    assertEquals( reference.adjustOrPutValue( key, 1, 1 ),
+                        map.adjustOrPutValue( key, 1, 1 ) );
+                    break;
+                default:
+                    assertEquals( reference.put( key, i ), map.put( key, i ) );
+            }
+        }
+        assertEquals( reference.size(), map.size() );
+        for ( long key = -10; key < 20010; key++ ) {
+            assertEquals( reference.containsKey( key ), map.containsKey( key ) );
+            assertEquals( reference.get( key ), map.get( key ) );
+        }
+        assertEquals( reference.hashCode(), map.hashCode() );
+
+        // every segment holds a share of the keys
+        assertEquals( TLongIntSegmentedHashMap.DEFAULT_SEGMENTS, map.getSegmentCount() );
+        for ( TLongIntHashMap segment : map._segments ) {
+            assertTrue( segment.size() > reference.size() / 32 );
+        }
+
+        long visited = 0;
+        for ( TLongIntIterator iterator = map.iterator(); iterator.hasNext(); ) {
+            iterator.advance();
+            assertEquals( reference.get( iterator.key() ), iterator.value() );
+            if ( iterator.key() % 2 == 0 ) {
+                reference.remove( iterator.key() );
+                iterator.remove();
+            }
+            visited++;
+        }
+        assertTrue( visited > reference.size() );
+        assertEquals( reference.size(), map.size() );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertEquals( 0, map.size() );
+    }
+
+
+    public void testSizingAndSerialization() throws Exception {
+        assertEquals( 16, TLongIntSegmentedHashMap.segmentsFor( 1000 ) );
+        assertEquals( 128, TLongIntSegmentedHashMap.segmentsFor( 5000000000L ) );
+        TLongIntSegmentedHashMap map = new TLongIntSegmentedHashMap( 4, 100, 0.5f, -1L, -1 );
+        assertEquals( -1, map.get( 3 ) );
+        assertEquals( -1L, map.getNoEntryKey() );
+        for ( long i = 0; i < 1000; i++ ) {
+            map.put( i << 32, ( int ) i );
+        }
+        assertEquals( 1000, map.size() );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( map );
+        oout.close();
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        TLongIntSegmentedHashMap read = ( TLongIntSegmentedHashMap ) oin.readObject();
+        assertEquals( map, read );
+        assertEquals( 4, read.getSegmentCount() );
+        assertEquals( 999, read.get( 999L << 32 ) );
+
+        try {
+            new TLongIntSegmentedHashMap( 3, 10, 0.5f, 0, 0 );
+            fail( "Expected IllegalArgumentException" );
+        }
+        catch ( IllegalArgumentException ex ) {
+            // expected
+        }
+    }
+}
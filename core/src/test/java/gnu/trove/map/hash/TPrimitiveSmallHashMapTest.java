@@ -0,0 +1,251 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.map.hash;
+
+import gnu.trove.TIntCollection;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.set.hash.TLongHashSet;
+import gnu.trove.set.hash.TLongSmallHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveSmallHashMapTest extends TestCase {
+
+    public TPrimitiveSmallHashMapTest( String name ) {
+        super( name );
+    }
+
+
+    public void testInline() {
+        TIntIntSmallHashMap map = new TIntIntSmallHashMap();
+        assertTrue( map.isInline() );
+        assertTrue( map.isEmpty() );
+        assertEquals( 0, map.get( 1 ) );
+
+        for ( int i = 0; i < TIntIntSmallHashMap.INLINE_CAPACITY; i++ ) {
+            assertEquals( 0, map.put( i * 10, i ) );
+        }
+        assertTrue( map.isInline() );
+        assertEquals( 8, map.size() );
+        assertEquals( 3, map.put( 30, 33 ) );
+        assertEquals( 33, map.get( 30 ) );
+        assertEquals( 33, map.putIfAbsent( 30, 1 ) );
+        assertTrue( map.containsKey( 70 ) );
+        assertFalse( map.containsKey( 80 ) );
+        assertTrue( map.containsValue( 33 ) );
+        assertTrue( map.increment( 0 ) );
+        assertFalse( map.adjustValue( 5, 1 ) );
+        assertEquals( "{0=1, 10=1, 20=2, 30=33, 40=4, 50=5, 60=6, 70=7}", map.toString() );
+        assertTrue( Arrays.equals( new int[]{ 0, 10, 20, 30, 40, 50, 60, 70 }, map.keys() ) );
+
+        TIntIntHashMap hash = new TIntIntHashMap( map );
+        assertEquals( hash, map );
+        assertEquals( map, hash );
+        assertEquals( hash.hashCode(), map.hashCode() );
+
+        assertEquals( 1, map.remove( 10 ) );
+        assertEquals( 0, map.remove( 10 ) );
+        TIntIntIterator iter = map.iterator();
+        while ( iter.hasNext() ) {
+            iter.advance();
+            if ( iter.key() == 40 ) {
+                iter.remove();
+            } else {
+                iter.setValue( iter.value() * 2 );
+            }
+        }
+        assertEquals( "{0=2, 20=4, 30=66, 50=10, 60=12, 70=14}", map.toString() );
+
+        map.retainEntries( new TIntIntProcedure() {
+            public boolean execute( int key, int value ) {
+                return value > 10;
+            }
+        } );
+        assertEquals( "{30=66, 60=12, 70=14}", map.toString() );
+        assertTrue( map.isInline() );
+    }
+
+
+    public void testPromotion() {
+        TIntIntSmallHashMap map = new TIntIntSmallHashMap( 4, 0.5f, -1, -2 );
+        for ( int i = 0; i < 9; i++ ) {
+            assertEquals( i, map.adjustOrPutValue( i, 1, i ) );
+        }
+        assertFalse( map.isInline() );
+        assertEquals( 9, map.size() );
+        assertEquals( -2, map.get( 100 ) );
+        assertEquals( -1, map.getNoEntryKey() );
+        for ( int i = 0; i < 9; i++ ) {
+            assertEquals( i, map.get( i ) );
+        }
+
+        map.clear();
+        assertTrue( map.isInline() );
+        assertEquals( -2, map.put( 1, 1 ) );
+        assertEquals( 1, map.size() );
+        assertFalse( new TIntIntSmallHashMap( 9 ).isInline() );
+    }
+
+
+    public void testViews() {
+        TIntIntSmallHashMap map = new TIntIntSmallHashMap();
+        for ( int i = 0; i < 6; i++ ) {
+            map.put( i, i * 10 );
+        }
+        TIntSet keys = map.keySet();
+        TIntCollection values = map.valueCollection();
+        assertTrue( map.isInline() );
+
+        assertEquals( 6, keys.size() );
+        assertTrue( keys.contains( 3 ) );
+        assertFalse( keys.contains( 30 ) );
+        assertTrue( values.contains( 30 ) );
+        assertEquals( "{0, 1, 2, 3, 4, 5}", keys.toString() );
+        assertEquals( "{0, 10, 20, 30, 40, 50}", values.toString() );
+        assertEquals( new TIntHashSet( new int[]{ 0, 1, 2, 3, 4, 5 } ), keys );
+        assertEquals( keys, new TIntHashSet( new int[]{ 0, 1, 2, 3, 4, 5 } ) );
+
+        assertTrue( keys.remove( 1 ) );
+        assertFalse( keys.remove( 1 ) );
+        assertTrue( values.remove( 20 ) );
+        assertFalse( map.containsKey( 2 ) );
+        assertTrue( keys.retainAll( new int[]{ 0, 3, 4 } ) );
+        assertEquals( "{0=0, 3=30, 4=40}", map.toString() );
+        TIntIterator iter = values.iterator();
+        while ( iter.hasNext() ) {
+            if ( iter.next() == 0 ) {
+                iter.remove();
+            }
+        }
+        assertEquals( "{3=30, 4=40}", map.toString() );
+        assertTrue( map.isInline() );
+
+        // the views follow the map once it is promoted
+        for ( int i = 10; i < 20; i++ ) {
+            map.put( i, i );
+        }
+        assertFalse( map.isInline() );
+        assertEquals( 12, keys.size() );
+        assertTrue( keys.contains( 15 ) );
+        assertTrue( values.contains( 40 ) );
+        keys.clear();
+        assertTrue( map.isEmpty() );
+    }
+
+
+    public void testAgainstHashMap() throws Exception {
+        Random rand = new Random( 23 );
+        for ( int round = 0; round < 200; round++ ) {
+            TIntIntSmallHashMap map = new TIntIntSmallHashMap();
+            TIntIntHashMap reference = new TIntIntHashMap();
+            int range = 4 + rand.nextInt( 16 );
+            for ( int i = 0; i < 100; i++ ) {
+                int key = rand.nextInt( range );
+                switch ( rand.nextInt( 3 ) ) {
+                    case 0:
+                        assertEquals( reference.remove( key ), map.remove( key ) );
+                        break;
+                    case 1:
+                        assertEquals( reference.adjustOrPutValue( key, 1, 5 ),
+                            map.adjustOrPutValue( key, 1, 5 ) );
+                        break;
+                    default:
+                        assertEquals( reference.put( key, i ), map.put( key, i ) );
+                        break;
+                }
+                assertEquals( reference.size(), map.size() );
+            }
+            assertEquals( reference, map );
+            assertEquals( map, reference );
+            assertEquals( reference.hashCode(), map.hashCode() );
+
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            ObjectOutputStream oout = new ObjectOutputStream( bout );
+            oout.writeObject( map );
+            oout.close();
+
+            ObjectInputStream oin = new ObjectInputStream(
+                new ByteArrayInputStream( bout.toByteArray() ) );
+            TIntIntSmallHashMap read = ( TIntIntSmallHashMap ) oin.readObject();
+            assertEquals( map, read );
+            assertEquals( map.size() <= TIntIntSmallHashMap.INLINE_CAPACITY, read.isInline() );
+        }
+    }
+
+
+    public void testSet() throws Exception {
+        TLongSmallHashSet set = new TLongSmallHashSet();
+        TLongHashSet reference = new TLongHashSet();
+        for ( long i = 0; i < 8; i++ ) {
+            assertTrue( set.add( i * i ) );
+            reference.add( i * i );
+        }
+        assertFalse( set.add( 9 ) );
+        assertTrue( set.isInline() );
+        assertEquals( "{0,1,4,9,16,25,36,49}", set.toString() );
+        assertEquals( reference, set );
+        assertEquals( set, reference );
+        assertEquals( reference.hashCode(), set.hashCode() );
+
+        assertTrue( set.retainAll( new long[]{ 49, 1, 16, 3 } ) );
+        assertEquals( "{1,16,49}", set.toString() );
+        TLongIterator iter = set.iterator();
+        assertEquals( 1, iter.next() );
+        iter.remove();
+        assertEquals( 16, iter.next() );
+        assertEquals( 49, iter.next() );
+        assertFalse( iter.hasNext() );
+        assertTrue( Arrays.equals( new long[]{ 16, 49 }, set.toArray() ) );
+
+        for ( long i = 100; i < 110; i++ ) {
+            set.add( i );
+        }
+        assertFalse( set.isInline() );
+        assertEquals( 12, set.size() );
+        assertTrue( set.contains( 16 ) );
+        assertTrue( set.remove( 105 ) );
+        assertFalse( set.contains( 105 ) );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( set );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        assertEquals( set, oin.readObject() );
+
+        set.clear();
+        assertTrue( set.isInline() );
+        assertTrue( set.isEmpty() );
+    }
+}
@@ -0,0 +1,248 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.multimap.packed;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.multimap.TIntIntMultimap;
+import gnu.trove.procedure.TIntIntProcedure;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.set.hash.TLongHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitivePackedMultimapTest extends TestCase {
+
+    public TPrimitivePackedMultimapTest( String name ) {
+        super( name );
+    }
+
+
+    private static Object roundTrip( Object object ) throws Exception {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( object );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        return oin.readObject();
+    }
+
+
+    public void testList() throws Exception {
+        TIntIntPackedListMultimap multimap = new TIntIntPackedListMultimap();
+        assertTrue( multimap.isEmpty() );
+        assertEquals( 0, multimap.get( 1 ).length );
+
+        assertTrue( multimap.put( 1, 10 ) );
+        assertTrue( multimap.put( 2, 20 ) );
+        assertTrue( multimap.put( 1, 11 ) );
+        assertTrue( multimap.put( 1, 10 ) );
+        assertTrue( multimap.putAll( 3, new int[]{ 30, 31, 32 } ) );
+        assertFalse( multimap.putAll( 4, new int[ 0 ] ) );
+        assertEquals( 7, multimap.size() );
+        assertEquals( 3, multimap.keyCount() );
+        assertEquals( "{1=[10, 11, 10], 2=[20], 3=[30, 31, 32]}", multimap.toString() );
+        assertTrue( Arrays.equals( new int[]{ 10, 11, 10 }, multimap.get( 1 ) ) );
+        assertTrue( multimap.containsEntry( 3, 31 ) );
+        assertFalse( multimap.containsEntry( 3, 20 ) );
+        assertFalse( multimap.containsKey( 4 ) );
+        assertEquals( 3, multimap.valueCount( 1 ) );
+
+        assertTrue( multimap.remove( 1, 10 ) );
+        assertTrue( Arrays.equals( new int[]{ 11, 10 }, multimap.get( 1 ) ) );
+        assertTrue( multimap.remove( 2, 20 ) );
+        assertFalse( multimap.containsKey( 2 ) );
+        assertFalse( multimap.remove( 2, 20 ) );
+        assertTrue( Arrays.equals( new int[]{ 30, 31, 32 }, multimap.removeAll( 3 ) ) );
+        assertEquals( 0, multimap.removeAll( 3 ).length );
+        assertEquals( 2, multimap.size() );
+        assertEquals( 1, multimap.keyCount() );
+
+        final int[] sum = new int[ 1 ];
+        multimap.forEachEntry( new TIntIntProcedure() {
+            public boolean execute( int key, int value ) {
+                sum[ 0 ] += key * value;
+                return true;
+            }
+        } );
+        assertEquals( 21, sum[ 0 ] );
+
+        assertEquals( multimap, roundTrip( multimap ) );
+        multimap.clear();
+        assertTrue( multimap.isEmpty() );
+        assertEquals( 0, multimap.keys().length );
+    }
+
+
+    public void testAgainstLists() throws Exception {
+        Random rand = new Random( 29 );
+        TIntIntPackedListMultimap multimap = new TIntIntPackedListMultimap( 4, 4 );
+        TIntObjectHashMap<TIntArrayList> reference = new TIntObjectHashMap<TIntArrayList>();
+        for ( int i = 0; i < 200000; i++ ) {
+            int key = rand.nextInt( 300 );
+            int value = rand.nextInt( 50 );
+            TIntArrayList list = reference.get( key );
+            switch ( rand.nextInt( 10 ) ) {
+                case 0:
+                    boolean removed = list != null && list.remove( value );
+                    assertEquals( removed, multimap.remove( key, value ) );
+                    if ( list != null && list.isEmpty() ) {
+                        reference.remove( key );
+                    }
+                    break;
+                case 1:
+                    if ( rand.nextInt( 20 ) == 0 ) {
+                        int[] values = list == null ? new int[ 0 ] : list.toArray();
+                        assertTrue( Arrays.equals( values, multimap.removeAll( key ) ) );
+                        reference.remove( key );
+                    }
+                    break;
+                default:
+                    if ( list == null ) {
+                        reference.put( key, list = new TIntArrayList() );
+                    }
+                    list.add( value );
+                    assertTrue( multimap.put( key, value ) );
+                    break;
+            }
+            if ( i % 50000 == 0 ) {
+                multimap.compact();
+            }
+        }
+
+        assertEquals( reference.size(), multimap.keyCount() );
+        int size = 0;
+        for ( int key : reference.keys() ) {
+            int[] values = reference.get( key ).toArray();
+            size += values.length;
+            assertTrue( Arrays.equals( values, multimap.get( key ) ) );
+        }
+        assertEquals( size, multimap.size() );
+
+        TIntIntCSRMultimap csr = multimap.freeze();
+        assertEquals( multimap, csr );
+        assertEquals( csr, multimap );
+        assertEquals( multimap.hashCode(), csr.hashCode() );
+        assertEquals( csr, roundTrip( csr ) );
+        assertEquals( multimap, roundTrip( multimap ) );
+
+        multimap.compact();
+        assertEquals( csr, multimap );
+        assertEquals( multimap.size(), multimap._top );
+    }
+
+
+    public void testSet() {
+        Random rand = new Random( 31 );
+        TLongDoublePackedSetMultimap doubles = new TLongDoublePackedSetMultimap();
+        assertTrue( doubles.put( 5, 2.5 ) );
+        assertTrue( doubles.put( 5, -1 ) );
+        assertFalse( doubles.put( 5, 2.5 ) );
+        assertTrue( doubles.put( 5, 7 ) );
+        assertEquals( "{5=[-1.0, 2.5, 7.0]}", doubles.toString() );
+
+        TLongLongPackedSetMultimap multimap = new TLongLongPackedSetMultimap();
+        TLongObjectHashMap<TLongHashSet> reference = new TLongObjectHashMap<TLongHashSet>();
+        for ( int i = 0; i < 100000; i++ ) {
+            long key = rand.nextInt( 100 ) * 1000000007L;
+            long value = rand.nextInt( 200 ) - 100;
+            TLongHashSet set = reference.get( key );
+            if ( rand.nextInt( 3 ) == 0 ) {
+                boolean removed = set != null && set.remove( value );
+                assertEquals( removed, multimap.remove( key, value ) );
+                if ( set != null && set.isEmpty() ) {
+                    reference.remove( key );
+                }
+            } else {
+                if ( set == null ) {
+                    reference.put( key, set = new TLongHashSet() );
+                }
+                assertEquals( set.add( value ), multimap.put( key, value ) );
+            }
+            assertEquals( set != null && set.contains( value ),
+                multimap.containsEntry( key, value ) );
+        }
+
+        assertEquals( reference.size(), multimap.keyCount() );
+        for ( long key : reference.keys() ) {
+            long[] values = reference.get( key ).toArray();
+            Arrays.sort( values );
+            assertTrue( Arrays.equals( values, multimap.get( key ) ) );
+
+            final TLongArrayList visited = new TLongArrayList();
+            multimap.forEachValue( key, new TLongProcedure() {
+                public boolean execute( long value ) {
+                    visited.add( value );
+                    return true;
+                }
+            } );
+            assertTrue( Arrays.equals( values, visited.toArray() ) );
+        }
+    }
+
+
+    public void testCSR() {
+        TIntIntMultimap multimap = new TIntIntPackedListMultimap();
+        multimap.put( 9, 1 );
+        multimap.put( -4, 2 );
+        multimap.put( 9, 3 );
+        multimap.put( 0, 4 );
+        TIntIntCSRMultimap csr = new TIntIntCSRMultimap( multimap );
+        assertEquals( "{-4=[2], 0=[4], 9=[1, 3]}", csr.toString() );
+        assertTrue( Arrays.equals( new int[]{ -4, 0, 9 }, csr.keys() ) );
+        assertEquals( 4, csr.size() );
+        assertEquals( 3, csr.keyCount() );
+        assertEquals( 2, csr.valueCount( 9 ) );
+        assertEquals( 0, csr.valueCount( 1 ) );
+        assertTrue( csr.containsEntry( 9, 3 ) );
+        assertFalse( csr.containsEntry( 0, 3 ) );
+        assertTrue( Arrays.equals( new int[]{ 1, 3 }, csr.get( 9 ) ) );
+
+        final StringBuilder keys = new StringBuilder();
+        csr.forEachKey( new TIntProcedure() {
+            public boolean execute( int key ) {
+                keys.append( key ).append( ' ' );
+                return key < 0;
+            }
+        } );
+        assertEquals( "-4 0 ", keys.toString() );
+
+        try {
+            csr.put( 1, 1 );
+            fail( "Expected UnsupportedOperationException" );
+        }
+        catch ( UnsupportedOperationException ex ) {
+            // expected
+        }
+        assertTrue( new TIntIntCSRMultimap().isEmpty() );
+    }
+}
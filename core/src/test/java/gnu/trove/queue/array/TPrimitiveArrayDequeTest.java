@@ -0,0 +1,207 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.queue.array;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.queue.TIntQueue;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveArrayDequeTest extends TestCase {
+
+    public TPrimitiveArrayDequeTest( String name ) {
+        super( name );
+    }
+
+
+    public void testFifo() {
+        TIntQueue queue = new TIntArrayDeque();
+        assertEquals( queue.getNoEntryValue(), queue.poll() );
+        assertEquals( queue.getNoEntryValue(), queue.peek() );
+        try {
+            queue.element();
+            fail( "Expected NoSuchElementException" );
+        } catch ( NoSuchElementException ex ) {
+            // expected
+        }
+
+        for ( int i = 0; i < 100; i++ ) {
+            queue.offer( i );
+        }
+        assertEquals( 100, queue.size() );
+        assertEquals( 0, queue.element() );
+        for ( int i = 0; i < 100; i++ ) {
+            assertEquals( i, queue.poll() );
+        }
+        assertTrue( queue.isEmpty() );
+    }
+
+
+    public void testLifo() {
+        TIntArrayDeque deque = new TIntArrayDeque( 2 );
+        for ( int i = 0; i < 20; i++ ) {
+            deque.offerFirst( i );
+        }
+        for ( int i = 20; i-- > 0; ) {
+            assertEquals( i, deque.pollFirst() );
+        }
+        for ( int i = 0; i < 20; i++ ) {
+            deque.offerLast( i );
+        }
+        for ( int i = 20; i-- > 0; ) {
+            assertEquals( i, deque.peekLast() );
+            assertEquals( i, deque.pollLast() );
+        }
+        assertEquals( deque.getNoEntryValue(), deque.pollLast() );
+    }
+
+
+    public void testAgainstJdkDeque() {
+        Random rand = new Random( 17 );
+        TIntArrayDeque deque = new TIntArrayDeque( 4, -1 );
+        ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+        for ( int i = 0; i < 10000; i++ ) {
+            int value = rand.nextInt( 100 );
+            switch ( rand.nextInt( 6 ) ) {
+                case 0:
+                    deque.offerFirst( value );
+                    expected.offerFirst( value );
+                    break;
+                case 1:
+                case 2:
+                    deque.offerLast( value );
+                    expected.offerLast( value );
+                    break;
+                case 3:
+                    Integer first = expected.pollFirst();
+                    assertEquals( first == null ? -1 : first.intValue(), deque.pollFirst() );
+                    break;
+                case 4:
+                    Integer last = expected.pollLast();
+                    assertEquals( last == null ? -1 : last.intValue(), deque.pollLast() );
+                    break;
+                case 5:
+                    assertEquals( expected.remove( value ), deque.remove( value ) );
+                    break;
+            }
+            assertEquals( expected.size(), deque.size() );
+        }
+
+        int i = 0;
+        for ( Integer value : expected ) {
+            assertEquals( value.intValue(), deque.get( i++ ) );
+        }
+    }
+
+
+    public void testDrainTo() {
+        TIntArrayDeque deque = new TIntArrayDeque( 8 );
+        // force the contents to wrap around the end of the array
+        for ( int i = 0; i < 6; i++ ) {
+            deque.offerLast( i );
+        }
+        for ( int i = 0; i < 5; i++ ) {
+            deque.pollFirst();
+        }
+        deque.addAll( new int[]{ 6, 7, 8, 9, 10 } );
+        assertEquals( 6, deque.size() );
+
+        int[] dest = new int[ 4 ];
+        assertEquals( 4, deque.drainTo( dest ) );
+        assertTrue( Arrays.equals( new int[]{ 5, 6, 7, 8 }, dest ) );
+        assertEquals( 2, deque.drainTo( dest, 1, 3 ) );
+        assertEquals( 9, dest[ 1 ] );
+        assertEquals( 10, dest[ 2 ] );
+        assertTrue( deque.isEmpty() );
+        assertEquals( 0, deque.drainTo( dest ) );
+    }
+
+
+    public void testIteratorRemove() {
+        TIntArrayDeque deque = new TIntArrayDeque( 4 );
+        for ( int i = 0; i < 10; i++ ) {
+            deque.offerFirst( i );
+        }
+        TIntIterator iter = deque.iterator();
+        while ( iter.hasNext() ) {
+            if ( iter.next() % 3 == 0 ) {
+                iter.remove();
+            }
+        }
+        assertTrue( Arrays.equals( new int[]{ 8, 7, 5, 4, 2, 1 }, deque.toArray() ) );
+    }
+
+
+    public void testBulk() {
+        TIntArrayDeque deque = new TIntArrayDeque( new int[]{ 1, 2, 3, 4, 5, 6 } );
+        assertTrue( deque.containsAll( new int[]{ 2, 4, 6 } ) );
+        assertFalse( deque.containsAll( new int[]{ 2, 7 } ) );
+
+        assertTrue( deque.retainAll( new int[]{ 1, 3, 5, 6 } ) );
+        assertTrue( Arrays.equals( new int[]{ 1, 3, 5, 6 }, deque.toArray() ) );
+
+        assertTrue( deque.removeAll( new TIntArrayList( new int[]{ 3, 6 } ) ) );
+        assertTrue( Arrays.equals( new int[]{ 1, 5 }, deque.toArray() ) );
+
+        deque.addAll( deque );
+        assertTrue( Arrays.equals( new int[]{ 1, 5, 1, 5 }, deque.toArray() ) );
+
+        int[] dest = new int[ 6 ];
+        Arrays.fill( dest, 42 );
+        deque.toArray( dest );
+        assertEquals( deque.getNoEntryValue(), dest[ 4 ] );
+        assertEquals( 42, dest[ 5 ] );
+
+        assertEquals( new TIntArrayDeque( new int[]{ 1, 5, 1, 5 } ), deque );
+        assertEquals( "{1, 5, 1, 5}", deque.toString() );
+    }
+
+
+    public void testSerialization() throws Exception {
+        TIntArrayDeque deque = new TIntArrayDeque( 4, -7 );
+        deque.offerLast( 2 );
+        deque.offerFirst( 1 );
+        deque.offerLast( 3 );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( deque );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        TIntArrayDeque deserialized = ( TIntArrayDeque ) oin.readObject();
+
+        assertEquals( deque, deserialized );
+        assertEquals( -7, deserialized.getNoEntryValue() );
+        deserialized.offerFirst( 0 );
+        assertEquals( 0, deserialized.pollFirst() );
+    }
+}
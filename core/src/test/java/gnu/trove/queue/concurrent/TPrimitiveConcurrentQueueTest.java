@@ -0,0 +1,247 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.queue.concurrent;
+
+import gnu.trove.impl.queue.TIntConcurrentArrayQueue;
+import gnu.trove.impl.queue.TLongConcurrentArrayQueue;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.procedure.TIntProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+
+/**
+ *
+ */
+public class TPrimitiveConcurrentQueueTest extends TestCase {
+
+    public TPrimitiveConcurrentQueueTest( String name ) {
+        super( name );
+    }
+
+
+    public void testSpscSingleThread() {
+        singleThread( new TIntSpscArrayQueue( 5, -1 ) );
+    }
+
+
+    public void testMpscSingleThread() {
+        singleThread( new TIntMpscArrayQueue( 5, -1 ) );
+    }
+
+
+    private void singleThread( TIntConcurrentArrayQueue queue ) {
+        assertEquals( 8, queue.capacity() );
+        assertTrue( queue.isEmpty() );
+        assertEquals( -1, queue.poll() );
+        assertEquals( -1, queue.peek() );
+        try {
+            queue.element();
+            fail( "Expected NoSuchElementException" );
+        } catch ( NoSuchElementException ex ) {
+            // expected
+        }
+
+        // go round the ring several times
+        int next = 0;
+        int expected = 0;
+        for ( int round = 0; round < 10; round++ ) {
+            while ( queue.offer( next ) ) {
+                next++;
+            }
+            assertEquals( 8, queue.size() );
+            assertEquals( expected, queue.peek() );
+            for ( int i = 0; i < 5; i++ ) {
+                assertEquals( expected++, queue.poll() );
+            }
+        }
+        assertEquals( 3, queue.size() );
+        assertTrue( Arrays.equals(
+            new int[]{ expected, expected + 1, expected + 2 }, queue.toArray() ) );
+        assertTrue( queue.contains( expected + 2 ) );
+        assertFalse( queue.contains( expected + 3 ) );
+
+        queue.clear();
+        assertTrue( queue.isEmpty() );
+        try {
+            queue.add( 1 );
+            queue.addAll( new int[ 8 ] );
+            fail( "Expected IllegalStateException" );
+        } catch ( IllegalStateException ex ) {
+            // expected
+        }
+        try {
+            queue.remove( 1 );
+            fail( "Expected UnsupportedOperationException" );
+        } catch ( UnsupportedOperationException ex ) {
+            // expected
+        }
+    }
+
+
+    public void testSpscBatch() {
+        batch( new TIntSpscArrayQueue( 8 ) );
+    }
+
+
+    public void testMpscBatch() {
+        batch( new TIntMpscArrayQueue( 8 ) );
+    }
+
+
+    private void batch( TIntConcurrentArrayQueue queue ) {
+        int[] values = { 1, 2, 3, 4, 5, 6 };
+        assertEquals( 6, queue.offer( values, 0, 6 ) );
+        assertEquals( 2, queue.offer( values, 0, 6 ) );
+        assertEquals( 0, queue.offer( values, 0, 6 ) );
+
+        final TIntArrayList drained = new TIntArrayList();
+        TIntProcedure collect = new TIntProcedure() {
+            public boolean execute( int value ) {
+                drained.add( value );
+                return true;
+            }
+        };
+        assertEquals( 5, queue.drain( collect, 5 ) );
+        // wraps around the end of the buffer
+        assertEquals( 5, queue.offer( values, 1, 5 ) );
+        assertEquals( 8, queue.drain( collect ) );
+        assertEquals( 0, queue.drain( collect ) );
+        assertEquals( new TIntArrayList(
+            new int[]{ 1, 2, 3, 4, 5, 6, 1, 2, 2, 3, 4, 5, 6 } ), drained );
+
+        // a procedure returning false stops after consuming its element
+        queue.addAll( values );
+        assertEquals( 2, queue.drain( new TIntProcedure() {
+            public boolean execute( int value ) {
+                return value != 2;
+            }
+        } ) );
+        assertEquals( 3, queue.peek() );
+    }
+
+
+    public void testSpscHandOff() throws Exception {
+        final TLongSpscArrayQueue queue = new TLongSpscArrayQueue( 64 );
+        final long count = 200000;
+        Thread producer = new Thread() {
+            @Override
+            public void run() {
+                long[] batch = new long[ 7 ];
+                long next = 0;
+                while ( next < count ) {
+                    if ( ( next & 1 ) == 0 ) {
+                        if ( queue.offer( next ) ) {
+                            next++;
+                        }
+                    } else {
+                        int length = ( int ) Math.min( batch.length, count - next );
+                        for ( int i = 0; i < length; i++ ) {
+                            batch[ i ] = next + i;
+                        }
+                        next += queue.offer( batch, 0, length );
+                    }
+                }
+            }
+        };
+        producer.start();
+
+        final long[] expected = { 0 };
+        TLongProcedure check = new TLongProcedure() {
+            public boolean execute( long value ) {
+                assertEquals( expected[ 0 ]++, value );
+                return true;
+            }
+        };
+        while ( expected[ 0 ] < count ) {
+            if ( ( expected[ 0 ] & 1 ) == 0 ) {
+                queue.drain( check, 5 );
+            } else if ( !queue.isEmpty() ) {
+                assertEquals( expected[ 0 ]++, queue.poll() );
+            }
+        }
+        producer.join();
+        assertTrue( queue.isEmpty() );
+    }
+
+
+    public void testMpscHandOff() throws Exception {
+        final TLongMpscArrayQueue queue = new TLongMpscArrayQueue( 64 );
+        final int producers = 4;
+        final int perProducer = 50000;
+        Thread[] threads = new Thread[ producers ];
+        for ( int p = 0; p < producers; p++ ) {
+            final long base = ( long ) p << 32;
+            threads[ p ] = new Thread() {
+                @Override
+                public void run() {
+                    long[] pair = new long[ 2 ];
+                    int i = 0;
+                    while ( i < perProducer ) {
+                        if ( ( i & 3 ) == 0 && i + 2 <= perProducer ) {
+                            pair[ 0 ] = base + i;
+                            pair[ 1 ] = base + i + 1;
+                            // may accept only the first element
+                            i += queue.offer( pair, 0, 2 );
+                        } else if ( queue.offer( base + i ) ) {
+                            i++;
+                        }
+                    }
+                }
+            };
+            threads[ p ].start();
+        }
+
+        // each producer's elements must arrive in order and exactly once
+        final long[] next = new long[ producers ];
+        TLongProcedure check = new TLongProcedure() {
+            public boolean execute( long value ) {
+                int p = ( int ) ( value >>> 32 );
+                assertEquals( next[ p ]++, value & 0xFFFFFFFFL );
+                return true;
+            }
+        };
+        long received = 0;
+        while ( received < ( long ) producers * perProducer ) {
+            received += queue.drain( check, 16 );
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+        for ( int p = 0; p < producers; p++ ) {
+            assertEquals( perProducer, next[ p ] );
+        }
+        assertTrue( queue.isEmpty() );
+        assertEquals( queue.getNoEntryValue(), queue.poll() );
+    }
+
+
+    public void testLongSnapshot() {
+        TLongConcurrentArrayQueue queue = new TLongMpscArrayQueue();
+        assertEquals( 16, queue.capacity() );
+        queue.addAll( new long[]{ 3, 1, 2 } );
+        long[] dest = new long[ 4 ];
+        queue.toArray( dest );
+        assertTrue( Arrays.equals( new long[]{ 3, 1, 2, 0 }, dest ) );
+        assertTrue( queue.containsAll( new long[]{ 1, 2, 3 } ) );
+        assertEquals( 3, queue.iterator().next() );
+        assertEquals( 3, queue.size() );
+    }
+}
@@ -0,0 +1,302 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.queue.heap;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.queue.TIntQueue;
+import gnu.trove.strategy.TLongComparator;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitivePriorityQueueTest extends TestCase {
+
+    public TPrimitivePriorityQueueTest( String name ) {
+        super( name );
+    }
+
+
+    public void testBasic() {
+        TIntQueue queue = new TIntPriorityQueue();
+        assertTrue( queue.isEmpty() );
+        assertEquals( queue.getNoEntryValue(), queue.peek() );
+        assertEquals( queue.getNoEntryValue(), queue.poll() );
+        try {
+            queue.element();
+            fail( "Expected NoSuchElementException" );
+        } catch ( NoSuchElementException ex ) {
+            // expected
+        }
+
+        queue.offer( 30 );
+        queue.offer( 10 );
+        queue.offer( 20 );
+        assertEquals( 3, queue.size() );
+        assertEquals( 10, queue.peek() );
+        assertEquals( 10, queue.element() );
+        assertEquals( 3, queue.size() );
+
+        assertEquals( 10, queue.poll() );
+        assertEquals( 20, queue.poll() );
+        assertEquals( 30, queue.poll() );
+        assertTrue( queue.isEmpty() );
+    }
+
+
+    public void testRandomOrderingAllArities() {
+        Random rand = new Random( 42 );
+        for ( int arity = 2; arity <= 8; arity++ ) {
+            TIntPriorityQueue queue = new TIntPriorityQueue( 4, arity, false, -1 );
+            int[] expected = new int[ 1000 ];
+            for ( int i = 0; i < expected.length; i++ ) {
+                expected[ i ] = rand.nextInt( 500 );
+                queue.offer( expected[ i ] );
+            }
+            Arrays.sort( expected );
+            for ( int value : expected ) {
+                assertEquals( "arity " + arity, value, queue.poll() );
+            }
+            assertEquals( -1, queue.poll() );
+        }
+    }
+
+
+    public void testReversed() {
+        TIntPriorityQueue queue = new TIntPriorityQueue( 10, true );
+        queue.addAll( new int[]{ 5, 1, 9, 3, 7 } );
+        assertEquals( 9, queue.poll() );
+        assertEquals( 7, queue.poll() );
+        assertEquals( 5, queue.poll() );
+        assertEquals( 3, queue.poll() );
+        assertEquals( 1, queue.poll() );
+    }
+
+
+    public void testComparator() {
+        // order by absolute value
+        TLongPriorityQueue queue = new TLongPriorityQueue( 10, new TLongComparator() {
+            public int compare( long a, long b ) {
+                long x = Math.abs( a );
+                long y = Math.abs( b );
+                return x < y ? -1 : ( x == y ? 0 : 1 );
+            }
+        } );
+        queue.offer( -5 );
+        queue.offer( 3 );
+        queue.offer( -1 );
+        queue.offer( 4 );
+        assertEquals( -1, queue.poll() );
+        assertEquals( 3, queue.poll() );
+        assertEquals( 4, queue.poll() );
+        assertEquals( -5, queue.poll() );
+    }
+
+
+    public void testPollAndOfferTopK() {
+        // keep the 5 largest values in a min-heap
+        TIntPriorityQueue queue = new TIntPriorityQueue( 5 );
+        Random rand = new Random( 7 );
+        int[] all = new int[ 200 ];
+        for ( int i = 0; i < all.length; i++ ) {
+            all[ i ] = rand.nextInt();
+            if ( queue.size() < 5 ) {
+                queue.offer( all[ i ] );
+            } else if ( all[ i ] > queue.peek() ) {
+                queue.pollAndOffer( all[ i ] );
+            }
+        }
+        Arrays.sort( all );
+        for ( int i = all.length - 5; i < all.length; i++ ) {
+            assertEquals( all[ i ], queue.poll() );
+        }
+    }
+
+
+    public void testRemoveAndContains() {
+        TIntPriorityQueue queue = new TIntPriorityQueue(
+            new int[]{ 8, 6, 7, 5, 3, 0, 9 } );
+        assertTrue( queue.contains( 5 ) );
+        assertFalse( queue.contains( 4 ) );
+        assertTrue( queue.remove( 5 ) );
+        assertFalse( queue.remove( 5 ) );
+        assertFalse( queue.contains( 5 ) );
+        assertTrue( queue.removeAll( new int[]{ 0, 9 } ) );
+        assertEquals( 4, queue.size() );
+        assertTrue( queue.retainAll( new int[]{ 3, 7, 8 } ) );
+
+        assertEquals( 3, queue.poll() );
+        assertEquals( 7, queue.poll() );
+        assertEquals( 8, queue.poll() );
+        assertTrue( queue.isEmpty() );
+    }
+
+
+    public void testRemoveAndContainsNaN() {
+        TDoublePriorityQueue queue = new TDoublePriorityQueue(
+            new double[]{ 2.5, Double.NaN, -1.0, 4.0 } );
+        assertTrue( queue.contains( Double.NaN ) );
+        assertTrue( queue.remove( Double.NaN ) );
+        assertFalse( queue.contains( Double.NaN ) );
+        assertEquals( 3, queue.size() );
+
+        TFloatPriorityQueue floats = new TFloatPriorityQueue( new float[]{ Float.NaN, 1f } );
+        assertTrue( floats.remove( Float.NaN ) );
+        assertEquals( 1f, floats.poll(), 0f );
+        assertTrue( floats.isEmpty() );
+    }
+
+
+    public void testIteratorRemove() {
+        Random rand = new Random( 3 );
+        for ( int round = 0; round < 50; round++ ) {
+            TIntPriorityQueue queue = new TIntPriorityQueue( 10, 3, false, 0 );
+            TIntArrayList kept = new TIntArrayList();
+            for ( int i = 0; i < 100; i++ ) {
+                queue.offer( rand.nextInt( 1000 ) );
+            }
+
+            int seen = 0;
+            TIntIterator iter = queue.iterator();
+            while ( iter.hasNext() ) {
+                int value = iter.next();
+                seen++;
+                if ( ( value & 1 ) == 0 ) {
+                    iter.remove();
+                } else {
+                    kept.add( value );
+                }
+            }
+            assertEquals( 100, seen );
+            assertEquals( kept.size(), queue.size() );
+
+            kept.sort();
+            for ( int i = 0; i < kept.size(); i++ ) {
+                assertEquals( kept.get( i ), queue.poll() );
+            }
+        }
+    }
+
+
+    public void testToArray() {
+        TIntPriorityQueue queue = new TIntPriorityQueue();
+        queue.addAll( new int[]{ 4, 2, 3, 1 } );
+        int[] array = queue.toArray();
+        Arrays.sort( array );
+        assertTrue( Arrays.equals( new int[]{ 1, 2, 3, 4 }, array ) );
+
+        int[] dest = new int[ 6 ];
+        queue.toArray( dest );
+        assertEquals( queue.getNoEntryValue(), dest[ 4 ] );
+    }
+
+
+    public void testSerialization() throws Exception {
+        TIntPriorityQueue queue = new TIntPriorityQueue( 10, 4, true, -1 );
+        queue.addAll( new int[]{ 10, 40, 20, 30 } );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( queue );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        TIntPriorityQueue deserialized = ( TIntPriorityQueue ) oin.readObject();
+
+        assertEquals( -1, deserialized.getNoEntryValue() );
+        assertEquals( 40, deserialized.poll() );
+        assertEquals( 30, deserialized.poll() );
+        deserialized.offer( 50 );
+        assertEquals( 50, deserialized.poll() );
+        assertEquals( 20, deserialized.poll() );
+        assertEquals( 10, deserialized.poll() );
+    }
+
+
+    public void testObjectPriorityQueue() {
+        TDoubleObjectPriorityQueue<String> queue =
+            new TDoubleObjectPriorityQueue<String>();
+        assertNull( queue.poll() );
+
+        assertTrue( queue.offer( 5.0, "a" ) );
+        assertTrue( queue.offer( 3.0, "b" ) );
+        assertTrue( queue.offer( 4.0, "c" ) );
+        assertFalse( queue.offer( 1.0, "a" ) );
+        assertEquals( 5.0, queue.getPriority( "a" ) );
+        assertEquals( "b", queue.peek() );
+
+        assertTrue( queue.decreaseKey( "a", 1.0 ) );
+        assertFalse( queue.decreaseKey( "a", 2.0 ) );
+        assertFalse( queue.decreaseKey( "z", 0.0 ) );
+        assertEquals( "a", queue.peek() );
+        assertEquals( 1.0, queue.peekPriority() );
+
+        assertTrue( queue.changePriority( "a", 10.0 ) );
+        assertEquals( "b", queue.poll() );
+        assertEquals( "c", queue.poll() );
+        assertFalse( queue.contains( "c" ) );
+        assertTrue( queue.contains( "a" ) );
+        assertEquals( "a", queue.poll() );
+        assertTrue( queue.isEmpty() );
+    }
+
+
+    public void testObjectPriorityQueueRandom() {
+        Random rand = new Random( 11 );
+        TIntObjectPriorityQueue<Integer> queue = new TIntObjectPriorityQueue<Integer>(
+            4, 4, null, -1 );
+        int[] priorities = new int[ 500 ];
+        for ( int i = 0; i < priorities.length; i++ ) {
+            priorities[ i ] = rand.nextInt( 10000 );
+            queue.offer( priorities[ i ], Integer.valueOf( i ) );
+        }
+        // lower half of the keys, remove a few
+        for ( int i = 0; i < priorities.length; i += 2 ) {
+            int lower = priorities[ i ] - rand.nextInt( 100 );
+            if ( queue.decreaseKey( Integer.valueOf( i ), lower ) ) {
+                priorities[ i ] = lower;
+            }
+        }
+        for ( int i = 0; i < priorities.length; i += 7 ) {
+            assertTrue( queue.remove( Integer.valueOf( i ) ) );
+            priorities[ i ] = Integer.MAX_VALUE;
+        }
+
+        int last = Integer.MIN_VALUE;
+        int count = 0;
+        while ( !queue.isEmpty() ) {
+            int priority = queue.peekPriority();
+            Integer value = queue.poll();
+            assertEquals( priorities[ value.intValue() ], priority );
+            assertTrue( priority >= last );
+            last = priority;
+            count++;
+        }
+        assertEquals( priorities.length - ( priorities.length + 6 ) / 7, count );
+    }
+}
@@ -0,0 +1,324 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.set.bitmap;
+
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.set.hash.TLongHashSet;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+
+/**
+ *
+ */
+public class TPrimitiveRoaringSetTest extends TestCase {
+
+    public TPrimitiveRoaringSetTest( String name ) {
+        super( name );
+    }
+
+
+    /** Values from a sparse spread, a dense block and a few long runs. */
+    private static int[] values( Random rand, int count ) {
+        int[] values = new int[ count ];
+        for ( int i = 0; i < count; i++ ) {
+            switch ( rand.nextInt( 3 ) ) {
+                case 0:
+                    values[ i ] = rand.nextInt();
+                    break;
+                case 1:
+                    values[ i ] = 1000000 + rand.nextInt( 70000 );
+                    break;
+                default:
+                    values[ i ] = -200000 + rand.nextInt( 20 ) * 1000 + rand.nextInt( 500 );
+                    break;
+            }
+        }
+        return values;
+    }
+
+
+    private static void assertSame( TIntHashSet expected, TIntRoaringSet actual ) {
+        assertEquals( expected.size(), actual.size() );
+        assertEquals( expected, actual );
+        assertEquals( actual, expected );
+        assertEquals( expected.hashCode(), actual.hashCode() );
+
+        int[] sorted = expected.toArray();
+        Arrays.sort( sorted );
+        assertTrue( Arrays.equals( sorted, actual.toArray() ) );
+    }
+
+
+    public void testAgainstHashSet() {
+        Random rand = new Random( 5 );
+        TIntRoaringSet set = new TIntRoaringSet();
+        TIntHashSet reference = new TIntHashSet();
+        for ( int i = 0; i < 200000; i++ ) {
+            int value = values( rand, 1 )[ 0 ];
+            if ( rand.nextInt( 3 ) == 0 ) {
+                assertEquals( reference.remove( value ), set.remove( value ) );
+            } else {
+                assertEquals( reference.add( value ), set.add( value ) );
+            }
+        }
+        assertSame( reference, set );
+
+        for ( int value : values( rand, 1000 ) ) {
+            assertEquals( reference.contains( value ), set.contains( value ) );
+        }
+
+        // drain the dense block so its bitmap turns back into an array
+        for ( int i = 1000000; i < 1070000; i++ ) {
+            assertEquals( reference.remove( i ), set.remove( i ) );
+            if ( i == 1065000 ) {
+                assertSame( reference, set );
+            }
+        }
+        assertSame( reference, set );
+    }
+
+
+    public void testSetAlgebra() {
+        Random rand = new Random( 7 );
+        for ( int round = 0; round < 20; round++ ) {
+            int[] a = values( rand, rand.nextInt( 100000 ) );
+            int[] b = values( rand, rand.nextInt( 100000 ) );
+            TIntRoaringSet ra = new TIntRoaringSet( a );
+            TIntRoaringSet rb = new TIntRoaringSet( b );
+            if ( round % 2 == 0 ) {
+                ra.runOptimize();
+            }
+            if ( round % 3 == 0 ) {
+                rb.runOptimize();
+            }
+
+            TIntHashSet and = new TIntHashSet( a );
+            and.retainAll( b );
+            TIntHashSet or = new TIntHashSet( a );
+            or.addAll( b );
+            TIntHashSet andNot = new TIntHashSet( a );
+            andNot.removeAll( b );
+
+            assertEquals( and.size(), ra.andCardinality( rb ) );
+
+            TIntRoaringSet result = new TIntRoaringSet( ra );
+            result.and( rb );
+            assertSame( and, result );
+
+            result = new TIntRoaringSet( ra );
+            result.or( rb );
+            assertSame( or, result );
+            assertTrue( result.containsAll( rb ) );
+
+            result = new TIntRoaringSet( ra );
+            result.andNot( rb );
+            assertSame( andNot, result );
+
+            // the operands are untouched
+            assertSame( new TIntHashSet( a ), ra );
+            assertSame( new TIntHashSet( b ), rb );
+        }
+    }
+
+
+    public void testRunOptimize() {
+        TIntRoaringSet set = new TIntRoaringSet();
+        for ( int i = -100000; i < 100000; i++ ) {
+            set.add( i );
+        }
+        int before = set.serializedSizeInBytes();
+        assertTrue( set.runOptimize() );
+        assertFalse( set.runOptimize() );
+        assertTrue( set.serializedSizeInBytes() * 100 < before );
+
+        assertEquals( 200000, set.size() );
+        assertEquals( -100000, set.first() );
+        assertEquals( 99999, set.last() );
+        assertTrue( set.contains( 0 ) );
+        assertFalse( set.contains( 100000 ) );
+
+        // runs become mutable again when modified
+        assertTrue( set.remove( 5 ) );
+        assertFalse( set.contains( 5 ) );
+        assertTrue( set.add( 5 ) );
+        assertFalse( set.add( 6 ) );
+        assertEquals( 200000, set.size() );
+    }
+
+
+    public void testLast() {
+        TIntRoaringSet set = new TIntRoaringSet();
+        try {
+            set.last();
+            fail( "expected NoSuchElementException" );
+        }
+        catch ( NoSuchElementException expected ) {
+        }
+
+        // an array container
+        set.add( 70000 );
+        set.add( 65537 );
+        assertEquals( 70000, set.last() );
+        set.add( -1 );
+        assertEquals( 70000, set.last() );
+
+        // a bitmap container, its last word and last bit
+        for ( int i = 0; i < 10000; i++ ) {
+            set.add( 65536 + 3 * i );
+        }
+        assertEquals( 65536 + 3 * 9999, set.last() );
+        set.add( 131071 );
+        assertEquals( 131071, set.last() );
+
+        // a run container
+        set.remove( 131071 );
+        for ( int i = 0; i < 65536; i++ ) {
+            set.add( 196608 + i );
+        }
+        assertTrue( set.runOptimize() );
+        assertEquals( 262143, set.last() );
+        assertEquals( -1, set.first() );
+    }
+
+
+    public void testIterator() {
+        TIntRoaringSet set = new TIntRoaringSet( new int[]{ 5, -3, Integer.MIN_VALUE,
+            Integer.MAX_VALUE, 70000, 0 } );
+        assertEquals( "{-2147483648,-3,0,5,70000,2147483647}", set.toString() );
+
+        TIntIterator iter = set.iterator();
+        int[] seen = new int[ 6 ];
+        for ( int i = 0; iter.hasNext(); i++ ) {
+            seen[ i ] = iter.next();
+            if ( seen[ i ] % 2 != 0 ) {
+                iter.remove();
+            }
+        }
+        assertTrue( Arrays.equals( new int[]{ Integer.MIN_VALUE, -3, 0, 5, 70000,
+            Integer.MAX_VALUE }, seen ) );
+        assertEquals( "{-2147483648,0,70000}", set.toString() );
+    }
+
+
+    public void testSerialization() throws Exception {
+        Random rand = new Random( 11 );
+        TIntRoaringSet set = new TIntRoaringSet( values( rand, 50000 ) );
+        for ( int i = 0; i < 100000; i++ ) {
+            set.add( 5000000 + i );
+        }
+        set.runOptimize();
+
+        ByteBuffer buffer = ByteBuffer.allocate( set.serializedSizeInBytes() + 8 );
+        buffer.putInt( 42 );
+        set.serialize( buffer );
+        assertEquals( buffer.capacity() - 4, buffer.position() );
+        buffer.putInt( 43 );
+
+        buffer.position( 4 );
+        for ( int value : values( rand, 10000 ) ) {
+            assertEquals( set.contains( value ), TIntRoaringSet.contains( buffer, value ) );
+        }
+        assertTrue( TIntRoaringSet.contains( buffer, 5000000 + 99999 ) );
+        assertEquals( 4, buffer.position() );
+
+        TIntRoaringSet read = TIntRoaringSet.deserialize( buffer );
+        assertEquals( set, read );
+        assertEquals( 43, buffer.getInt() );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( set );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        assertEquals( set, oin.readObject() );
+    }
+
+
+    public void testLongSet() throws Exception {
+        Random rand = new Random( 13 );
+        TLongRoaringSet set = new TLongRoaringSet();
+        TLongHashSet reference = new TLongHashSet();
+        long[] bases = { Long.MIN_VALUE, -1L << 32, -70000, 0, 1L << 32, Long.MAX_VALUE - 100000 };
+        for ( int i = 0; i < 100000; i++ ) {
+            long value = bases[ rand.nextInt( bases.length ) ] + rand.nextInt( 100000 );
+            if ( rand.nextInt( 4 ) == 0 ) {
+                assertEquals( reference.remove( value ), set.remove( value ) );
+            } else {
+                assertEquals( reference.add( value ), set.add( value ) );
+            }
+        }
+        assertEquals( reference.size(), set.size() );
+        assertEquals( reference, set );
+        assertEquals( set, reference );
+
+        long[] sorted = reference.toArray();
+        Arrays.sort( sorted );
+        assertTrue( Arrays.equals( sorted, set.toArray() ) );
+        assertEquals( sorted[ 0 ], set.first() );
+        assertEquals( sorted[ sorted.length - 1 ], set.last() );
+
+        TLongIterator iter = set.iterator();
+        for ( int i = 0; iter.hasNext(); i++ ) {
+            assertEquals( sorted[ i ], iter.next() );
+        }
+
+        TLongRoaringSet other = new TLongRoaringSet( new long[]{ sorted[ 0 ], 12345,
+            Long.MAX_VALUE } );
+        TLongRoaringSet and = new TLongRoaringSet( set );
+        and.and( other );
+        assertEquals( new TLongHashSet( new long[]{ sorted[ 0 ] } ), and );
+        assertEquals( 1, set.andCardinality( other ) );
+
+        TLongRoaringSet andNot = new TLongRoaringSet( set );
+        andNot.andNot( other );
+        assertEquals( set.size() - 1, andNot.size() );
+        andNot.or( other );
+        assertEquals( set.size() + 2, andNot.size() );
+        assertTrue( andNot.containsAll( set ) );
+
+        ByteBuffer buffer = ByteBuffer.allocate( set.serializedSizeInBytes() );
+        set.serialize( buffer );
+        buffer.flip();
+        for ( int i = 0; i < 1000; i++ ) {
+            long value = bases[ rand.nextInt( bases.length ) ] + rand.nextInt( 100000 );
+            assertEquals( set.contains( value ), TLongRoaringSet.contains( buffer, value ) );
+        }
+        assertEquals( set, TLongRoaringSet.deserialize( buffer ) );
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        ObjectOutputStream oout = new ObjectOutputStream( bout );
+        oout.writeObject( set );
+        oout.close();
+
+        ObjectInputStream oin = new ObjectInputStream(
+            new ByteArrayInputStream( bout.toByteArray() ) );
+        assertEquals( set, oin.readObject() );
+    }
+}
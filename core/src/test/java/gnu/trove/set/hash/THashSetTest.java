@@ -484,6 +484,37 @@ public class THashSetTest extends TestCase {
     }
 
 
+    public void testSetAlgebra() {
+        Random rand = new Random( 47 );
+        for ( int size : new int[]{ 0, 10, 100000 } ) {
+            THashSet<String> a = new THashSet<String>();
+            Set<String> b = new HashSet<String>();
+            for ( int i = 0; i < size; i++ ) {
+                a.add( String.valueOf( rand.nextInt( size * 2 ) ) );
+                b.add( String.valueOf( rand.nextInt( size * 3 ) ) );
+            }
+            Set<String> and = new HashSet<String>( a );
+            and.retainAll( b );
+            Set<String> or = new HashSet<String>( a );
+            or.addAll( b );
+            Set<String> andNot = new HashSet<String>( a );
+            andNot.removeAll( b );
+
+            for ( boolean parallel : new boolean[]{ false, true } ) {
+                assertEquals( and, THashSet.intersect( a, b, new HashSet<String>(), parallel ) );
+                assertEquals( andNot, THashSet.difference( a, b, new THashSet<Object>(), parallel ) );
+                assertEquals( and.size(), THashSet.intersectionSize( b, a, parallel ) );
+                double jaccard = or.isEmpty() ? 1.0 : ( double ) and.size() / or.size();
+                assertEquals( jaccard, THashSet.jaccard( a, b, parallel ), 1e-12 );
+            }
+            assertEquals( and, THashSet.intersect( b, a ) );
+            assertEquals( or, THashSet.union( a, b ) );
+            THashSet<String> difference = THashSet.difference( a, b );
+            assertEquals( andNot, difference );
+        }
+    }
+
+
     // in this junk class, all instances hash to the same
     // address, but some objects claim to be equal where
     // others do not.
@@ -586,4 +586,69 @@ public class TPrimitiveHashSetTest extends TestCase {
         hs.retainAll(new int[]{11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22});
         hs.retainAll(new int[]{18});
     }
+
+
+    public void testSetAlgebra() {
+        Random rand = new Random( 43 );
+        for ( int size : new int[]{ 0, 10, 100000 } ) {
+            TIntHashSet a = new TIntHashSet();
+            TIntHashSet b = new TIntHashSet();
+            for ( int i = 0; i < size; i++ ) {
+                a.add( rand.nextInt( size * 2 ) );
+                b.add( rand.nextInt( size * 3 ) );
+            }
+            TIntHashSet and = new TIntHashSet( a );
+            and.retainAll( b );
+            TIntHashSet or = new TIntHashSet( a );
+            or.addAll( b );
+            TIntHashSet andNot = new TIntHashSet( a );
+            andNot.removeAll( b );
+
+            for ( boolean parallel : new boolean[]{ false, true } ) {
+                assertEquals( and, TIntHashSet.intersect( a, b, new TIntHashSet(), parallel ) );
+                assertEquals( andNot, TIntHashSet.difference( a, b, new TIntHashSet(), parallel ) );
+                assertEquals( and.size(), TIntHashSet.intersectionSize( b, a, parallel ) );
+                double jaccard = or.isEmpty() ? 1.0 : ( double ) and.size() / or.size();
+                assertEquals( jaccard, TIntHashSet.jaccard( a, b, parallel ), 1e-12 );
+            }
+            assertEquals( and, TIntHashSet.intersect( b, a ) );
+            assertEquals( or, TIntHashSet.union( a, b ) );
+            assertEquals( andNot, TIntHashSet.difference( a, b ) );
+
+            // the destination is added to, not replaced
+            TIntSet dest = new TIntHashSet( new int[]{ -1 } );
+            assertSame( dest, TIntHashSet.union( a, b, dest ) );
+            assertEquals( or.size() + 1, dest.size() );
+        }
+    }
+
+
+    public void testSegmentedSet() {
+        TIntSegmentedHashSet set = new TIntSegmentedHashSet();
+        TIntHashSet reference = new TIntHashSet();
+        Random rand = new Random( 83 );
+        for ( int i = 0; i < 50000; i++ ) {
+            int value = rand.nextInt( 10000 );
+            if ( rand.nextBoolean() ) {
+                assertEquals( reference.add( value ), set.add( value ) );
+            } else {
+                assertEquals( reference.remove( value ), set.remove( value ) );
+            }
+        }
+        assertEquals( reference.size(), set.size() );
+        for ( int value = 0; value < 10000; value++ ) {
+            assertEquals( reference.contains( value ), set.contains( value ) );
+        }
+        assertEquals( reference.hashCode(), set.hashCode() );
+
+        TIntSet seen = new TIntHashSet();
+        for ( TIntIterator iterator = set.iterator(); iterator.hasNext(); ) {
+            assertTrue( seen.add( iterator.next() ) );
+        }
+        assertEquals( reference, seen );
+
+        assertFalse( set.addAll( reference.toArray() ) );
+        set.clear();
+        assertTrue( set.isEmpty() );
+    }
 }
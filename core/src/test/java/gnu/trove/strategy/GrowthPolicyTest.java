@@ -0,0 +1,149 @@
+package gnu.trove.strategy;
+
+import gnu.trove.map.hash.TIntLongHashMap;
+import gnu.trove.set.hash.THashSet;
+import gnu.trove.set.hash.TIntHashSet;
+import junit.framework.TestCase;
+
+
+/**
+ *
+ */
+public class GrowthPolicyTest extends TestCase {
+	public void testGrow() {
+		assertEquals( 20, GrowthPolicy.DOUBLING.grow( 10, 11, 4 ) );
+		assertEquals( 50, GrowthPolicy.DOUBLING.grow( 10, 50, 4 ) );
+		assertEquals( Integer.MAX_VALUE,
+			GrowthPolicy.DOUBLING.grow( Integer.MAX_VALUE - 1, Integer.MAX_VALUE, 4 ) );
+		assertEquals( Integer.MAX_VALUE - 8,
+			GrowthPolicy.DOUBLING.grow( 1 << 30, ( 1 << 30 ) + 1, 4 ) );
+		assertEquals( Integer.MAX_VALUE - 4,
+			GrowthPolicy.DOUBLING.grow( Integer.MAX_VALUE - 9, Integer.MAX_VALUE - 4, 4 ) );
+
+		assertEquals( 15, GrowthPolicy.factor( 1.5 ).grow( 10, 11, 4 ) );
+		assertEquals( 1, GrowthPolicy.factor( 1.5 ).grow( 0, 1, 4 ) );
+		assertEquals( 110, GrowthPolicy.increment( 100 ).grow( 10, 11, 4 ) );
+
+		GrowthPolicy budget = GrowthPolicy.memoryBudget( 400, GrowthPolicy.DOUBLING );
+		assertEquals( 80, budget.grow( 40, 41, 4 ) );
+		assertEquals( 100, budget.grow( 80, 81, 4 ) );
+		try {
+			budget.grow( 100, 101, 4 );
+			fail( "Expected IllegalStateException" );
+		}
+		catch ( IllegalStateException expected ) {
+			// expected
+		}
+
+		try {
+			GrowthPolicy.factor( 1 );
+			fail( "Expected IllegalArgumentException" );
+		}
+		catch ( IllegalArgumentException expected ) {
+			// expected
+		}
+	}
+
+
+	public void testShrink() {
+		assertEquals( 1000, GrowthPolicy.DOUBLING.clear( 1000 ) );
+		assertEquals( 1000, GrowthPolicy.DOUBLING.shrink( 1000, 1, 1 ) );
+
+		GrowthPolicy onClear = GrowthPolicy.shrinkOnClear( GrowthPolicy.DOUBLING );
+		assertEquals( 0, onClear.clear( 1000 ) );
+		assertEquals( 1000, onClear.shrink( 1000, 1, 1 ) );
+		assertEquals( 20, onClear.grow( 10, 11, 4 ) );
+
+		GrowthPolicy sparse = GrowthPolicy.shrinkWhenSparse( GrowthPolicy.DOUBLING, 0.25f );
+		assertEquals( 1000, sparse.clear( 1000 ) );
+		assertEquals( 1000, sparse.shrink( 1000, 250, 250 ) );
+		assertEquals( 600, sparse.shrink( 1000, 200, 200 ) );
+		assertEquals( 32, sparse.shrink( 32, 1, 1 ) );
+		// the load is of the elements held, not of the slots a hash table needs for them
+		assertEquals( 1000, sparse.shrink( 1000, 250, 500 ) );
+		assertEquals( 700, sparse.shrink( 1000, 200, 400 ) );
+
+		assertFalse( GrowthPolicy.DOUBLING.shrinks() );
+		assertFalse( onClear.shrinks() );
+		assertTrue( sparse.shrinks() );
+		assertTrue( GrowthPolicy.memoryBudget( 1000, sparse ).shrinks() );
+	}
+
+
+	public void testHashTable() {
+		TIntHashSet set = new TIntHashSet( 10, 0.5f, 0, GrowthPolicy.factor( 1.5 ) );
+		int capacity = set.capacity();
+		for ( int i = 0; set.capacity() == capacity; i++ ) {
+			set.add( i );
+		}
+		assertTrue( set.capacity() < 2 * capacity );
+
+		TIntLongHashMap map = new TIntLongHashMap( 10, 0.5f, 0, 0,
+			GrowthPolicy.memoryBudget( 1 << 12, GrowthPolicy.DOUBLING ) );
+		int i = 0;
+		try {
+			for ( ; i < 1000; i++ ) {
+				map.put( i, i );
+			}
+			fail( "Expected IllegalStateException" );
+		}
+		catch ( IllegalStateException expected ) {
+			// expected
+		}
+		assertTrue( String.valueOf( i ), i > 100 );
+		assertTrue( map.capacity() * 13 < ( 1 << 12 ) * 11 / 10 );
+		assertEquals( 1L, map.get( 1 ) );
+		// the insert the budget refused left the map as it was
+		assertEquals( i, map.size() );
+		assertFalse( map.containsKey( i ) );
+		map.put( 1, 7 );
+		assertEquals( 7L, map.get( 1 ) );
+
+		THashSet<Integer> objects = new THashSet<Integer>();
+		objects.setGrowthPolicy( GrowthPolicy.memoryBudget( 1 << 10, GrowthPolicy.DOUBLING ) );
+		for ( i = 0; i < 1000; i++ ) {
+			try {
+				objects.add( Integer.valueOf( i ) );
+			}
+			catch ( IllegalStateException expected ) {
+				break;
+			}
+		}
+		assertTrue( String.valueOf( i ), i < 1000 );
+		assertEquals( i, objects.size() );
+		assertFalse( objects.contains( Integer.valueOf( i ) ) );
+
+		set = new TIntHashSet();
+		set.setGrowthPolicy( GrowthPolicy.shrinkWhenSparse(
+			GrowthPolicy.shrinkOnClear( GrowthPolicy.DOUBLING ), 0.1f ) );
+		for ( i = 0; i < 10000; i++ ) {
+			set.add( i );
+		}
+		int full = set.capacity();
+		for ( i = 0; i < 9900; i++ ) {
+			set.remove( i );
+		}
+		assertTrue( set.capacity() < full / 2 );
+		for ( i = 9900; i < 10000; i++ ) {
+			assertTrue( set.contains( i ) );
+		}
+		set.clear();
+		assertTrue( set.capacity() < 100 );
+		set.add( 5 );
+		assertTrue( set.contains( 5 ) );
+	}
+
+
+	public void testDefault() {
+		assertSame( GrowthPolicy.DOUBLING, GrowthPolicy.getDefault() );
+		GrowthPolicy policy = GrowthPolicy.increment( 64 );
+		GrowthPolicy.setDefault( policy );
+		try {
+			assertSame( policy, new TIntHashSet().getGrowthPolicy() );
+		}
+		finally {
+			GrowthPolicy.setDefault( GrowthPolicy.DOUBLING );
+		}
+		assertSame( GrowthPolicy.DOUBLING, new TIntHashSet().getGrowthPolicy() );
+	}
+}
@@ -79,6 +79,17 @@ public class TPrimitiveLinkedListTest extends TestCase {
     }
 
 
+    public void testEstimatedMemoryBytes() {
+        TIntLinkedList list = new TIntLinkedList();
+        long empty = list.estimatedMemoryBytes();
+        for ( int i = 0; i < 10; i++ ) {
+            list.add( i );
+        }
+        // a 24 byte link per element
+        assertEquals( empty + 10 * 24, list.estimatedMemoryBytes() );
+        assertEquals( 0, list.wastedBytes() );
+    }
+
     public void testContains() {
         int element_count = 10;
 
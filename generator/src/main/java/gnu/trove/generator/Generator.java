@@ -28,7 +28,9 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 
@@ -62,6 +64,14 @@ import java.util.regex.Pattern;
  * "&lt;number&gt;" is an integer. Then, that content is replicated for each type where
  * the pattern "#REPLICATED&lt;number&gt;#" is found.</p>
  *
+ * <p><b>Type Restriction</b></p>
+ *
+ * <p>A template containing the line <code>====ONLY_TYPES &lt;type&gt; ...====</code>
+ * (eg: <code>====ONLY_TYPES byte char short====</code>) is only generated for the
+ * listed primitive types. The restriction applies to the "k" markers of map-like
+ * templates and to the "e" markers of single element templates. The line itself is
+ * removed from the output.</p>
+ *
  */
 public class Generator {
     private static final WrapperInfo[] WRAPPERS = new WrapperInfo[]{
@@ -206,6 +216,12 @@ public class Generator {
 
         String content = readFile(input_file);
 
+        StringBuilder unrestricted_content = new StringBuilder();
+        Set<String> only_types = findTypeRestriction(content, unrestricted_content);
+        if (only_types != null) {
+            content = unrestricted_content.toString();
+        }
+
         String file_name = input_file.getName();
         file_name = file_name.replaceAll("\\.template", ".java");
 
@@ -214,9 +230,9 @@ public class Generator {
         // See what kind of template markers it's using, either e or k/v. No marker
         // indicates a replication-only class.
         if (file_name.contains("_K_")) {
-            processKVMarkers(content, output_directory, file_name);
+            processKVMarkers(content, output_directory, file_name, only_types);
         } else if (file_name.contains("_E_")) {
-            processEMarkers(content, output_directory, file_name);
+            processEMarkers(content, output_directory, file_name, only_types);
         } else {
             if (input_file.lastModified() < output_file.lastModified()) {
                 System.out.println("File " + output_file + " up to date, not processing input");
@@ -238,9 +254,12 @@ public class Generator {
 
 
     private static void processKVMarkers(String content, File output_dir,
-                                         String file_name) throws IOException {
+                                         String file_name, Set<String> only_types)
+            throws IOException {
 
         for (WrapperInfo info : WRAPPERS) {
+            if (only_types != null && !only_types.contains(info.primitive)) continue;
+
             String k = info.primitive;
             String KT = info.class_name;
             String K = abbreviate(KT);
@@ -294,9 +313,12 @@ public class Generator {
 
 
     private static void processEMarkers(String content, File output_dir,
-                                        String file_name) throws IOException {
+                                        String file_name, Set<String> only_types)
+            throws IOException {
 
         for (WrapperInfo info : WRAPPERS) {
+            if (only_types != null && !only_types.contains(info.primitive)) continue;
+
             String e = info.primitive;
             String ET = info.class_name;
             String E = abbreviate(ET);
@@ -587,6 +609,41 @@ public class Generator {
     }
 
 
+    /**
+     * Find the type restriction line in content.
+     *
+     * @param content_in  The content
+     * @param content_out A StringBuilder into which the content (without the
+     *                    restriction line) is placed. This will be untouched
+     *                    if no restriction is found.
+     * @return Null if there is no restriction, otherwise the primitive types
+     *         the template should be generated for.
+     */
+    static Set<String> findTypeRestriction(String content_in, StringBuilder content_out)
+            throws IOException {
+
+        Set<String> to_return = null;
+
+        BufferedReader reader = new BufferedReader(new StringReader(content_in));
+        StringBuilder buffer = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (to_return == null && line.startsWith("====ONLY_TYPES ")) {
+                int end_index = line.indexOf("=", "====ONLY_TYPES ".length());
+                String types = line.substring("====ONLY_TYPES ".length(), end_index);
+
+                to_return = new HashSet<String>(Arrays.asList(types.trim().split("\\s+")));
+            } else {
+                buffer.append(line);
+                buffer.append("\n");
+            }
+        }
+
+        if (to_return != null) content_out.append(buffer.toString());
+        return to_return;
+    }
+
+
     private static String simplifyPath(File file) {
         String output_string = root_output_dir.toString();
 
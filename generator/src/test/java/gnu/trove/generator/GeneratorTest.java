@@ -22,8 +22,11 @@ package gnu.trove.generator;
 import junit.framework.TestCase;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -54,6 +57,20 @@ public class GeneratorTest extends TestCase {
 		assertEquals( "This is a test\nLine 2", buf.toString() );
 	}
 
+	public void testTypeRestriction() throws IOException {
+		String test = "Line 1\n====ONLY_TYPES byte char  short====\nLine 2\n";
+
+		StringBuilder buf = new StringBuilder();
+		Set<String> types = Generator.findTypeRestriction( test, buf );
+
+		assertEquals( new HashSet<String>( Arrays.asList( "byte", "char", "short" ) ), types );
+		assertEquals( "Line 1\nLine 2\n", buf.toString() );
+
+		buf = new StringBuilder();
+		assertNull( Generator.findTypeRestriction( "Line 1\nLine 2", buf ) );
+		assertEquals( 0, buf.length() );
+	}
+
 	public void testProcessReplication() {
 		String test = "Line 1\n#REPLICATED1#\n#REPLICATED2#\nLine 4";
 
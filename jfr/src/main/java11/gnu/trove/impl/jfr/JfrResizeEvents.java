@@ -0,0 +1,122 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.jfr;
+
+import gnu.trove.impl.MemoryEstimates;
+import gnu.trove.impl.ResizeEvents;
+
+
+/**
+ * {@link ResizeEvents} that records Java Flight Recorder events:
+ * {@link TroveRehashEvent}, {@link TroveCompactEvent} and
+ * {@link TroveArrayGrowEvent}. Events only cost an allocation and a clock read
+ * while a recording has them enabled.
+ * <p>
+ * The JFR API is in the <tt>jdk.jfr</tt> module of Java 11 or later, so this
+ * class is packaged for those versions of a multi-release jar; elsewhere core
+ * finds no provider and reports nothing.
+ */
+public class JfrResizeEvents extends ResizeEvents {
+
+    public JfrResizeEvents() {}
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Object beginRehash() {
+        TroveRehashEvent event = new TroveRehashEvent();
+        if ( !event.isEnabled() ) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void endRehash( Object event, Object table, int oldCapacity,
+        int newCapacity, int size, int trigger ) {
+        TroveRehashEvent rehash = ( TroveRehashEvent ) event;
+        rehash.end();
+        if ( rehash.shouldCommit() ) {
+            rehash.collection = table.getClass().getName();
+            rehash.oldCapacity = oldCapacity;
+            rehash.newCapacity = newCapacity;
+            rehash.size = size;
+            rehash.trigger = triggerName( trigger );
+            rehash.commit();
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Object beginCompact() {
+        TroveCompactEvent event = new TroveCompactEvent();
+        if ( !event.isEnabled() ) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void endCompact( Object event, Object table, int oldCapacity,
+        int newCapacity, int size, boolean automatic ) {
+        TroveCompactEvent compact = ( TroveCompactEvent ) event;
+        compact.end();
+        if ( compact.shouldCommit() ) {
+            compact.collection = table.getClass().getName();
+            compact.oldCapacity = oldCapacity;
+            compact.newCapacity = newCapacity;
+            compact.size = size;
+            compact.automatic = automatic;
+            compact.commit();
+        }
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public Object beginArrayGrow() {
+        TroveArrayGrowEvent event = new TroveArrayGrowEvent();
+        if ( !event.isEnabled() ) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void endArrayGrow( Object event, Object list, int oldCapacity,
+        int newCapacity, int elementBytes ) {
+        TroveArrayGrowEvent grow = ( TroveArrayGrowEvent ) event;
+        grow.end();
+        if ( grow.shouldCommit() ) {
+            grow.collection = list.getClass().getName();
+            grow.oldCapacity = oldCapacity;
+            grow.newCapacity = newCapacity;
+            grow.allocated = MemoryEstimates.array( newCapacity, elementBytes );
+            grow.commit();
+        }
+    }
+} // JfrResizeEvents
@@ -0,0 +1,50 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * A rehash of a Trove hash table, lasting as long as the rehash.
+ */
+@Name( "gnu.trove.TroveRehash" )
+@Label( "Trove Rehash" )
+@Category( "Trove" )
+@Description( "A hash table rehashed its entries into a new table" )
+public class TroveRehashEvent extends Event {
+
+    @Label( "Collection" )
+    String collection;
+
+    @Label( "Old Capacity" )
+    int oldCapacity;
+
+    @Label( "New Capacity" )
+    int newCapacity;
+
+    @Label( "Size" )
+    int size;
+
+    @Label( "Trigger" )
+    @Description( "growth, tombstones (REMOVED slots used up the free ones), reserve, compaction or shrink" )
+    String trigger;
+} // TroveRehashEvent
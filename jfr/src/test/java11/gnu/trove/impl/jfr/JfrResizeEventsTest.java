@@ -0,0 +1,100 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+package gnu.trove.impl.jfr;
+
+import gnu.trove.impl.ResizeEvents;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntLongHashMap;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.List;
+
+
+/**
+ * Records the resizes of a few collections and reads the events back.
+ */
+public class JfrResizeEventsTest extends TestCase {
+
+    public JfrResizeEventsTest( String name ) {
+        super( name );
+    }
+
+
+    public void testProvider() {
+        // the services file is found
+        assertTrue( ResizeEvents.INSTANCE instanceof JfrResizeEvents );
+    }
+
+
+    public void testEvents() throws Exception {
+        File file = File.createTempFile( "trove", ".jfr" );
+        try {
+            Recording recording = new Recording();
+            recording.enable( TroveRehashEvent.class ).withoutThreshold();
+            recording.enable( TroveCompactEvent.class ).withoutThreshold();
+            recording.enable( TroveArrayGrowEvent.class ).withoutThreshold();
+            recording.start();
+
+            TIntLongHashMap map = new TIntLongHashMap();
+            for ( int i = 0; i < 100; i++ ) {
+                map.put( i, i );
+            }
+            map.compact();
+            TIntArrayList list = new TIntArrayList( 10 );
+            for ( int i = 0; i < 11; i++ ) {
+                list.add( i );
+            }
+
+            recording.stop();
+            recording.dump( file.toPath() );
+            recording.close();
+
+            int rehashes = 0;
+            int compactions = 0;
+            int grows = 0;
+            List<RecordedEvent> events = RecordingFile.readAllEvents( file.toPath() );
+            for ( RecordedEvent event : events ) {
+                String name = event.getEventType().getName();
+                if ( name.equals( "gnu.trove.TroveRehash" ) ) {
+                    rehashes++;
+                    assertEquals( TIntLongHashMap.class.getName(), event.getString( "collection" ) );
+                    assertTrue( event.getInt( "newCapacity" ) > 0 );
+                }
+                else if ( name.equals( "gnu.trove.TroveCompact" ) ) {
+                    compactions++;
+                    assertFalse( event.getBoolean( "automatic" ) );
+                    assertEquals( 100, event.getInt( "size" ) );
+                }
+                else if ( name.equals( "gnu.trove.TroveArrayGrow" ) ) {
+                    grows++;
+                    assertEquals( 10, event.getInt( "oldCapacity" ) );
+                    assertEquals( 20, event.getInt( "newCapacity" ) );
+                    assertEquals( 96, event.getLong( "allocated" ) );
+                }
+            }
+            assertTrue( rehashes > 1 );
+            assertEquals( 1, compactions );
+            assertEquals( 1, grows );
+        }
+        finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.kernel.vector;
+
+import gnu.trove.impl.kernel.TDoubleKernels;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * {@link TDoubleKernels} implemented with the Vector API, processing as many
+ * values at a time as the preferred vector size of the processor holds.
+ * <p>
+ * The Vector API is an incubator module, so this class can only be loaded on
+ * Java 17 or later started with <tt>--add-modules jdk.incubator.vector</tt>;
+ * elsewhere the plain loops of {@link TDoubleKernels} are used.
+ * <p>
+ * Sums and dot products add in a different order from the plain loops, so may
+ * be rounded differently, and a minimum or maximum of zero may have either
+ * sign.
+ */
+public class TDoubleVectorKernels extends TDoubleKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+
+    public TDoubleVectorKernels() {}
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName() {
+        return "vector (" + SPECIES.vectorBitSize() + " bits)";
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public double sum( double[] array, int from, int to ) {
+        DoubleVector sums = DoubleVector.zero( SPECIES );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            sums = sums.add( DoubleVector.fromArray( SPECIES, array, i ) );
+        }
+        double sum = sums.reduceLanes( VectorOperators.ADD );
+        for ( ; i < to; i++ ) {
+            sum += array[ i ];
+        }
+        return sum;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public double min( double[] array, int from, int to ) {
+        // a comparison with NaN is false, so NaN is never taken, as in the loop
+        DoubleVector mins = DoubleVector.broadcast( SPECIES, Double.POSITIVE_INFINITY );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            DoubleVector values = DoubleVector.fromArray( SPECIES, array, i );
+            mins = mins.blend( values, values.compare( VectorOperators.LT, mins ) );
+        }
+        double[] lanes = mins.toArray();
+        return Math.min( super.min( lanes, 0, lanes.length ), super.min( array, i, to ) );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public double max( double[] array, int from, int to ) {
+        DoubleVector maxes = DoubleVector.broadcast( SPECIES, Double.NEGATIVE_INFINITY );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            DoubleVector values = DoubleVector.fromArray( SPECIES, array, i );
+            maxes = maxes.blend( values, values.compare( VectorOperators.GT, maxes ) );
+        }
+        double[] lanes = maxes.toArray();
+        return Math.max( super.max( lanes, 0, lanes.length ), super.max( array, i, to ) );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int indexOf( double[] array, int from, int to, double value ) {
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            VectorMask<Double> equal = DoubleVector.fromArray( SPECIES, array, i )
+                .compare( VectorOperators.EQ, value );
+            if ( equal.anyTrue() ) {
+                return i + equal.firstTrue();
+            }
+        }
+        return super.indexOf( array, i, to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int count( double[] array, int from, int to, double value ) {
+        return count( array, from, to, VectorOperators.EQ, value )
+            + super.count( array, tail( from, to ), to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int countGreaterThan( double[] array, int from, int to, double value ) {
+        return count( array, from, to, VectorOperators.GT, value )
+            + super.countGreaterThan( array, tail( from, to ), to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int countLessThan( double[] array, int from, int to, double value ) {
+        return count( array, from, to, VectorOperators.LT, value )
+            + super.countLessThan( array, tail( from, to ), to, value );
+    }
+
+
+    /** Returns the start of the part of <tt>[from, to)</tt> too short for a vector. */
+    private static int tail( int from, int to ) {
+        return from + SPECIES.loopBound( to - from );
+    }
+
+
+    /**
+     * Counts the values for which <tt>comparison</tt> with <tt>value</tt>
+     * holds, up to {@link #tail}.
+     */
+    private static int count( double[] array, int from, int to,
+        VectorOperators.Comparison comparison, double value ) {
+        int count = 0;
+        for ( int i = from, bound = tail( from, to ); i < bound; i += SPECIES.length() ) {
+            count += DoubleVector.fromArray( SPECIES, array, i ).compare( comparison, value ).trueCount();
+        }
+        return count;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public double dot( double[] a, int aFrom, double[] b, int bFrom, int length ) {
+        DoubleVector sums = DoubleVector.zero( SPECIES );
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            sums = sums.add( DoubleVector.fromArray( SPECIES, a, aFrom + i )
+                .mul( DoubleVector.fromArray( SPECIES, b, bFrom + i ) ) );
+        }
+        return sums.reduceLanes( VectorOperators.ADD )
+            + super.dot( a, aFrom + i, b, bFrom + i, length - i );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void add( double[] target, int targetFrom, double[] values, int valuesFrom,
+        int length ) {
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            DoubleVector.fromArray( SPECIES, target, targetFrom + i )
+                .add( DoubleVector.fromArray( SPECIES, values, valuesFrom + i ) )
+                .intoArray( target, targetFrom + i );
+        }
+        super.add( target, targetFrom + i, values, valuesFrom + i, length - i );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiply( double[] target, int targetFrom, double[] values, int valuesFrom,
+        int length ) {
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            DoubleVector.fromArray( SPECIES, target, targetFrom + i )
+                .mul( DoubleVector.fromArray( SPECIES, values, valuesFrom + i ) )
+                .intoArray( target, targetFrom + i );
+        }
+        super.multiply( target, targetFrom + i, values, valuesFrom + i, length - i );
+    }
+} // TDoubleVectorKernels
@@ -0,0 +1,196 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.kernel.vector;
+
+import gnu.trove.impl.kernel.TFloatKernels;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * {@link TFloatKernels} implemented with the Vector API, processing as many
+ * values at a time as the preferred vector size of the processor holds.
+ * <p>
+ * The Vector API is an incubator module, so this class can only be loaded on
+ * Java 17 or later started with <tt>--add-modules jdk.incubator.vector</tt>;
+ * elsewhere the plain loops of {@link TFloatKernels} are used.
+ * <p>
+ * Sums and dot products add in a different order from the plain loops, so may
+ * be rounded differently, and a minimum or maximum of zero may have either
+ * sign.
+ */
+public class TFloatVectorKernels extends TFloatKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+
+    public TFloatVectorKernels() {}
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName() {
+        return "vector (" + SPECIES.vectorBitSize() + " bits)";
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public float sum( float[] array, int from, int to ) {
+        FloatVector sums = FloatVector.zero( SPECIES );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            sums = sums.add( FloatVector.fromArray( SPECIES, array, i ) );
+        }
+        float sum = sums.reduceLanes( VectorOperators.ADD );
+        for ( ; i < to; i++ ) {
+            sum += array[ i ];
+        }
+        return sum;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public float min( float[] array, int from, int to ) {
+        // a comparison with NaN is false, so NaN is never taken, as in the loop
+        FloatVector mins = FloatVector.broadcast( SPECIES, Float.POSITIVE_INFINITY );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            FloatVector values = FloatVector.fromArray( SPECIES, array, i );
+            mins = mins.blend( values, values.compare( VectorOperators.LT, mins ) );
+        }
+        float[] lanes = mins.toArray();
+        return Math.min( super.min( lanes, 0, lanes.length ), super.min( array, i, to ) );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public float max( float[] array, int from, int to ) {
+        FloatVector maxes = FloatVector.broadcast( SPECIES, Float.NEGATIVE_INFINITY );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            FloatVector values = FloatVector.fromArray( SPECIES, array, i );
+            maxes = maxes.blend( values, values.compare( VectorOperators.GT, maxes ) );
+        }
+        float[] lanes = maxes.toArray();
+        return Math.max( super.max( lanes, 0, lanes.length ), super.max( array, i, to ) );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int indexOf( float[] array, int from, int to, float value ) {
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            VectorMask<Float> equal = FloatVector.fromArray( SPECIES, array, i )
+                .compare( VectorOperators.EQ, value );
+            if ( equal.anyTrue() ) {
+                return i + equal.firstTrue();
+            }
+        }
+        return super.indexOf( array, i, to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int count( float[] array, int from, int to, float value ) {
+        return count( array, from, to, VectorOperators.EQ, value )
+            + super.count( array, tail( from, to ), to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int countGreaterThan( float[] array, int from, int to, float value ) {
+        return count( array, from, to, VectorOperators.GT, value )
+            + super.countGreaterThan( array, tail( from, to ), to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int countLessThan( float[] array, int from, int to, float value ) {
+        return count( array, from, to, VectorOperators.LT, value )
+            + super.countLessThan( array, tail( from, to ), to, value );
+    }
+
+
+    /** Returns the start of the part of <tt>[from, to)</tt> too short for a vector. */
+    private static int tail( int from, int to ) {
+        return from + SPECIES.loopBound( to - from );
+    }
+
+
+    /**
+     * Counts the values for which <tt>comparison</tt> with <tt>value</tt>
+     * holds, up to {@link #tail}.
+     */
+    private static int count( float[] array, int from, int to,
+        VectorOperators.Comparison comparison, float value ) {
+        int count = 0;
+        for ( int i = from, bound = tail( from, to ); i < bound; i += SPECIES.length() ) {
+            count += FloatVector.fromArray( SPECIES, array, i ).compare( comparison, value ).trueCount();
+        }
+        return count;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public float dot( float[] a, int aFrom, float[] b, int bFrom, int length ) {
+        FloatVector sums = FloatVector.zero( SPECIES );
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            sums = sums.add( FloatVector.fromArray( SPECIES, a, aFrom + i )
+                .mul( FloatVector.fromArray( SPECIES, b, bFrom + i ) ) );
+        }
+        return sums.reduceLanes( VectorOperators.ADD )
+            + super.dot( a, aFrom + i, b, bFrom + i, length - i );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void add( float[] target, int targetFrom, float[] values, int valuesFrom,
+        int length ) {
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            FloatVector.fromArray( SPECIES, target, targetFrom + i )
+                .add( FloatVector.fromArray( SPECIES, values, valuesFrom + i ) )
+                .intoArray( target, targetFrom + i );
+        }
+        super.add( target, targetFrom + i, values, valuesFrom + i, length - i );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiply( float[] target, int targetFrom, float[] values, int valuesFrom,
+        int length ) {
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            FloatVector.fromArray( SPECIES, target, targetFrom + i )
+                .mul( FloatVector.fromArray( SPECIES, values, valuesFrom + i ) )
+                .intoArray( target, targetFrom + i );
+        }
+        super.multiply( target, targetFrom + i, values, valuesFrom + i, length - i );
+    }
+} // TFloatVectorKernels
@@ -0,0 +1,187 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+
+package gnu.trove.impl.kernel.vector;
+
+import gnu.trove.impl.kernel.TIntKernels;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * {@link TIntKernels} implemented with the Vector API, processing as many
+ * values at a time as the preferred vector size of the processor holds.
+ * <p>
+ * The Vector API is an incubator module, so this class can only be loaded on
+ * Java 17 or later started with <tt>--add-modules jdk.incubator.vector</tt>;
+ * elsewhere the plain loops of {@link TIntKernels} are used.
+ */
+public class TIntVectorKernels extends TIntKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+
+    public TIntVectorKernels() {}
+
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName() {
+        return "vector (" + SPECIES.vectorBitSize() + " bits)";
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int sum( int[] array, int from, int to ) {
+        IntVector sums = IntVector.zero( SPECIES );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            sums = sums.add( IntVector.fromArray( SPECIES, array, i ) );
+        }
+        int sum = sums.reduceLanes( VectorOperators.ADD );
+        for ( ; i < to; i++ ) {
+            sum += array[ i ];
+        }
+        return sum;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int min( int[] array, int from, int to ) {
+        IntVector mins = IntVector.broadcast( SPECIES, Integer.MAX_VALUE );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            mins = mins.min( IntVector.fromArray( SPECIES, array, i ) );
+        }
+        return Math.min( mins.reduceLanes( VectorOperators.MIN ), super.min( array, i, to ) );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int max( int[] array, int from, int to ) {
+        IntVector maxes = IntVector.broadcast( SPECIES, Integer.MIN_VALUE );
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            maxes = maxes.max( IntVector.fromArray( SPECIES, array, i ) );
+        }
+        return Math.max( maxes.reduceLanes( VectorOperators.MAX ), super.max( array, i, to ) );
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int indexOf( int[] array, int from, int to, int value ) {
+        int i = from;
+        for ( int bound = from + SPECIES.loopBound( to - from ); i < bound; i += SPECIES.length() ) {
+            VectorMask<Integer> equal = IntVector.fromArray( SPECIES, array, i )
+                .compare( VectorOperators.EQ, value );
+            if ( equal.anyTrue() ) {
+                return i + equal.firstTrue();
+            }
+        }
+        return super.indexOf( array, i, to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int count( int[] array, int from, int to, int value ) {
+        return count( array, from, to, VectorOperators.EQ, value )
+            + super.count( array, tail( from, to ), to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int countGreaterThan( int[] array, int from, int to, int value ) {
+        return count( array, from, to, VectorOperators.GT, value )
+            + super.countGreaterThan( array, tail( from, to ), to, value );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int countLessThan( int[] array, int from, int to, int value ) {
+        return count( array, from, to, VectorOperators.LT, value )
+            + super.countLessThan( array, tail( from, to ), to, value );
+    }
+
+
+    /** Returns the start of the part of <tt>[from, to)</tt> too short for a vector. */
+    private static int tail( int from, int to ) {
+        return from + SPECIES.loopBound( to - from );
+    }
+
+
+    /**
+     * Counts the values for which <tt>comparison</tt> with <tt>value</tt>
+     * holds, up to {@link #tail}.
+     */
+    private static int count( int[] array, int from, int to,
+        VectorOperators.Comparison comparison, int value ) {
+        int count = 0;
+        for ( int i = from, bound = tail( from, to ); i < bound; i += SPECIES.length() ) {
+            count += IntVector.fromArray( SPECIES, array, i ).compare( comparison, value ).trueCount();
+        }
+        return count;
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public int dot( int[] a, int aFrom, int[] b, int bFrom, int length ) {
+        IntVector sums = IntVector.zero( SPECIES );
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            sums = sums.add( IntVector.fromArray( SPECIES, a, aFrom + i )
+                .mul( IntVector.fromArray( SPECIES, b, bFrom + i ) ) );
+        }
+        return sums.reduceLanes( VectorOperators.ADD )
+            + super.dot( a, aFrom + i, b, bFrom + i, length - i );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void add( int[] target, int targetFrom, int[] values, int valuesFrom,
+        int length ) {
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            IntVector.fromArray( SPECIES, target, targetFrom + i )
+                .add( IntVector.fromArray( SPECIES, values, valuesFrom + i ) )
+                .intoArray( target, targetFrom + i );
+        }
+        super.add( target, targetFrom + i, values, valuesFrom + i, length - i );
+    }
+
+
+    /** {@inheritDoc} */
+    @Override
+    public void multiply( int[] target, int targetFrom, int[] values, int valuesFrom,
+        int length ) {
+        int i = 0;
+        for ( int bound = SPECIES.loopBound( length ); i < bound; i += SPECIES.length() ) {
+            IntVector.fromArray( SPECIES, target, targetFrom + i )
+                .mul( IntVector.fromArray( SPECIES, values, valuesFrom + i ) )
+                .intoArray( target, targetFrom + i );
+        }
+        super.multiply( target, targetFrom + i, values, valuesFrom + i, length - i );
+    }
+} // TIntVectorKernels
@@ -0,0 +1,142 @@
+///////////////////////////////////////////////////////////////////////////////
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this program; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+///////////////////////////////////////////////////////////////////////////////
+package gnu.trove.impl.kernel.vector;
+
+import gnu.trove.impl.kernel.TDoubleKernels;
+import gnu.trove.impl.kernel.TFloatKernels;
+import gnu.trove.impl.kernel.TIntKernels;
+import gnu.trove.impl.kernel.TLongKernels;
+import gnu.trove.list.array.TDoubleArrayList;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+/**
+ * Checks the Vector API kernels against the plain loops they replace, on
+ * slices of every alignment and on lengths either side of a vector.
+ */
+public class TVectorKernelsTest extends TestCase {
+
+    private static final TDoubleKernels SCALAR_DOUBLE = new TDoubleKernels() {};
+    private static final TFloatKernels SCALAR_FLOAT = new TFloatKernels() {};
+    private static final TIntKernels SCALAR_INT = new TIntKernels() {};
+    private static final TLongKernels SCALAR_LONG = new TLongKernels() {};
+
+
+    public TVectorKernelsTest( String name ) {
+        super( name );
+    }
+
+
+    public void testProvider() {
+        // the services file is found, and the module was enabled for the test
+        assertTrue( TDoubleKernels.getInstance() instanceof TDoubleVectorKernels );
+        assertTrue( TIntKernels.getInstance() instanceof TIntVectorKernels );
+
+        TDoubleArrayList list = new TDoubleArrayList( new double[]{ 1, 2, 3, 4, 5, 6, 7, 8, 9 } );
+        assertEquals( 45.0, list.sum() );
+        assertEquals( 285.0, list.dot( list ) );
+        assertEquals( 3, list.countGreaterThan( 6 ) );
+    }
+
+
+    public void testDouble() {
+        Random rand = new Random( 67 );
+        TDoubleVectorKernels vector = new TDoubleVectorKernels();
+        for ( int length = 0; length < 80; length++ ) {
+            double[] a = new double[ length + 3 ];
+            double[] b = new double[ length + 3 ];
+            for ( int i = 0; i < a.length; i++ ) {
+                a[ i ] = rand.nextInt( 20 ) - 10;
+                b[ i ] = rand.nextInt( 20 ) - 10;
+            }
+            if ( length > 5 ) {
+                a[ length / 2 ] = Double.NaN;
+            }
+            for ( int from = 0; from < 3; from++ ) {
+                int to = from + length;
+                // small integers add exactly in any order
+                assertEquals( SCALAR_DOUBLE.sum( b, from, to ), vector.sum( b, from, to ) );
+                assertEquals( SCALAR_DOUBLE.min( a, from, to ), vector.min( a, from, to ) );
+                assertEquals( SCALAR_DOUBLE.max( a, from, to ), vector.max( a, from, to ) );
+                assertEquals( SCALAR_DOUBLE.indexOf( a, from, to, 3 ), vector.indexOf( a, from, to, 3 ) );
+                assertEquals( -1, vector.indexOf( a, from, to, Double.NaN ) );
+                assertEquals( SCALAR_DOUBLE.count( a, from, to, 3 ), vector.count( a, from, to, 3 ) );
+                assertEquals( SCALAR_DOUBLE.countGreaterThan( a, from, to, 0 ),
+                    vector.countGreaterThan( a, from, to, 0 ) );
+                assertEquals( SCALAR_DOUBLE.countLessThan( a, from, to, 0 ),
+                    vector.countLessThan( a, from, to, 0 ) );
+                assertEquals( SCALAR_DOUBLE.dot( b, from, b, 3 - from, length ),
+                    vector.dot( b, from, b, 3 - from, length ) );
+
+                double[] expected = a.clone();
+                double[] actual = a.clone();
+                SCALAR_DOUBLE.add( expected, from, b, 3 - from, length );
+                vector.add( actual, from, b, 3 - from, length );
+                assertTrue( Arrays.equals( expected, actual ) );
+                SCALAR_DOUBLE.multiply( expected, from, b, 0, length );
+                vector.multiply( actual, from, b, 0, length );
+                assertTrue( Arrays.equals( expected, actual ) );
+            }
+        }
+    }
+
+
+    public void testFloat() {
+        Random rand = new Random( 71 );
+        TFloatVectorKernels vector = new TFloatVectorKernels();
+        for ( int length = 0; length < 80; length++ ) {
+            float[] a = new float[ length + 1 ];
+            for ( int i = 0; i < a.length; i++ ) {
+                a[ i ] = rand.nextInt( 20 ) - 10;
+            }
+            assertEquals( SCALAR_FLOAT.sum( a, 1, a.length ), vector.sum( a, 1, a.length ) );
+            assertEquals( SCALAR_FLOAT.min( a, 1, a.length ), vector.min( a, 1, a.length ) );
+            assertEquals( SCALAR_FLOAT.max( a, 1, a.length ), vector.max( a, 1, a.length ) );
+            assertEquals( SCALAR_FLOAT.count( a, 1, a.length, 7 ), vector.count( a, 1, a.length, 7 ) );
+            assertEquals( SCALAR_FLOAT.dot( a, 0, a, 1, length ), vector.dot( a, 0, a, 1, length ) );
+        }
+    }
+
+
+    public void testIntegral() {
+        Random rand = new Random( 73 );
+        TIntVectorKernels ints = new TIntVectorKernels();
+        TLongVectorKernels longs = new TLongVectorKernels();
+        for ( int length = 0; length < 80; length++ ) {
+            int[] a = new int[ length + 1 ];
+            long[] b = new long[ length + 1 ];
+            for ( int i = 0; i < a.length; i++ ) {
+                a[ i ] = rand.nextInt();
+                b[ i ] = rand.nextLong();
+            }
+            // overflowing sums wrap the same way in any order
+            assertEquals( SCALAR_INT.sum( a, 1, a.length ), ints.sum( a, 1, a.length ) );
+            assertEquals( SCALAR_INT.min( a, 1, a.length ), ints.min( a, 1, a.length ) );
+            assertEquals( SCALAR_INT.max( a, 1, a.length ), ints.max( a, 1, a.length ) );
+            assertEquals( SCALAR_INT.dot( a, 0, a, 1, length ), ints.dot( a, 0, a, 1, length ) );
+            assertEquals( SCALAR_INT.indexOf( a, 1, a.length, a[ length ] ),
+                ints.indexOf( a, 1, a.length, a[ length ] ) );
+            assertEquals( SCALAR_LONG.sum( b, 1, b.length ), longs.sum( b, 1, b.length ) );
+            assertEquals( SCALAR_LONG.min( b, 1, b.length ), longs.min( b, 1, b.length ) );
+            assertEquals( SCALAR_LONG.max( b, 1, b.length ), longs.max( b, 1, b.length ) );
+            assertEquals( SCALAR_LONG.countLessThan( b, 0, b.length, 0 ),
+                longs.countLessThan( b, 0, b.length, 0 ) );
+        }
+    }
+}